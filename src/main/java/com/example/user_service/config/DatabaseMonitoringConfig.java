@@ -0,0 +1,51 @@
+package com.example.user_service.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instrumentación del pool de conexiones y de las transacciones
+ * - Cada pool Hikari (primario y réplica) publica espera y retención de
+ *   conexión por endpoint además de las métricas hikaricp.*
+ * - TransactionMonitor se registra como TransactionExecutionListener en el
+ *   transaction manager (Spring Boot aplica los listeners automáticamente)
+ */
+@Configuration(proxyBeanMethods = false)
+public class DatabaseMonitoringConfig {
+
+    /**
+     * Debe asignarse antes de que el pool arranque; Spring Boot respeta un
+     * MetricsTrackerFactory ya configurado y no lo reemplaza
+     */
+    @Bean
+    public static BeanPostProcessor endpointMetricsTrackerPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari
+                        && hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null) {
+                    hikari.setMetricsTrackerFactory(new EndpointMetricsTrackerFactory(meterRegistry));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TransactionMonitor transactionMonitor(MeterRegistry meterRegistry,
+            @Value("${datasource.monitoring.long-transaction-ms:2000}") long longTransactionMillis) {
+        return new TransactionMonitor(meterRegistry, longTransactionMillis);
+    }
+
+    @Bean
+    public TransactionMonitorEndpoint transactionMonitorEndpoint(TransactionMonitor transactionMonitor) {
+        return new TransactionMonitorEndpoint(transactionMonitor);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.user_service.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de Hikari por endpoint
+ * Conserva las métricas hikaricp.* estándar y añade db.connection.acquire
+ * (espera por una conexión), db.connection.hold (tiempo prestada) y
+ * db.connection.timeout etiquetadas con pool y endpoint. Hikari registra
+ * estos eventos en el hilo que pide/devuelve la conexión, así que el endpoint
+ * es el de la petición en curso
+ */
+public class EndpointMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public EndpointMetricsTrackerFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry registry = meterRegistry.getObject();
+        return new EndpointMetricsTracker(poolName, registry,
+                new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats));
+    }
+
+    static final class EndpointMetricsTracker implements IMetricsTracker {
+
+        private final String poolName;
+        private final MeterRegistry registry;
+        private final IMetricsTracker delegate;
+
+        EndpointMetricsTracker(String poolName, MeterRegistry registry, IMetricsTracker delegate) {
+            this.poolName = poolName;
+            this.registry = registry;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            timer("db.connection.acquire", "Espera hasta obtener una conexión del pool")
+                    .record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            timer("db.connection.hold", "Tiempo que la conexión estuvo prestada")
+                    .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+            Counter.builder("db.connection.timeout")
+                    .description("Peticiones que agotaron connection-timeout esperando una conexión")
+                    .tag("pool", poolName)
+                    .tag("endpoint", RequestEndpoint.current())
+                    .register(registry)
+                    .increment();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private Timer timer(String name, String description) {
+            return Timer.builder(name)
+                    .description(description)
+                    .tag("pool", poolName)
+                    .tag("endpoint", RequestEndpoint.current())
+                    .register(registry);
+        }
+    }
+}
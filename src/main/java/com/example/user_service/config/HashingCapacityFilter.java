@@ -0,0 +1,47 @@
+package com.example.user_service.config;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Traduce el rechazo del pool de hashing durante HTTP Basic a un 503
+ * Los controladores ya lo manejan en RestExceptionHandler, pero el filtro de
+ * autenticación se ejecuta antes del DispatcherServlet
+ */
+@Slf4j
+public class HashingCapacityFilter extends OncePerRequestFilter {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (TaskRejectedException ex) {
+            if (response.isCommitted()) {
+                throw ex;
+            }
+            log.warn("Authentication rejected for {}: {}", request.getRequestURI(), ex.getMessage());
+            response.resetBuffer();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(String.format(
+                    "{\"timestamp\":\"%s\",\"code\":\"SERVICE_UNAVAILABLE\",\"message\":\"%s\"}",
+                    Instant.now(), "Server is busy, please retry later"));
+        }
+    }
+}
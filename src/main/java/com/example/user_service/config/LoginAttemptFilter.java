@@ -0,0 +1,70 @@
+package com.example.user_service.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.user_service.service.LoginAttemptLimiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rechaza con 429 las cabeceras HTTP Basic de emails/IPs bloqueados
+ * Se ejecuta antes de BasicAuthenticationFilter, así que no hay consulta a la
+ * base de datos ni BCrypt para intentos que ya superaron el límite
+ */
+public class LoginAttemptFilter extends OncePerRequestFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    public LoginAttemptFilter(LoginAttemptLimiter loginAttemptLimiter) {
+        this.loginAttemptLimiter = loginAttemptLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+            String username = extractUsername(header);
+            if (!loginAttemptLimiter.isAllowed(username, request.getRemoteAddr())) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(loginAttemptLimiter.retryAfterSeconds()));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write(String.format(
+                        "{\"timestamp\":\"%s\",\"code\":\"TOO_MANY_REQUESTS\",\"message\":\"%s\"}",
+                        Instant.now(), "Too many failed login attempts, please retry later"));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Devuelve el usuario de la cabecera o null si está mal formada
+     * (BasicAuthenticationFilter se encarga de rechazarla)
+     */
+    private String extractUsername(String header) {
+        try {
+            String decoded = new String(
+                    Base64.getDecoder().decode(header.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return separator >= 0 ? decoded.substring(0, separator) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
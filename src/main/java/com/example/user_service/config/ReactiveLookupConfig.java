@@ -0,0 +1,89 @@
+package com.example.user_service.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ruta de lectura reactiva opcional (datasource.reactive.enabled=true)
+ * Un pool R2DBC propio, independiente de Hikari/JPA, para los endpoints
+ * internos de solo lectura: la consulta no ocupa un hilo mientras espera a
+ * PostgreSQL. Sin URL explícita se usa la misma base que el DataSource JDBC.
+ * El pool no se publica como bean ConnectionFactory: Spring Boot dejaría de
+ * autoconfigurar el DataSource JDBC si encontrara uno
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "datasource.reactive", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReactiveLookupConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveLookupDatabaseClient(
+            @Value("${datasource.reactive.url:}") String url,
+            @Value("${datasource.reactive.pool.initial-size:1}") int initialSize,
+            @Value("${datasource.reactive.pool.max-size:10}") int maxSize,
+            @Value("${datasource.reactive.pool.max-acquire-time-ms:2000}") long maxAcquireTimeMillis,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        ConnectionFactoryOptions options = connectionOptions(url, connectionDetails.getObject());
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMillis))
+                .build());
+        log.info("⚡ Reactive lookup pool enabled ({}:{}/{}, max {} connections)",
+                options.getValue(ConnectionFactoryOptions.HOST), options.getValue(ConnectionFactoryOptions.PORT),
+                options.getValue(ConnectionFactoryOptions.DATABASE), maxSize);
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    /**
+     * URL R2DBC explícita o la del DataSource JDBC (jdbc:postgresql://... → r2dbc:postgresql://...)
+     * con sus credenciales
+     */
+    private static ConnectionFactoryOptions connectionOptions(String url, JdbcConnectionDetails jdbc) {
+        if (StringUtils.hasText(url)) {
+            return ConnectionFactoryOptions.parse(url);
+        }
+        String jdbcUrl = jdbc.getJdbcUrl();
+        if (!jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl
+                    + "; set datasource.reactive.url");
+        }
+        ConnectionFactoryOptions.Builder builder = ConnectionFactoryOptions
+                .parse("r2dbc:" + jdbcUrl.substring("jdbc:".length()))
+                .mutate();
+        if (jdbc.getUsername() != null) {
+            builder.option(ConnectionFactoryOptions.USER, jdbc.getUsername());
+        }
+        if (jdbc.getPassword() != null) {
+            builder.option(ConnectionFactoryOptions.PASSWORD, jdbc.getPassword());
+        }
+        return builder.build();
+    }
+}
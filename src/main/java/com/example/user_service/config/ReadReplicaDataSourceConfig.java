@@ -0,0 +1,120 @@
+package com.example.user_service.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Réplica de lectura opcional (datasource.replica.enabled=true)
+ * Define dos pools Hikari, "primary" y "replica", cada uno con sus propias
+ * métricas hikaricp.* (tag pool). El DataSource principal es un proxy
+ * perezoso: la conexión real se obtiene en la primera sentencia, cuando ya se
+ * sabe si la transacción es readOnly; las de solo lectura van a la réplica
+ * salvo que ReplicaLagMonitor la haya marcado como atrasada o caída.
+ * Sin la propiedad se usa el DataSource autoconfigurado de siempre
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        DataSourceBuilder<HikariDataSource> builder = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class);
+        // Testcontainers (@ServiceConnection) publica la conexión como JdbcConnectionDetails
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        if (details != null) {
+            builder.url(details.getJdbcUrl())
+                    .username(details.getUsername())
+                    .password(details.getPassword())
+                    .driverClassName(details.getDriverClassName());
+        }
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username}") String username,
+            @Value("${datasource.replica.password}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource replicaDataSource,
+            @Value("${datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor) {
+        ReadOnlyRoutingDataSource readOnly = new ReadOnlyRoutingDataSource(replicaLagMonitor);
+        readOnly.setTargetDataSources(Map.of(
+                Target.PRIMARY, primaryDataSource,
+                Target.REPLICA, replicaDataSource));
+        readOnly.setDefaultTargetDataSource(primaryDataSource);
+        readOnly.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readOnly);
+
+        log.info("📚 Read replica routing enabled (replica: {})", replicaDataSource.getJdbcUrl());
+        return dataSource;
+    }
+
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    /**
+     * Destino de las conexiones de solo lectura: la réplica mientras esté al día
+     */
+    private static final class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+        private final ReplicaLagMonitor replicaLagMonitor;
+
+        private ReadOnlyRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+            this.replicaLagMonitor = replicaLagMonitor;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return replicaLagMonitor.isAvailable() ? Target.REPLICA : Target.PRIMARY;
+        }
+    }
+}
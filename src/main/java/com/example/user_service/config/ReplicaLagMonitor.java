@@ -0,0 +1,85 @@
+package com.example.user_service.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vigila el retraso de replicación de la réplica de lectura
+ * Mientras el retraso supere el máximo configurado (o la réplica no responda)
+ * las transacciones de solo lectura vuelven al primario. El retraso es 0 si
+ * la réplica ya aplicó todo el WAL recibido, para que un primario sin
+ * escrituras recientes no marque la réplica como atrasada
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END::bigint
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+
+    private volatile boolean available;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.maxLagMillis = maxLagMillis;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Retraso de replicación en ms (-1 si la réplica no responde)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("1 si las lecturas se envían a la réplica, 0 si van al primario")
+                .register(meterRegistry);
+
+        refresh();
+    }
+
+    /**
+     * true si las transacciones de solo lectura pueden ir a la réplica
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void refresh() {
+        boolean wasAvailable = available;
+        try {
+            Long lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Long.class);
+            lagMillis = lag != null ? lag : 0;
+            available = lagMillis <= maxLagMillis;
+        } catch (RuntimeException e) {
+            lagMillis = -1;
+            available = false;
+            if (wasAvailable) {
+                log.warn("⚠️ Read replica check failed: {}", e.getMessage());
+            }
+        }
+
+        if (wasAvailable && !available) {
+            log.warn("⚠️ Read replica disabled (lag: {}ms, max: {}ms); read-only transactions use primary",
+                    lagMillis, maxLagMillis);
+        } else if (!wasAvailable && available) {
+            log.info("✅ Read replica enabled (lag: {}ms)", lagMillis);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.user_service.config;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Etiqueta de endpoint para métricas: método + patrón de la ruta
+ * ("GET /api/v1/users/{userId}"), nunca la URI real, para acotar la cardinalidad
+ */
+final class RequestEndpoint {
+
+    static final String BACKGROUND = "background";
+    static final String UNMAPPED = "UNMAPPED";
+
+    private RequestEndpoint() {
+    }
+
+    /**
+     * Endpoint de la petición que atiende el hilo actual; "background" para
+     * tareas programadas y "METHOD UNMAPPED" antes de resolver el handler
+     * (por ejemplo durante la autenticación en los filtros de seguridad)
+     */
+    static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.user_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -14,7 +16,12 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 import com.example.user_service.service.CustomUserDetailsService;
+import com.example.user_service.service.LoginAttemptLimiter;
 
 /**
  * Security configuration for the application
@@ -25,17 +32,63 @@ import com.example.user_service.service.CustomUserDetailsService;
 @EnableMethodSecurity
 public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    @Value("${security.password-hashing.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password-hashing.max-wait-ms:3000}")
+    private long hashingMaxWaitMillis;
 
     // Constructor manual para evitar problemas con Lombok en algunos IDEs
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, LoginAttemptLimiter loginAttemptLimiter) {
         this.userDetailsService = userDetailsService;
+        this.loginAttemptLimiter = loginAttemptLimiter;
     }
 
     /**
-     * Configura la cadena de filtros de seguridad
+     * Cadena de filtros para Swagger UI
+     * Es la única que mantiene sesión HTTP y Remember Me, para que el navegador
+     * conserve el estado de la documentación interactiva
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain swaggerSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**",
+                        "/logout")
+                .csrf(csrf -> csrf.disable())
+                .cors(withDefaults())
+                .authorizeHttpRequests(auth -> auth
+                        .anyRequest().permitAll())
+                .httpBasic(withDefaults())
+                // Las credenciales Basic se verifican igual que en la API: mismo límite
+                // de intentos y mismo 503 cuando el pool de hashing está lleno
+                .addFilterBefore(new HashingCapacityFilter(), BasicAuthenticationFilter.class)
+                .addFilterBefore(new LoginAttemptFilter(loginAttemptLimiter), BasicAuthenticationFilter.class)
+                // Habilitar Remember Me
+                .rememberMe(withDefaults())
+                // Configurar Logout
+                .logout(logout -> logout
+                        .logoutUrl("/logout")
+                        .permitAll())
+                // IF_REQUIRED solo para Swagger UI
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED));
+        return http.build();
+    }
+
+    /**
+     * Configura la cadena de filtros de seguridad de la API
      * Define qué rutas son públicas y cuáles requieren autenticación/autorización
+     * Es STATELESS: las credenciales viajan en cada request y nunca se crea una
+     * HttpSession, así cualquier instancia detrás del balanceador puede atenderla
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 // Deshabilitar CSRF para APIs REST
@@ -48,12 +101,12 @@ public class SecurityConfig {
                         // Actuator endpoints para health checks (UptimeRobot, monitoring, etc.)
                         .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers("/actuator/info").permitAll()
+                        // Transacciones en curso (pilas de hilos) - solo administradores
+                        .requestMatchers("/actuator/transactions").hasRole("ADMIN")
 
-                        // Registro y documentación Swagger
+                        // Registro y login
                         .requestMatchers("/api/v1/users/register/**").permitAll()
                         .requestMatchers("/api/v1/users/login").permitAll()
-                        .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
-                        .requestMatchers("/api-docs/**").permitAll()
 
                         // ============= ENDPOINTS INTERNOS PARA MICROSERVICIOS =============
                         // Estos endpoints NO requieren autenticación para comunicación interna
@@ -82,20 +135,21 @@ public class SecurityConfig {
                         // ============= USER PREFERENCES =============
                         // Solo el usuario propietario puede gestionar sus preferencias
                         .requestMatchers("/api/v1/users/*/preferences/**").authenticated()
+                        // ============= ADMINISTRACIÓN =============
+                        // Importación masiva de usuarios - solo administradores
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                         // ============= OTRAS RUTAS =============
                         // Cualquier otra ruta requiere autenticación
                         .anyRequest().authenticated())
                 // Usar HTTP Basic Authentication (credenciales en cada request)
                 .httpBasic(withDefaults())
-                // Habilitar Remember Me
-                .rememberMe(withDefaults())
-                // Configurar Logout
-                .logout(logout -> logout
-                        .logoutUrl("/logout")
-                        .permitAll())
-                // Cambiar a IF_REQUIRED para permitir sesiones (necesario para Swagger)
+                // Responder 503 si el pool de hashing rechaza la verificación de credenciales
+                .addFilterBefore(new HashingCapacityFilter(), BasicAuthenticationFilter.class)
+                // Rechazar credenciales de emails/IPs bloqueados antes de consultar la BD
+                .addFilterBefore(new LoginAttemptFilter(loginAttemptLimiter), BasicAuthenticationFilter.class)
+                // Sin sesiones: ni SecurityContext ni RequestCache se guardan en HttpSession
                 .sessionManagement(session -> session
-                        .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED));
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         return http.build();
     }
 
@@ -104,10 +158,10 @@ public class SecurityConfig {
      * Usa CustomUserDetailsService y BCrypt para autenticación
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -122,9 +176,15 @@ public class SecurityConfig {
 
     /**
      * Codificador de contraseñas usando BCrypt
+     * Ejecuta el hashing en un pool acotado para que registro, login, cambio de
+     * contraseña y HTTP Basic no monopolicen los hilos de Tomcat
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int poolSize = hashingPoolSize > 0
+                ? hashingPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize,
+                hashingQueueCapacity, hashingMaxWaitMillis, meterRegistry);
     }
 }
@@ -1,6 +1,7 @@
 package com.example.user_service.config;
 
 import java.io.IOException;
+import java.time.Instant;
 
 import org.apache.hc.core5.http.ParseException;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +22,11 @@ public class SpotifyApiConfig {
     @Value("${spotify.client.secret}")
     private String clientSecret;
 
+    private static final long TOKEN_REFRESH_MARGIN_SECONDS = 60;
+
+    private String accessToken;
+    private Instant accessTokenRefreshAt = Instant.MIN;
+
     @Bean
     public SpotifyApi spotifyApi() {
         return new SpotifyApi.Builder()
@@ -31,16 +37,27 @@ public class SpotifyApiConfig {
 
     /**
      * Obtiene el access token de Spotify usando Client Credentials Flow
+     * El token se reutiliza hasta un minuto antes de que expire, en lugar de
+     * pedir uno nuevo (una llamada HTTP más) en cada operación
      */
-    public String getAccessToken(SpotifyApi spotifyApi) {
+    public synchronized String getAccessToken(SpotifyApi spotifyApi) {
+        if (accessToken != null && Instant.now().isBefore(accessTokenRefreshAt)) {
+            spotifyApi.setAccessToken(accessToken);
+            return accessToken;
+        }
         try {
             ClientCredentialsRequest clientCredentialsRequest = spotifyApi.clientCredentials().build();
             ClientCredentials clientCredentials = clientCredentialsRequest.execute();
 
+            Integer expiresIn = clientCredentials.getExpiresIn();
+            accessToken = clientCredentials.getAccessToken();
+            accessTokenRefreshAt = Instant.now().plusSeconds(
+                    expiresIn != null ? Math.max(0, expiresIn - TOKEN_REFRESH_MARGIN_SECONDS) : 0);
+
             // Configurar el access token en el SpotifyApi
-            spotifyApi.setAccessToken(clientCredentials.getAccessToken());
+            spotifyApi.setAccessToken(accessToken);
 
-            return clientCredentials.getAccessToken();
+            return accessToken;
         } catch (IOException | SpotifyWebApiException | ParseException e) {
             throw new RuntimeException("Error al obtener el access token de Spotify: " + e.getMessage(), e);
         }
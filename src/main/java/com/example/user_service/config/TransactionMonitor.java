@@ -0,0 +1,245 @@
+package com.example.user_service.config;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detector de transacciones largas
+ * Registra cada transacción física (db.transaction.duration por endpoint) y
+ * avisa de las que mantienen la conexión más de long-transaction-ms, con la
+ * pila del hilo en ese momento, y de las que hacen llamadas remotas (Spotify,
+ * Azure) mientras la conexión sigue prestada. Con un pool de 5 conexiones
+ * cualquiera de las dos puede dejar al resto de peticiones esperando.
+ * El estado se expone en /actuator/transactions
+ */
+@Slf4j
+public class TransactionMonitor implements TransactionExecutionListener {
+
+    private static final int MAX_RECENT = 50;
+    private static final int MAX_STACK_FRAMES = 25;
+
+    private final MeterRegistry meterRegistry;
+    private final long longTransactionMillis;
+
+    private final Map<TransactionExecution, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Deque<CompletedTransaction> recent = new ConcurrentLinkedDeque<>();
+
+    public TransactionMonitor(MeterRegistry meterRegistry, long longTransactionMillis) {
+        this.meterRegistry = meterRegistry;
+        this.longTransactionMillis = longTransactionMillis;
+    }
+
+    public record ActiveTransaction(String endpoint, String name, boolean readOnly, String thread,
+            long elapsedMs, int remoteCalls, List<String> stack) {
+    }
+
+    public record CompletedTransaction(String endpoint, String name, boolean readOnly, String outcome,
+            long durationMs, int remoteCalls, Instant completedAt, List<String> stack) {
+    }
+
+    public record EndpointStats(long transactions, double meanTransactionMs, double maxTransactionMs,
+            long connections, double meanAcquireMs, double maxAcquireMs, double meanHoldMs, double maxHoldMs) {
+    }
+
+    public record Report(long longTransactionThresholdMs, List<ActiveTransaction> active,
+            List<CompletedTransaction> recentSlow, Map<String, EndpointStats> endpoints) {
+    }
+
+    private static final class InFlight {
+        private final Thread thread = Thread.currentThread();
+        private final String endpoint = RequestEndpoint.current();
+        private final String name;
+        private final boolean readOnly;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger remoteCalls = new AtomicInteger();
+        private volatile List<String> stack = List.of();
+        private volatile boolean reported;
+
+        private InFlight(TransactionExecution transaction) {
+            this.name = transaction.getTransactionName();
+            this.readOnly = transaction.isReadOnly();
+        }
+
+        private long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+
+    // ===== TransactionExecutionListener =====
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null && transaction.isNewTransaction()) {
+            inFlight.put(transaction, new InFlight(transaction));
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        complete(transaction, commitFailure == null ? "commit" : "commit_failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        complete(transaction, "rollback");
+    }
+
+    /**
+     * Avisa de una llamada remota; si el hilo tiene una transacción abierta
+     * la conexión queda ocupada mientras dura la llamada
+     * 
+     * @param target servicio remoto ("spotify", "azure-text-analytics")
+     */
+    public void recordRemoteCall(String target) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        String endpoint = RequestEndpoint.current();
+        Counter.builder("db.transaction.remote.calls")
+                .description("Llamadas remotas hechas con una transacción abierta")
+                .tag("endpoint", endpoint)
+                .tag("target", target)
+                .register(meterRegistry)
+                .increment();
+
+        Thread current = Thread.currentThread();
+        for (InFlight transaction : inFlight.values()) {
+            if (transaction.thread == current && transaction.remoteCalls.getAndIncrement() == 0) {
+                log.warn("⚠️ Remote call to {} inside transaction {} ({}), connection held during I/O",
+                        target, transaction.name, endpoint, new Throwable("Remote call site"));
+            }
+        }
+    }
+
+    /**
+     * Busca transacciones abiertas más tiempo que el umbral y registra la pila
+     * de su hilo (una vez por transacción)
+     */
+    @Scheduled(fixedDelayString = "${datasource.monitoring.scan-interval-ms:1000}")
+    public void scan() {
+        for (InFlight transaction : inFlight.values()) {
+            long elapsed = transaction.elapsedMillis();
+            if (transaction.reported || elapsed < longTransactionMillis) {
+                continue;
+            }
+            transaction.reported = true;
+            transaction.stack = stackOf(transaction.thread);
+            Counter.builder("db.transaction.long")
+                    .description("Transacciones que superaron long-transaction-ms")
+                    .tag("endpoint", transaction.endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("🐢 Long transaction {} ({}) open for {}ms on thread {}, holding a connection:\n\tat {}",
+                    transaction.name, transaction.endpoint, elapsed, transaction.thread.getName(),
+                    String.join("\n\tat ", transaction.stack));
+        }
+    }
+
+    public Report report() {
+        List<ActiveTransaction> active = inFlight.values().stream()
+                .sorted(Comparator.comparingLong(transaction -> transaction.startNanos))
+                .map(transaction -> new ActiveTransaction(transaction.endpoint, transaction.name,
+                        transaction.readOnly, transaction.thread.getName(), transaction.elapsedMillis(),
+                        transaction.remoteCalls.get(), transaction.stack))
+                .toList();
+        return new Report(longTransactionMillis, active, List.copyOf(recent), endpointStats());
+    }
+
+    private void complete(TransactionExecution transaction, String outcome) {
+        InFlight completed = inFlight.remove(transaction);
+        if (completed == null) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - completed.startNanos;
+        Timer.builder("db.transaction.duration")
+                .description("Duración de las transacciones por endpoint")
+                .tag("endpoint", completed.endpoint)
+                .tag("readOnly", String.valueOf(completed.readOnly))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        if (durationMillis >= longTransactionMillis || completed.remoteCalls.get() > 0) {
+            if (durationMillis >= longTransactionMillis && !completed.reported) {
+                log.warn("🐢 Long transaction {} ({}) took {}ms", completed.name, completed.endpoint,
+                        durationMillis);
+            }
+            recent.addFirst(new CompletedTransaction(completed.endpoint, completed.name, completed.readOnly,
+                    outcome, durationMillis, completed.remoteCalls.get(), Instant.now(), completed.stack));
+            while (recent.size() > MAX_RECENT) {
+                recent.pollLast();
+            }
+        }
+    }
+
+    private Map<String, EndpointStats> endpointStats() {
+        Map<String, List<Timer>> transactions = timersByEndpoint("db.transaction.duration");
+        Map<String, List<Timer>> acquire = timersByEndpoint("db.connection.acquire");
+        Map<String, List<Timer>> hold = timersByEndpoint("db.connection.hold");
+
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        for (String endpoint : union(transactions.keySet(), acquire.keySet(), hold.keySet())) {
+            List<Timer> tx = transactions.getOrDefault(endpoint, List.of());
+            List<Timer> acq = acquire.getOrDefault(endpoint, List.of());
+            List<Timer> held = hold.getOrDefault(endpoint, List.of());
+            stats.put(endpoint, new EndpointStats(count(tx), mean(tx), max(tx),
+                    count(held), mean(acq), max(acq), mean(held), max(held)));
+        }
+        return stats;
+    }
+
+    private Map<String, List<Timer>> timersByEndpoint(String name) {
+        return meterRegistry.find(name).timers().stream()
+                .collect(Collectors.groupingBy(timer -> timer.getId().getTag("endpoint")));
+    }
+
+    @SafeVarargs
+    private static List<String> union(Set<String>... keys) {
+        return Arrays.stream(keys).flatMap(Set::stream).distinct().toList();
+    }
+
+    private static long count(List<Timer> timers) {
+        return timers.stream().mapToLong(Timer::count).sum();
+    }
+
+    private static double mean(List<Timer> timers) {
+        long count = count(timers);
+        return count == 0 ? 0 : timers.stream().mapToDouble(t -> t.totalTime(TimeUnit.MILLISECONDS)).sum() / count;
+    }
+
+    private static double max(List<Timer> timers) {
+        return timers.stream().mapToDouble(t -> t.max(TimeUnit.MILLISECONDS)).max().orElse(0);
+    }
+
+    private static List<String> stackOf(Thread thread) {
+        StackTraceElement[] frames = thread.getStackTrace();
+        List<String> stack = new ArrayList<>(Math.min(frames.length, MAX_STACK_FRAMES));
+        for (int i = 0; i < frames.length && stack.size() < MAX_STACK_FRAMES; i++) {
+            stack.add(frames[i].toString());
+        }
+        return List.copyOf(stack);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.user_service.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * GET /actuator/transactions: transacciones abiertas, últimas transacciones
+ * lentas o con I/O remoto y tiempos por endpoint (transacción, espera y
+ * retención de conexión) para dimensionar el pool
+ */
+@Endpoint(id = "transactions")
+public class TransactionMonitorEndpoint {
+
+    private final TransactionMonitor transactionMonitor;
+
+    public TransactionMonitorEndpoint(TransactionMonitor transactionMonitor) {
+        this.transactionMonitor = transactionMonitor;
+    }
+
+    @ReadOperation
+    public TransactionMonitor.Report transactions() {
+        return transactionMonitor.report();
+    }
+}
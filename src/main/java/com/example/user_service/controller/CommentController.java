@@ -109,6 +109,12 @@ public class CommentController {
          */
         private Integer getAuthenticatedUserId() {
                 Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+                // El principal ya es el usuario cargado al autenticar
+                if (authentication.getPrincipal() instanceof User principal && principal.getUserId() != null) {
+                        return principal.getUserId();
+                }
+
                 String email = authentication.getName();
 
                 // Obtener usuario por email
@@ -0,0 +1,149 @@
+package com.example.user_service.controller;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.user_service.dto.MusicGenreResponse;
+import com.example.user_service.service.MusicGenreCatalog;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/genres")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Music Genres", description = "Public catalog of music genres")
+public class MusicGenreController {
+
+    private static final int MAX_SUGGESTIONS = 25;
+
+    private final MusicGenreCatalog musicGenreCatalog;
+
+    /**
+     * Endpoint público - catálogo completo de géneros
+     * Se sirve desde bytes pre-serializados (gzip si el cliente lo acepta con q > 0)
+     * con ETag fuerte; If-None-Match válido responde 304 sin cuerpo
+     */
+    @Operation(summary = "Get all music genres", description = """
+            Returns the full catalog of music genres.
+
+            **Public endpoint** 🌐
+
+            The response carries a strong ETag. Send it back in `If-None-Match`
+            to get `304 Not Modified` while the catalog is unchanged.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Genres retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the given ETag")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllGenres(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        MusicGenreCatalog.SerializedCatalog catalog = musicGenreCatalog.getSerialized();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+
+        if (request.checkNotModified(etag)) {
+            log.debug("🎵 Genre catalog not modified (ETag {})", etag);
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.gzip());
+        }
+        return response.body(catalog.json());
+    }
+
+    /**
+     * Endpoint público - typeahead de géneros
+     * Se resuelve con el índice de prefijos en memoria, sin consultar la BD
+     */
+    @Operation(summary = "Suggest music genres", description = """
+            Returns genres whose name, or any word in it, starts with the given text.
+            Matching ignores case and accents ("elec" → "Electrónica").
+
+            **Public endpoint** 🌐
+
+            Genres whose name starts with the text come first, then the most
+            popular genres (by number of users who marked them as favorite).
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<MusicGenreResponse>> suggestGenres(
+            @Parameter(description = "Text typed by the user", example = "roc", required = true) @RequestParam String q,
+
+            @Parameter(description = "Maximum number of suggestions (1-25)", example = "10") @RequestParam(defaultValue = "10") int limit) {
+
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        List<MusicGenreResponse> suggestions = musicGenreCatalog.suggest(q, boundedLimit).stream()
+                .map(MusicGenreCatalog.Entry::toResponse)
+                .toList();
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * gzip solo si Accept-Encoding lo admite con q > 0, por nombre (gzip o
+     * x-gzip) o con el comodín *; una mención explícita tiene prioridad sobre *
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double effective = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return effective != null && effective > 0;
+    }
+
+    /**
+     * Valor de q del elemento (1 si no lo indica); uno mal formado cuenta como 0
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 1 && Character.toLowerCase(param.charAt(0)) == 'q' && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
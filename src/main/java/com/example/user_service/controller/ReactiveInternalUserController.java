@@ -0,0 +1,70 @@
+package com.example.user_service.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.user_service.dto.UserResponse;
+import com.example.user_service.service.ReactiveUserLookupService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Endpoints internos de solo lectura en versión no bloqueante
+ * Mismo contrato que /api/v1/users/internal/{userId} y /internal/email/{email}.
+ * Los handlers devuelven Mono: Spring MVC libera el hilo de Tomcat mientras
+ * R2DBC espera a PostgreSQL y completa la respuesta de forma asíncrona.
+ * Solo existe con datasource.reactive.enabled=true
+ */
+@RestController
+@RequestMapping("/api/v1/users/internal/reactive")
+@ConditionalOnProperty(prefix = "datasource.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Users", description = "User management and authentication endpoints")
+public class ReactiveInternalUserController {
+
+    private final ReactiveUserLookupService reactiveUserLookupService;
+
+    @Operation(summary = "Get user by ID (Internal, non-blocking)", description = """
+            **INTERNAL ENDPOINT** - Same response as /internal/{userId}
+            Served over R2DBC without holding a request thread while the query runs.
+            **No authentication required** - Used by graphql-profile-service
+            """, security = {})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User found"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<UserResponse>> getUserById(
+            @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId) {
+        log.debug("👤 [INTERNAL] Reactive fetch by ID: {}", userId);
+        return reactiveUserLookupService.getUserById(userId).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get user by email (Internal, non-blocking)", description = """
+            **INTERNAL ENDPOINT** - Same response as /internal/email/{email}
+            Served over R2DBC without holding a request thread while the query runs.
+            **No authentication required** - Used by graphql-profile-service
+            """, security = {})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User found"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<UserResponse>> getUserByEmail(
+            @Parameter(description = "User email", example = "test@rockstadium.com", required = true) @PathVariable String email) {
+        log.debug("🔐 [INTERNAL] Reactive fetch by email: {}", email);
+        return reactiveUserLookupService.getUserByEmail(email).map(ResponseEntity::ok);
+    }
+}
@@ -5,7 +5,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -16,6 +18,9 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.example.user_service.service.LoginThrottledException;
+import com.example.user_service.service.OperationInProgressException;
+
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -139,8 +144,59 @@ public class RestExceptionHandler {
                 .body(body);
     }
 
+    /**
+     * Handles TaskRejectedException - Returns 503 Service Unavailable
+     * Se dispara cuando el pool de hashing de contraseñas está saturado
+     * 
+     * @param ex The TaskRejectedException thrown
+     * @return ResponseEntity with error details, Retry-After header and
+     *         SERVICE_UNAVAILABLE status
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleTaskRejected(TaskRejectedException ex) {
+        log.warn("Request rejected, server busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error("SERVICE_UNAVAILABLE", "Server is busy, please retry later"));
+    }
+
+    /**
+     * Handles OperationInProgressException - Returns 429 Too Many Requests
+     * Se dispara cuando ya hay una importación/exportación masiva en curso
+     * 
+     * @param ex The OperationInProgressException thrown
+     * @return ResponseEntity with error details, Retry-After header and
+     *         TOO_MANY_REQUESTS status
+     */
+    @ExceptionHandler(OperationInProgressException.class)
+    public ResponseEntity<?> handleOperationInProgress(OperationInProgressException ex) {
+        log.warn("Operation rejected: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error("TOO_MANY_REQUESTS", ex.getMessage()));
+    }
+
     // ==================== EXCEPCIONES DE SEGURIDAD ====================
 
+    /**
+     * Handles LoginThrottledException - Returns 429 Too Many Requests
+     * Se dispara cuando el email o la IP superaron el límite de intentos fallidos
+     * 
+     * @param ex The LoginThrottledException thrown
+     * @return ResponseEntity with error details, Retry-After header and
+     *         TOO_MANY_REQUESTS status
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<?> handleLoginThrottled(LoginThrottledException ex) {
+        log.warn("Login throttled: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error("TOO_MANY_REQUESTS", ex.getMessage()));
+    }
+
     /**
      * Handles AuthenticationException - Returns 401 Unauthorized
      * Se dispara cuando la autenticación falla (credenciales incorrectas)
@@ -0,0 +1,82 @@
+package com.example.user_service.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.user_service.dto.UserChangeFeedResponse;
+import com.example.user_service.service.UserChangeService;
+import com.example.user_service.service.UserChangeStream;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feed interno de cambios de usuarios y preferencias
+ * Permite a otros servicios mantener una réplica local (o invalidar su caché)
+ * en lugar de consultar este servicio en cada petición
+ */
+@RestController
+@RequestMapping("/api/v1/users/internal/changes")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Users", description = "User management and authentication endpoints")
+public class UserChangeController {
+
+    private final UserChangeService userChangeService;
+    private final UserChangeStream userChangeStream;
+
+    @Operation(summary = "Read the change feed (Internal)", description = """
+            **INTERNAL ENDPOINT** - Registrations, profile, password, preference and favorite
+            changes in commit-safe order.
+            Omit 'since' to start from the beginning, then send the 'nextCursor' of each
+            response. An empty response keeps the same cursor: poll again later with it.
+            Entries only say which user changed and what; re-read the user to refresh a replica.
+            **No authentication required** - Used by downstream caches
+            """, security = {})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    @GetMapping
+    public ResponseEntity<UserChangeFeedResponse> getChanges(
+            @Parameter(description = "Cursor returned as 'nextCursor' by the previous call") @RequestParam(required = false) String since,
+
+            @Parameter(description = "Maximum number of changes (1-1000)", example = "100") @RequestParam(defaultValue = "100") int limit) {
+        log.debug("📝 [INTERNAL] Reading change feed (since: {}, limit: {})", since, limit);
+        return ResponseEntity.ok(userChangeService.getChanges(since, limit));
+    }
+
+    @Operation(summary = "Stream the change feed (Internal)", description = """
+            **INTERNAL ENDPOINT** - Same entries as /internal/changes as Server-Sent Events
+            ('user-change' events whose id is the cursor after that entry).
+            Starts after 'since' (or the Last-Event-ID header on reconnection); without
+            either it replays the whole log first. The stream closes periodically: reconnect
+            with the last event id to resume without gaps. Clients that fall too far behind
+            are disconnected and should reconnect the same way.
+            **No authentication required** - Used by downstream caches
+            """, security = {})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "429", description = "Too many open streams, retry after the indicated delay")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @Parameter(description = "Cursor to start after") @RequestParam(required = false) String since,
+
+            @Parameter(description = "Sent by SSE clients when reconnecting; takes precedence over 'since'") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("📡 [INTERNAL] Opening change stream (since: {}, lastEventId: {})", since, lastEventId);
+        return userChangeStream.subscribe(lastEventId != null && !lastEventId.isBlank() ? lastEventId : since);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.user_service.controller;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,13 +10,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.user_service.dto.LoginRequest;
 import com.example.user_service.dto.UpdatePasswordRequest;
 import com.example.user_service.dto.UpdateProfileRequest;
+import com.example.user_service.dto.UserBatchLookupRequest;
+import com.example.user_service.dto.UserBatchLookupResponse;
+import com.example.user_service.dto.UserField;
 import com.example.user_service.dto.UserRequest;
 import com.example.user_service.dto.UserResponse;
+import com.example.user_service.service.ResourceETags;
 import com.example.user_service.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -179,19 +187,51 @@ public class UserController {
                         **Access:**
                         - Regular users (ROLE_USER): Only their own data
                         - Administrators (ROLE_ADMIN): Any user's data
+                        The response carries a weak ETag. Send it back in `If-None-Match`
+                        to get `304 Not Modified` while the user is unchanged.
                         """, security = @SecurityRequirement(name = "basicAuth"))
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "User found"),
+                        @ApiResponse(responseCode = "304", description = "User not modified since the given ETag"),
                         @ApiResponse(responseCode = "401", description = "Not authenticated"),
                         @ApiResponse(responseCode = "403", description = "Not authorized to view this user"),
                         @ApiResponse(responseCode = "404", description = "User not found")
         })
         @GetMapping("/{userId}")
         public ResponseEntity<UserResponse> getUserById(
-                        @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId) {
+                        @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
+                        WebRequest request) {
                 log.info("👤 Fetching user by ID: {}", userId);
+
+                // Con If-None-Match basta consultar la versión del usuario
+                if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                                && request.checkNotModified(userService.getUserETag(userId))) {
+                        log.debug("👤 User {} not modified", userId);
+                        return null;
+                }
+
                 UserResponse response = userService.getUserById(userId);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok()
+                                .eTag(ResourceETags.user(userId, response.getUpdatedAt(), response.getCreatedAt()))
+                                .cacheControl(CacheControl.noCache())
+                                .body(response);
+        }
+
+        /**
+         * ENDPOINT INTERNO - Comprobación de existencia
+         * Usado por otros microservicios antes de escribir datos asociados a un usuario
+         */
+        @Operation(summary = "Check if a user exists (Internal)", description = """
+                        **INTERNAL ENDPOINT** - Existence guard for other services
+                        Answered from an in-memory index; only unknown IDs reach the database.
+                        **No authentication required**
+                        """, security = {} // Sin autenticación para comunicación interna
+        )
+        @ApiResponse(responseCode = "200", description = "true if the user exists, false otherwise")
+        @GetMapping("/{userId}/exists")
+        public ResponseEntity<Boolean> userExists(
+                        @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId) {
+                return ResponseEntity.ok(userService.userExists(userId));
         }
 
         /**
@@ -201,6 +241,8 @@ public class UserController {
         @Operation(summary = "Get user by email (Internal)", description = """
                         **INTERNAL ENDPOINT** - For GraphQL authentication
                         Returns user information including password and roles.
+                        Use 'fields' to fetch only some fields (e.g. email,password,roles): only their
+                        columns are read and only they are serialized.
                         **No authentication required** - Used by graphql-profile-service
                         """, security = {} // Sin autenticación para comunicación interna
         )
@@ -210,9 +252,11 @@ public class UserController {
         })
         @GetMapping("/internal/email/{email}")
         public ResponseEntity<UserResponse> getUserByEmailInternal(
-                        @Parameter(description = "User email", example = "test@rockstadium.com", required = true) @PathVariable String email) {
+                        @Parameter(description = "User email", example = "test@rockstadium.com", required = true) @PathVariable String email,
+
+                        @Parameter(description = "Comma-separated fields to return (userId is always included): email, userType, password, roles, profile, accountStatus, createdAt, updatedAt. Omit for the full user", example = "email,roles") @RequestParam(required = false) String fields) {
                 log.info("🔐 [INTERNAL] Fetching user by email for authentication: {}", email);
-                UserResponse response = userService.getUserByEmail(email);
+                UserResponse response = userService.getUserByEmail(email, UserField.parse(fields));
                 return ResponseEntity.ok(response);
         }
 
@@ -223,6 +267,8 @@ public class UserController {
         @Operation(summary = "Get user by ID (Internal)", description = """
                         **INTERNAL ENDPOINT** - For GraphQL profile queries
                         Returns complete user information including profile.
+                        Use 'fields' to fetch only some fields (e.g. email,profile): only their
+                        columns are read and only they are serialized.
                         **No authentication required** - Used by graphql-profile-service
                         """, security = {} // Sin autenticación para comunicación interna
         )
@@ -232,9 +278,36 @@ public class UserController {
         })
         @GetMapping("/internal/{userId}")
         public ResponseEntity<UserResponse> getUserByIdInternal(
-                        @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId) {
+                        @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
+
+                        @Parameter(description = "Comma-separated fields to return (userId is always included): email, userType, password, roles, profile, accountStatus, createdAt, updatedAt. Omit for the full user", example = "email,roles") @RequestParam(required = false) String fields) {
                 log.info("👤 [INTERNAL] Fetching user by ID for GraphQL: {}", userId);
-                UserResponse response = userService.getUserByIdInternal(userId);
+                UserResponse response = userService.getUserByIdInternal(userId, UserField.parse(fields));
+                return ResponseEntity.ok(response);
+        }
+
+        /**
+         * ENDPOINT INTERNO - Búsqueda por lotes para GraphQL Service
+         * Resuelve varios IDs y/o emails con una sola consulta
+         */
+        @Operation(summary = "Get users by IDs or emails (Internal)", description = """
+                        **INTERNAL ENDPOINT** - For GraphQL batch loading
+                        Resolves up to 100 user IDs and emails combined with a single query.
+                        Every requested key is present in the response; unknown keys are marked as not found.
+                        'fields' selects the fields of every returned user, as in /internal/{userId}.
+                        **No authentication required** - Used by graphql-profile-service
+                        """, security = {} // Sin autenticación para comunicación interna
+        )
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Lookup completed"),
+                        @ApiResponse(responseCode = "400", description = "No keys, too many keys or unknown field")
+        })
+        @PostMapping("/internal/batch")
+        public ResponseEntity<UserBatchLookupResponse> getUsersInternal(
+                        @Valid @RequestBody UserBatchLookupRequest request,
+
+                        @Parameter(description = "Comma-separated fields to return (userId is always included): email, userType, password, roles, profile, accountStatus, createdAt, updatedAt. Omit for the full user", example = "email,roles") @RequestParam(required = false) String fields) {
+                UserBatchLookupResponse response = userService.getUsersInternal(request, UserField.parse(fields));
                 return ResponseEntity.ok(response);
         }
 }
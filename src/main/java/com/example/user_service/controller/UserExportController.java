@@ -0,0 +1,96 @@
+package com.example.user_service.controller;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.user_service.service.UserExportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Users", description = "Administrative user operations")
+public class UserExportController {
+
+    private final UserExportService userExportService;
+
+    /**
+     * Endpoint protegido - solo ADMIN (incluye los hashes de contraseña)
+     * Exportación del directorio; la respuesta se escribe a medida que se leen las filas
+     */
+    @Operation(summary = "Export users", description = """
+            Streams every user as a `UserResponse`, ordered by user ID.
+
+            **Authentication required** 🔒 **ROLE_ADMIN only**
+
+            **Formats** (by Accept):
+            - `application/x-ndjson` (default): one JSON object per line
+            - `application/json`: a single compact JSON array
+
+            `updatedSince` (ISO date-time) limits the export to users modified since
+            that moment, for incremental cache warm-ups and search reindexing.
+            Rows are read with a server-side cursor and written progressively, so
+            memory does not grow with the number of users. The read transaction (and
+            one pooled database connection) stays open until the client has received
+            the last row, so only one export runs at a time.
+            """, security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid updatedSince"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not an administrator"),
+            @ApiResponse(responseCode = "429", description = "Another export is running, retry after the indicated delay")
+    })
+    @GetMapping("/export")
+    public void exportUsers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        UserExportService.Format format = prefersJsonArray(accept)
+                ? UserExportService.Format.JSON
+                : UserExportService.Format.NDJSON;
+
+        log.info("📤 User export requested ({}, updatedSince: {})", format, updatedSince);
+        response.setContentType(format == UserExportService.Format.JSON
+                ? MediaType.APPLICATION_JSON_VALUE
+                : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        userExportService.exportUsers(updatedSince, format, response.getOutputStream());
+    }
+
+    /**
+     * Array JSON solo si el cliente pide application/json explícitamente (y no NDJSON)
+     */
+    private static boolean prefersJsonArray(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        boolean json = false;
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON) && !mediaType.isWildcardType()
+                    && !mediaType.isWildcardSubtype()) {
+                return false;
+            }
+            json |= mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_JSON);
+        }
+        return json;
+    }
+}
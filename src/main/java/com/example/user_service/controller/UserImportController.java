@@ -0,0 +1,72 @@
+package com.example.user_service.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.user_service.dto.UserImportResponse;
+import com.example.user_service.service.UserImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Users", description = "Administrative user operations")
+public class UserImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final UserImportService userImportService;
+
+    /**
+     * Endpoint protegido - solo ADMIN
+     * Importación masiva para onboarding de partners; el cuerpo se lee como stream
+     */
+    @Operation(summary = "Bulk import users", description = """
+            Creates users, profiles and locations from a streamed file.
+
+            **Authentication required** 🔒 **ROLE_ADMIN only**
+
+            **Formats** (by Content-Type):
+            - `text/csv`: header `email,password,name,location`; quote the location
+              (`"Toluca, Estado de México, México"`)
+            - `application/x-ndjson`: one `UserRequest` JSON object per line
+
+            Rows are validated with the same rules as registration. Invalid rows,
+            emails repeated in the file and already registered emails are reported
+            per line without stopping the import. The response includes rows/sec.
+            """, security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished (see per-row errors)"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid CSV header"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not an administrator")
+    })
+    @PostMapping(value = "/import", consumes = { TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<UserImportResponse> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                        ? UserImportService.Format.CSV
+                        : UserImportService.Format.NDJSON;
+
+        log.info("📥 Bulk user import requested ({})", format);
+        return ResponseEntity.ok(userImportService.importUsers(body, format));
+    }
+}
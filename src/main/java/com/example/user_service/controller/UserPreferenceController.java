@@ -5,6 +5,8 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,16 +17,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.user_service.dto.AddFavoriteArtistRequest;
 import com.example.user_service.dto.AddFavoriteGenreRequest;
 import com.example.user_service.dto.ArtistResponse;
 import com.example.user_service.dto.DeleteFavoriteGenreRequest;
+import com.example.user_service.dto.FavoritesSliceResponse;
 import com.example.user_service.dto.MusicGenreResponse;
+import com.example.user_service.dto.ReplaceFavoriteArtistsRequest;
+import com.example.user_service.dto.ReplaceFavoriteGenresRequest;
+import com.example.user_service.dto.ReplaceFavoritesResponse;
 import com.example.user_service.dto.SuccessResponse;
 import com.example.user_service.dto.UserPreferenceBasicResponse;
 import com.example.user_service.dto.UserPreferenceRequest;
 import com.example.user_service.dto.UserPreferenceResponse;
+import com.example.user_service.service.ResourceETags;
 import com.example.user_service.service.UserPreferenceService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -63,9 +71,13 @@ public class UserPreferenceController {
 
             Use 'full=true' to include complete lists of artists and genres,
             or 'full=false' for summary with counts only.
+
+            The response carries a weak ETag. Send it back in `If-None-Match`
+            to get `304 Not Modified` while preferences and favorites are unchanged.
             """, security = @SecurityRequirement(name = "basicAuth"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Preferences retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Preferences not modified since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Not authenticated"),
             @ApiResponse(responseCode = "403", description = "Not authorized to view these preferences"),
             @ApiResponse(responseCode = "404", description = "User not found")
@@ -74,11 +86,24 @@ public class UserPreferenceController {
     public ResponseEntity<UserPreferenceResponse> getPreferences(
             @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
 
-            @Parameter(description = "Include full lists of artists and genres", example = "false") @RequestParam(defaultValue = "false") boolean full) {
+            @Parameter(description = "Include full lists of artists and genres", example = "false") @RequestParam(defaultValue = "false") boolean full,
+
+            WebRequest request) {
 
         log.info("📋 Getting preferences for user: {} (full: {})", userId, full);
+
+        // Con If-None-Match basta la consulta de contexto (propiedad y versión)
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(preferenceService.getPreferencesETag(userId, full))) {
+            log.debug("📋 Preferences for user {} not modified", userId);
+            return null;
+        }
+
         UserPreferenceResponse response = preferenceService.getPreferences(userId, full);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(ResourceETags.preferences(response.getProfileId(), response.getVersion(), full))
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     /**
@@ -149,6 +174,43 @@ public class UserPreferenceController {
         return ResponseEntity.ok(artistsPage.getContent());
     }
 
+    /**
+     * Endpoint protegido - requiere autenticación
+     * Paginación por cursor: sin COUNT(*) y estable aunque la lista cambie
+     */
+    @Operation(summary = "Scroll favorite artists", description = """
+            Returns favorite artists in insertion order using an opaque cursor.
+
+            **Authentication required** 🔒
+
+            Omit 'after' for the first slice, then send the 'nextCursor' of each
+            response until 'hasNext' is false. Unlike page numbers, adding or removing
+            favorites while scrolling never repeats or skips entries.
+
+            **Access:**
+            - Regular users (ROLE_USER): Only their own favorites
+            - Administrators (ROLE_ADMIN): Any user's favorites
+            """, security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Favorite artists retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not authorized to view these favorites"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/artists/scroll")
+    public ResponseEntity<FavoritesSliceResponse<ArtistResponse>> scrollFavoriteArtists(
+            @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
+
+            @Parameter(description = "Cursor returned as 'nextCursor' by the previous slice") @RequestParam(required = false) String after,
+
+            @Parameter(description = "Number of artists per slice", example = "10") @RequestParam(defaultValue = "10") int pageSize) {
+
+        log.info("🎤 Scrolling favorite artists for user: {} (after: {}, size: {})", userId, after, pageSize);
+
+        return ResponseEntity.ok(preferenceService.getFavoriteArtistsAfter(userId, after, pageSize));
+    }
+
     /**
      * Endpoint protegido - requiere autenticación
      * Solo el propio usuario puede agregar artistas a sus favoritos
@@ -206,6 +268,35 @@ public class UserPreferenceController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint protegido - requiere autenticación
+     * Reemplaza la lista completa de artistas favoritos en una sola petición
+     */
+    @Operation(summary = "Replace favorite artists", description = """
+            Replaces the user's favorite artists with the given set of Spotify IDs.
+
+            **Authentication required** 🔒
+
+            **Access:** Only the user himself can modify their favorites
+
+            Only new IDs are validated against Spotify (one batched call). Artists not in the
+            list are removed and new ones are added in a single transaction. Maximum 40 artists.
+            """, security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Favorite artists replaced successfully"),
+            @ApiResponse(responseCode = "400", description = "Limit exceeded or invalid Spotify IDs"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not authorized to modify these favorites"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PutMapping("/artists")
+    public ResponseEntity<ReplaceFavoritesResponse<String>> replaceFavoriteArtists(
+            @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
+            @Valid @RequestBody ReplaceFavoriteArtistsRequest request) {
+        log.info("🔁 Replacing favorite artists for user: {}", userId);
+        return ResponseEntity.ok(preferenceService.replaceFavoriteArtists(userId, request.getSpotifyIds()));
+    }
+
     // ===== FAVORITE GENRES =====
 
     /**
@@ -243,6 +334,72 @@ public class UserPreferenceController {
         return ResponseEntity.ok(genresPage.getContent());
     }
 
+    /**
+     * Endpoint protegido - requiere autenticación
+     * Paginación por cursor: sin COUNT(*) y estable aunque la lista cambie
+     */
+    @Operation(summary = "Scroll favorite genres", description = """
+            Returns favorite genres in insertion order using an opaque cursor.
+
+            **Authentication required** 🔒
+
+            Omit 'after' for the first slice, then send the 'nextCursor' of each
+            response until 'hasNext' is false. Unlike page numbers, adding or removing
+            favorites while scrolling never repeats or skips entries.
+
+            **Access:**
+            - Regular users (ROLE_USER): Only their own favorites
+            - Administrators (ROLE_ADMIN): Any user's favorites
+            """, security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Favorite genres retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not authorized to view these favorites"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/genres/scroll")
+    public ResponseEntity<FavoritesSliceResponse<MusicGenreResponse>> scrollFavoriteGenres(
+            @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
+
+            @Parameter(description = "Cursor returned as 'nextCursor' by the previous slice") @RequestParam(required = false) String after,
+
+            @Parameter(description = "Number of genres per slice", example = "10") @RequestParam(defaultValue = "10") int pageSize) {
+
+        log.info("🎵 Scrolling favorite genres for user: {} (after: {}, size: {})", userId, after, pageSize);
+
+        return ResponseEntity.ok(preferenceService.getFavoriteGenresAfter(userId, after, pageSize));
+    }
+
+    /**
+     * Endpoint protegido - requiere autenticación
+     * Reemplaza la lista completa de géneros favoritos en una sola petición
+     */
+    @Operation(summary = "Replace favorite genres", description = """
+            Replaces the user's favorite genres with the given set of genre IDs.
+
+            **Authentication required** 🔒
+
+            **Access:** Only the user himself can modify their favorites
+
+            Genres not in the list are removed and new ones are added in a single transaction.
+            Maximum 30 genres.
+            """, security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Favorite genres replaced successfully"),
+            @ApiResponse(responseCode = "400", description = "Limit exceeded or invalid data"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not authorized to modify these favorites"),
+            @ApiResponse(responseCode = "404", description = "User or genre not found")
+    })
+    @PutMapping("/genres")
+    public ResponseEntity<ReplaceFavoritesResponse<Integer>> replaceFavoriteGenres(
+            @Parameter(description = "User ID", example = "1", required = true) @PathVariable Integer userId,
+            @Valid @RequestBody ReplaceFavoriteGenresRequest request) {
+        log.info("🔁 Replacing favorite genres for user: {}", userId);
+        return ResponseEntity.ok(preferenceService.replaceFavoriteGenres(userId, request.getGenreIds()));
+    }
+
     /**
      * Endpoint protegido - requiere autenticación
      * Solo el propio usuario puede agregar géneros a sus favoritos
@@ -0,0 +1,46 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bloque de favoritos paginado por cursor (keyset)
+ * No incluye total: se obtiene sin COUNT(*) y no se desplaza si la lista
+ * cambia entre peticiones
+ * 
+ * @param <T> tipo de favorito (artista o género)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoritesSliceResponse<T> {
+
+    @Schema(description = "Favorites in this slice")
+    private List<T> content;
+
+    @Schema(description = "Requested slice size", example = "10")
+    private int size;
+
+    @Schema(description = "Whether more favorites follow this slice", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor for the next slice (send it as 'after'); null on the last slice", example = "ZmE6MTI")
+    private String nextCursor;
+
+    public static <T> FavoritesSliceResponse<T> of(Slice<T> slice, String nextCursor) {
+        return FavoritesSliceResponse.<T>builder()
+                .content(slice.getContent())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * UserResponse de las búsquedas internas con fields=: los campos no pedidos
+ * (null) no se serializan. Sin selección se sigue devolviendo UserResponse,
+ * que envía los null como siempre
+ */
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PartialUserResponse extends UserResponse {
+
+    public PartialUserResponse(UserResponse selected) {
+        super(selected.getUserId(), selected.getEmail(), selected.getUserType(), selected.getPassword(),
+                selected.getRoles(), selected.getProfile(), selected.getAccountStatus(), selected.getCreatedAt(),
+                selected.getUpdatedAt());
+    }
+}
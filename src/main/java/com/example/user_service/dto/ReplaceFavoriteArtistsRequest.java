@@ -0,0 +1,24 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for replacing the whole favorite artist list
+ * El conjunto final deseado; lo que no esté en la lista se elimina
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplaceFavoriteArtistsRequest {
+    @NotNull(message = "La lista de Spotify IDs es requerida")
+    @Size(max = 40, message = "Máximo 40 artistas favoritos")
+    private List<String> spotifyIds;
+}
@@ -0,0 +1,24 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for replacing the whole favorite genre list
+ * El conjunto final deseado; lo que no esté en la lista se elimina
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplaceFavoriteGenresRequest {
+    @NotNull(message = "La lista de géneros es requerida")
+    @Size(max = 30, message = "Máximo 30 géneros favoritos")
+    private List<Integer> genreIds;
+}
@@ -0,0 +1,30 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de reemplazar una lista de favoritos
+ * 
+ * @param <T> tipo de identificador (Spotify ID o ID de género)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplaceFavoritesResponse<T> {
+
+    @Schema(description = "IDs added to favorites")
+    private List<T> added;
+
+    @Schema(description = "IDs removed from favorites")
+    private List<T> removed;
+
+    @Schema(description = "Number of favorites after the replace", example = "12")
+    private int total;
+}
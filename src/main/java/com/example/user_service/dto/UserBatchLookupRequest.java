@@ -0,0 +1,32 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for the internal batch user lookup
+ * IDs y/o emails a resolver en una sola consulta (máximo MAX_KEYS en total)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchLookupRequest {
+
+    public static final int MAX_KEYS = 100;
+
+    @Size(max = MAX_KEYS, message = "Máximo 100 IDs por petición")
+    @Schema(description = "User IDs to resolve", example = "[1, 2, 3]")
+    private List<@NotNull Integer> userIds;
+
+    @Size(max = MAX_KEYS, message = "Máximo 100 emails por petición")
+    @Schema(description = "User emails to resolve", example = "[\"test@rockstadium.com\"]")
+    private List<@NotNull String> emails;
+}
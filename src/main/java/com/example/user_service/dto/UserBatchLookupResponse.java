@@ -0,0 +1,26 @@
+package com.example.user_service.dto;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de la búsqueda por lotes: una entrada por cada clave solicitada,
+ * en el orden de la petición, incluidas las que no existen
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchLookupResponse {
+
+    @Schema(description = "Result per requested user ID")
+    private Map<Integer, UserLookupResult> byId;
+
+    @Schema(description = "Result per requested email")
+    private Map<String, UserLookupResult> byEmail;
+}
@@ -0,0 +1,30 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bloque del feed de cambios paginado por cursor
+ * nextCursor nunca es null: con un bloque vacío es el mismo cursor recibido,
+ * para que el consumidor siga sondeando desde ahí
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeFeedResponse {
+
+    @Schema(description = "Changes after the given cursor, in feed order")
+    private List<UserChangeResponse> changes;
+
+    @Schema(description = "Whether more changes are already available (fetch again without waiting)", example = "false")
+    private boolean hasMore;
+
+    @Schema(description = "Opaque cursor to resume from (send it as 'since')", example = "dWM6NzQxOjE4NDI")
+    private String nextCursor;
+}
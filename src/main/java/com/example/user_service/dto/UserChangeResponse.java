@@ -0,0 +1,45 @@
+package com.example.user_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.user_service.model.UserChange;
+import com.example.user_service.model.UserChangeType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada del feed de cambios
+ * Solo identifica qué cambió; el consumidor vuelve a leer el recurso (por
+ * ejemplo con POST /internal/batch) para actualizar su réplica
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeResponse {
+
+    @Schema(description = "Change log entry ID", example = "1842")
+    private Long changeId;
+
+    @Schema(description = "User whose data changed", example = "1")
+    private Integer userId;
+
+    @Schema(description = "What changed", example = "PROFILE_UPDATED")
+    private UserChangeType type;
+
+    @Schema(description = "When the change was committed (transaction start time)")
+    private LocalDateTime changedAt;
+
+    public static UserChangeResponse of(UserChange change) {
+        return UserChangeResponse.builder()
+                .changeId(change.getChangeId())
+                .userId(change.getUserId())
+                .type(change.getChangeType())
+                .changedAt(change.getChangedAt())
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.user_service.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos de UserResponse seleccionables con el parámetro fields= de los
+ * endpoints internos. userId se devuelve siempre
+ */
+public enum UserField {
+    USER_ID("userId"),
+    EMAIL("email"),
+    USER_TYPE("userType"),
+    PASSWORD("password"),
+    ROLES("roles"),
+    PROFILE("profile"),
+    ACCOUNT_STATUS("accountStatus"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String jsonName;
+
+    UserField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Lista separada por comas con los nombres JSON (fields=email,roles)
+     * 
+     * @return null si no se pide selección (respuesta completa)
+     */
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<UserField> selected = EnumSet.of(USER_ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromJsonName(trimmed));
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    private static UserField fromJsonName(String name) {
+        for (UserField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown field '%s'. Allowed fields: %s", name,
+                String.join(", ", Arrays.stream(values()).map(UserField::jsonName).toList())));
+    }
+}
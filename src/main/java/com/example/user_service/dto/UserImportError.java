@@ -0,0 +1,26 @@
+package com.example.user_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila rechazada durante una importación masiva de usuarios
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportError {
+
+    @Schema(description = "Line number in the uploaded file (1-based, header included)", example = "42")
+    private long line;
+
+    @Schema(description = "Email of the rejected row, if it could be parsed", example = "fan@rockstadium.com")
+    private String email;
+
+    @Schema(description = "Why the row was rejected", example = "Email is already registered")
+    private String message;
+}
@@ -0,0 +1,37 @@
+package com.example.user_service.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una importación masiva de usuarios
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+
+    @Schema(description = "Users created", example = "99950")
+    private long imported;
+
+    @Schema(description = "Rows rejected", example = "50")
+    private long failed;
+
+    @Schema(description = "Total processing time in milliseconds", example = "412000")
+    private long elapsedMillis;
+
+    @Schema(description = "Throughput over the whole import (imported + failed rows per second)", example = "242.7")
+    private double rowsPerSecond;
+
+    @Schema(description = "Per-row errors (capped; see errorsTruncated)")
+    private List<UserImportError> errors;
+
+    @Schema(description = "True if more rows failed than errors listed", example = "false")
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,27 @@
+package com.example.user_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una clave en la búsqueda por lotes: el usuario o un "no encontrado" explícito
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLookupResult {
+
+    @Schema(description = "Whether a user exists for this key", example = "true")
+    private boolean found;
+
+    @Schema(description = "The user, or null when not found")
+    private UserResponse user;
+
+    public static UserLookupResult of(UserResponse user) {
+        return new UserLookupResult(user != null, user);
+    }
+}
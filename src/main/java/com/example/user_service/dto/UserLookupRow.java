@@ -0,0 +1,28 @@
+package com.example.user_service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura para las búsquedas internas de usuario
+ * Una fila por rol con exactamente las columnas que necesita UserResponse,
+ * sin entidades administradas ni snapshots de dirty-checking
+ */
+public record UserLookupRow(
+        Integer userId,
+        String email,
+        String password,
+        String userType,
+        Boolean enabled,
+        Boolean accountNonExpired,
+        Boolean accountNonLocked,
+        Boolean credentialsNonExpired,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String role,
+        Integer profileId,
+        String profileName,
+        Integer profileLocationId,
+        String municipality,
+        String state,
+        String country) {
+}
@@ -0,0 +1,33 @@
+package com.example.user_service.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Contexto de una petición de preferencias resuelto con una sola consulta
+ * Email para la validación de propiedad, perfil, preferencias de búsqueda y
+ * contadores desnormalizados; los campos de perfil y preferencias son null
+ * si aún no existen
+ */
+public record UserPreferenceContext(
+        Integer userId,
+        String email,
+        Integer profileId,
+        Integer favoriteArtistsCount,
+        Integer favoriteGenresCount,
+        Long preferencesVersion,
+        Integer userPreferenceId,
+        BigDecimal searchRadius,
+        Boolean emailNotifications) {
+
+    public boolean hasPreference() {
+        return userPreferenceId != null;
+    }
+
+    public int artistsCount() {
+        return favoriteArtistsCount != null ? favoriteArtistsCount : 0;
+    }
+
+    public int genresCount() {
+        return favoriteGenresCount != null ? favoriteGenresCount : 0;
+    }
+}
@@ -3,6 +3,9 @@ package com.example.user_service.dto;
 import java.math.BigDecimal;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,4 +35,9 @@ public class UserPreferenceResponse {
     // Límites
     private Integer maxFavoriteArtists;
     private Integer maxFavoriteGenres;
+
+    // Versión de las preferencias para el ETag; no forma parte del cuerpo
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long version;
 }
@@ -1,6 +1,12 @@
 package com.example.user_service.mapper;
 
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
@@ -41,6 +47,75 @@ public class UserMapper {
                                 .build();
         }
 
+        /**
+         * Construye la respuesta desde la proyección de solo lectura
+         * Las filas (una por rol) comparten los datos del usuario; se toma el
+         * primer perfil igual que en toResponse(User)
+         */
+        public UserResponse toResponse(List<UserLookupRow> rows) {
+                return toResponse(rows, null);
+        }
+
+        /**
+         * Igual que toResponse(rows) pero solo con los campos seleccionados
+         * (fields=); el resto ni se construye ni se serializa. Sin selección
+         * (null) devuelve la respuesta completa
+         */
+        public UserResponse toResponse(List<UserLookupRow> rows, Set<UserField> fields) {
+                Set<String> roles = fields != null && !fields.contains(UserField.ROLES) ? null
+                                : rows.stream()
+                                                .map(UserLookupRow::role)
+                                                .filter(Objects::nonNull)
+                                                .collect(Collectors.toCollection(LinkedHashSet::new));
+                return toResponse(rows.get(0), roles, fields);
+        }
+
+        /**
+         * Respuesta desde una única fila con los roles ya agregados (exportación
+         * en streaming); el campo role de la fila se ignora
+         */
+        public UserResponse toResponse(UserLookupRow first, Set<String> roles, Set<UserField> fields) {
+                Predicate<UserField> selected = field -> fields == null || fields.contains(field);
+
+                ProfileResponse profile = !selected.test(UserField.PROFILE) || first.profileId() == null ? null
+                                : ProfileResponse.builder()
+                                                .profileId(first.profileId())
+                                                .name(first.profileName())
+                                                .location(first.profileLocationId() == null ? null
+                                                                : ProfileLocationResponse.builder()
+                                                                                .profileLocationId(first.profileLocationId())
+                                                                                .municipality(first.municipality())
+                                                                                .state(first.state())
+                                                                                .country(first.country())
+                                                                                .build())
+                                                .build();
+
+                AccountStatusResponse accountStatus = !selected.test(UserField.ACCOUNT_STATUS) ? null
+                                : AccountStatusResponse.builder()
+                                                .enabled(first.enabled())
+                                                .accountNonExpired(first.accountNonExpired())
+                                                .accountNonLocked(first.accountNonLocked())
+                                                .credentialsNonExpired(first.credentialsNonExpired())
+                                                .build();
+
+                UserResponse response = UserResponse.builder()
+                                .userId(first.userId())
+                                .email(selected.test(UserField.EMAIL) ? first.email() : null)
+                                .userType(selected.test(UserField.USER_TYPE) ? first.userType() : null)
+                                .password(selected.test(UserField.PASSWORD) ? first.password() : null)
+                                .roles(selected.test(UserField.ROLES) ? roles : null)
+                                .profile(profile)
+                                .accountStatus(accountStatus)
+                                .createdAt(selected.test(UserField.CREATED_AT) && first.createdAt() != null
+                                                ? first.createdAt().format(FORMATTER)
+                                                : null)
+                                .updatedAt(selected.test(UserField.UPDATED_AT) && first.updatedAt() != null
+                                                ? first.updatedAt().format(FORMATTER)
+                                                : null)
+                                .build();
+                return fields == null ? response : new PartialUserResponse(response);
+        }
+
         public ProfileResponse toProfileResponse(Profile profile) {
                 return ProfileResponse.builder()
                                 .profileId(profile.getProfileId())
@@ -51,6 +126,36 @@ public class UserMapper {
                                 .build();
         }
 
+        /**
+         * Parsea y crea una ubicación de perfil desde un string
+         * Formato esperado: "Ciudad, Estado, País"
+         */
+        public ProfileLocation toProfileLocation(String locationString, Profile profile) {
+                String[] parts = locationString.split(",");
+
+                String city = locationString;
+                String state = "Unknown";
+                String country = "Unknown";
+
+                if (parts.length >= 3) {
+                        city = parts[0].trim();
+                        state = parts[1].trim();
+                        country = parts[2].trim();
+                } else if (parts.length == 2) {
+                        city = parts[0].trim();
+                        country = parts[1].trim();
+                } else if (parts.length == 1) {
+                        city = parts[0].trim();
+                }
+
+                return ProfileLocation.builder()
+                                .municipality(city)
+                                .state(state)
+                                .country(country)
+                                .profile(profile)
+                                .build();
+        }
+
         public ProfileLocationResponse toProfileLocationResponse(ProfileLocation location) {
                 return ProfileLocationResponse.builder()
                                 .profileLocationId(location.getProfileLocationId())
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,7 +19,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "favorite_artists")
+@Table(name = "favorite_artists", uniqueConstraints = @UniqueConstraint(name = "uk_favorite_artists_profile_spotify", columnNames = {
+        "profile_id", "spotify_id" }))
 public class FavoriteArtist {
 
     @Id
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,7 +19,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "favorite_genres")
+@Table(name = "favorite_genres", uniqueConstraints = @UniqueConstraint(name = "uk_favorite_genres_profile_genre", columnNames = {
+        "profile_id", "music_genre_id" }))
 public class FavoriteGenre {
 
     @Id
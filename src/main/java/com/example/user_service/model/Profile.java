@@ -40,6 +40,26 @@ public class Profile {
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Contadores desnormalizados de favoritos (se actualizan en la misma
+    // sentencia que inserta/elimina; FavoriteCountersReconciler corrige desvíos).
+    // Solo los escriben las consultas nativas: guardar un Profile cargado antes
+    // no debe deshacer altas o bajas concurrentes
+    @Column(name = "favorite_artists_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer favoriteArtistsCount = 0;
+
+    @Column(name = "favorite_genres_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer favoriteGenresCount = 0;
+
+    // Versión de las preferencias y favoritos (ETag); solo la incrementan las consultas
+    // nativas, así que Hibernate nunca la sobrescribe con un valor cargado antes
+    @Column(name = "preferences_version", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long preferencesVersion = 0L;
+
     @JsonManagedReference
     @OneToMany(mappedBy = "profile", cascade = CascadeType.ALL)
     private List<SavedConcert> savedConcerts;
@@ -0,0 +1,46 @@
+package com.example.user_service.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada del registro de cambios (append-only)
+ * Solo se inserta con UserChangeRepository.append, en la transacción de la
+ * mutación; ID, txid y fecha los pone PostgreSQL
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_changes")
+public class UserChange {
+
+    @Id
+    @Column(name = "change_id", nullable = false, insertable = false, updatable = false)
+    private Long changeId;
+
+    // ID de la transacción que escribió la fila (orden del feed)
+    @Column(name = "txid", nullable = false, insertable = false, updatable = false)
+    private Long txid;
+
+    @Column(name = "user_id", nullable = false, insertable = false, updatable = false)
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 40, insertable = false, updatable = false)
+    private UserChangeType changeType;
+
+    @Column(name = "changed_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,20 @@
+package com.example.user_service.model;
+
+/**
+ * Tipo de mutación registrada en user_changes
+ * Indica a los consumidores del feed qué recurso del usuario deben refrescar
+ */
+public enum UserChangeType {
+    /** Alta de usuario (registro o importación) */
+    USER_REGISTERED,
+    /** Cambio de nombre, email o ubicación */
+    PROFILE_UPDATED,
+    /** Cambio de contraseña */
+    PASSWORD_CHANGED,
+    /** Cambio del radio de búsqueda o de las notificaciones */
+    PREFERENCES_UPDATED,
+    /** Alta, baja o reemplazo de artistas favoritos */
+    FAVORITE_ARTISTS_CHANGED,
+    /** Alta, baja o reemplazo de géneros favoritos */
+    FAVORITE_GENRES_CHANGED
+}
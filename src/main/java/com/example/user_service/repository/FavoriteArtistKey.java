@@ -0,0 +1,11 @@
+package com.example.user_service.repository;
+
+/**
+ * Proyección: clave de paginación (ID del favorito) y Spotify ID del artista
+ */
+public interface FavoriteArtistKey {
+
+    Integer getFavoriteArtistId();
+
+    String getSpotifyId();
+}
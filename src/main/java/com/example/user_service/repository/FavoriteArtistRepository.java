@@ -1,11 +1,15 @@
 package com.example.user_service.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.user_service.model.FavoriteArtist;
@@ -24,4 +28,143 @@ public interface FavoriteArtistRepository extends JpaRepository<FavoriteArtist,
     void deleteByProfileProfileIdAndSpotifyId(Integer profileId, String spotifyId);
 
     long countByProfileProfileId(Integer profileId);
+
+    @Query("SELECT fa.spotifyId FROM FavoriteArtist fa WHERE fa.profile.profileId = :profileId")
+    List<String> findSpotifyIdsByProfileId(@Param("profileId") Integer profileId);
+
+    /**
+     * Página de Spotify IDs sin COUNT(*): el total sale del contador del perfil
+     */
+    @Query("SELECT fa.spotifyId FROM FavoriteArtist fa WHERE fa.profile.profileId = :profileId ORDER BY fa.favoriteArtistId")
+    List<String> findSpotifyIdsByProfileId(@Param("profileId") Integer profileId, Pageable pageable);
+
+    /**
+     * Paginación keyset: favoritos con ID mayor que el cursor, en orden de ID
+     * Al devolver Slice se lee un registro extra para saber si hay más, sin COUNT(*)
+     */
+    @Query("""
+            SELECT fa.favoriteArtistId AS favoriteArtistId, fa.spotifyId AS spotifyId
+            FROM FavoriteArtist fa
+            WHERE fa.profile.profileId = :profileId AND fa.favoriteArtistId > :after
+            ORDER BY fa.favoriteArtistId
+            """)
+    Slice<FavoriteArtistKey> findKeysByProfileIdAfter(@Param("profileId") Integer profileId,
+            @Param("after") Integer after, Pageable pageable);
+
+    /**
+     * Inserta el artista favorito solo si el perfil está por debajo del límite
+     * y aún no lo tiene, e incrementa profiles.favorite_artists_count, todo en
+     * una sola sentencia. ON CONFLICT (índice único profile_id, spotify_id)
+     * descarta duplicados insertados en paralelo
+     * 
+     * El llamador debe tener bloqueada la fila del perfil para que el contador
+     * no compita con otras altas del mismo perfil
+     */
+    @Query(value = """
+            WITH existing AS (
+                SELECT p.favorite_artists_count AS total,
+                       EXISTS (SELECT 1 FROM favorite_artists fa
+                               WHERE fa.profile_id = p.profile_id AND fa.spotify_id = :spotifyId) AS present
+                FROM profiles p
+                WHERE p.profile_id = :profileId
+            ), inserted AS (
+                INSERT INTO favorite_artists (profile_id, spotify_id)
+                SELECT :profileId, :spotifyId
+                FROM existing
+                WHERE existing.total < :maxFavorites AND NOT existing.present
+                ON CONFLICT DO NOTHING
+                RETURNING favorite_artist_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_artists_count = favorite_artists_count + 1,
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId AND EXISTS (SELECT 1 FROM inserted)
+                RETURNING profile_id
+            )
+            SELECT CASE
+                WHEN EXISTS (SELECT 1 FROM counted) THEN 'ADDED'
+                WHEN (SELECT total FROM existing) >= :maxFavorites THEN 'LIMIT_REACHED'
+                ELSE 'DUPLICATE'
+            END
+            """, nativeQuery = true)
+    String insertIfUnderLimit(@Param("profileId") Integer profileId,
+            @Param("spotifyId") String spotifyId,
+            @Param("maxFavorites") int maxFavorites);
+
+    default FavoriteInsertOutcome addIfUnderLimit(Integer profileId, String spotifyId, int maxFavorites) {
+        return FavoriteInsertOutcome.valueOf(insertIfUnderLimit(profileId, spotifyId, maxFavorites));
+    }
+
+    /**
+     * Elimina el artista favorito y decrementa profiles.favorite_artists_count
+     * en una sola sentencia
+     * 
+     * @return número de favoritos eliminados (0 si no existía)
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM favorite_artists
+                WHERE profile_id = :profileId AND spotify_id = :spotifyId
+                RETURNING favorite_artist_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_artists_count = GREATEST(favorite_artists_count - (SELECT COUNT(*) FROM deleted), 0),
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId AND EXISTS (SELECT 1 FROM deleted)
+                RETURNING profile_id
+            )
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    long deleteAndDecrement(@Param("profileId") Integer profileId, @Param("spotifyId") String spotifyId);
+
+    /**
+     * Inserta varios artistas favoritos e incrementa el contador en una sola
+     * sentencia (reemplazo de la lista completa). El llamador debe tener
+     * bloqueado el perfil y haber validado el límite
+     * 
+     * @return número de favoritos insertados
+     */
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO favorite_artists (profile_id, spotify_id)
+                SELECT :profileId, spotify_id FROM unnest(CAST(:spotifyIds AS text[])) AS spotify_id
+                ON CONFLICT DO NOTHING
+                RETURNING favorite_artist_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_artists_count = favorite_artists_count + (SELECT COUNT(*) FROM inserted),
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId
+                RETURNING profile_id
+            )
+            SELECT COUNT(*) FROM inserted
+            """, nativeQuery = true)
+    long insertAllAndIncrement(@Param("profileId") Integer profileId,
+            @Param("spotifyIds") String[] spotifyIds);
+
+    default long insertAllAndIncrement(Integer profileId, Collection<String> spotifyIds) {
+        return insertAllAndIncrement(profileId, spotifyIds.toArray(String[]::new));
+    }
+
+    /**
+     * Elimina varios artistas favoritos y decrementa el contador en una sola sentencia
+     * 
+     * @return número de favoritos eliminados
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM favorite_artists
+                WHERE profile_id = :profileId AND spotify_id IN (:spotifyIds)
+                RETURNING favorite_artist_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_artists_count = GREATEST(favorite_artists_count - (SELECT COUNT(*) FROM deleted), 0),
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId AND EXISTS (SELECT 1 FROM deleted)
+                RETURNING profile_id
+            )
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    long deleteAllAndDecrement(@Param("profileId") Integer profileId,
+            @Param("spotifyIds") Collection<String> spotifyIds);
 }
@@ -0,0 +1,11 @@
+package com.example.user_service.repository;
+
+/**
+ * Proyección: clave de paginación (ID del favorito) e ID del género
+ */
+public interface FavoriteGenreKey {
+
+    Integer getFavoriteGenreId();
+
+    Integer getMusicGenreId();
+}
@@ -1,11 +1,15 @@
 package com.example.user_service.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.user_service.model.FavoriteGenre;
@@ -37,6 +41,39 @@ public interface FavoriteGenreRepository extends JpaRepository<FavoriteGenre, In
      */
     Optional<FavoriteGenre> findByProfileProfileIdAndMusicGenre_MusicGenreId(Integer profileId, Integer musicGenreId);
 
+    /**
+     * Get the genre IDs a profile has as favorites
+     * IDs de los géneros favoritos de un perfil
+     */
+    @Query("SELECT fg.musicGenre.musicGenreId FROM FavoriteGenre fg WHERE fg.profile.profileId = :profileId")
+    List<Integer> findMusicGenreIdsByProfileId(@Param("profileId") Integer profileId);
+
+    /**
+     * Página de IDs de géneros sin COUNT(*): el total sale del contador del perfil
+     */
+    @Query("SELECT fg.musicGenre.musicGenreId FROM FavoriteGenre fg WHERE fg.profile.profileId = :profileId ORDER BY fg.favoriteGenreId")
+    List<Integer> findMusicGenreIdsByProfileId(@Param("profileId") Integer profileId, Pageable pageable);
+
+    /**
+     * Paginación keyset: favoritos con ID mayor que el cursor, en orden de ID
+     * Al devolver Slice se lee un registro extra para saber si hay más, sin COUNT(*)
+     */
+    @Query("""
+            SELECT fg.favoriteGenreId AS favoriteGenreId, fg.musicGenre.musicGenreId AS musicGenreId
+            FROM FavoriteGenre fg
+            WHERE fg.profile.profileId = :profileId AND fg.favoriteGenreId > :after
+            ORDER BY fg.favoriteGenreId
+            """)
+    Slice<FavoriteGenreKey> findKeysByProfileIdAfter(@Param("profileId") Integer profileId,
+            @Param("after") Integer after, Pageable pageable);
+
+    /**
+     * Count favorites per genre (popularidad para el typeahead de géneros)
+     */
+    @Query("SELECT fg.musicGenre.musicGenreId AS musicGenreId, COUNT(fg) AS favorites "
+            + "FROM FavoriteGenre fg GROUP BY fg.musicGenre.musicGenreId")
+    List<GenreFavoriteCount> countFavoritesByGenre();
+
     /**
      * Count favorite genres for a profile
      * Contar géneros favoritos de un perfil
@@ -48,4 +85,124 @@ public interface FavoriteGenreRepository extends JpaRepository<FavoriteGenre, In
      * Eliminar relación de género favorito
      */
     void deleteByProfileProfileIdAndMusicGenre_MusicGenreId(Integer profileId, Integer musicGenreId);
+
+    /**
+     * Insert favorite genre only if under the limit and not already present
+     * Inserta el género favorito e incrementa profiles.favorite_genres_count en
+     * una sola sentencia si el perfil está por debajo del límite; ON CONFLICT
+     * (índice único profile_id, music_genre_id) descarta duplicados
+     * concurrentes. Requiere la fila del perfil bloqueada
+     */
+    @Query(value = """
+            WITH existing AS (
+                SELECT p.favorite_genres_count AS total,
+                       EXISTS (SELECT 1 FROM favorite_genres fg
+                               WHERE fg.profile_id = p.profile_id AND fg.music_genre_id = :musicGenreId) AS present
+                FROM profiles p
+                WHERE p.profile_id = :profileId
+            ), inserted AS (
+                INSERT INTO favorite_genres (profile_id, music_genre_id)
+                SELECT :profileId, :musicGenreId
+                FROM existing
+                WHERE existing.total < :maxFavorites AND NOT existing.present
+                ON CONFLICT DO NOTHING
+                RETURNING favorite_genre_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_genres_count = favorite_genres_count + 1,
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId AND EXISTS (SELECT 1 FROM inserted)
+                RETURNING profile_id
+            )
+            SELECT CASE
+                WHEN EXISTS (SELECT 1 FROM counted) THEN 'ADDED'
+                WHEN (SELECT total FROM existing) >= :maxFavorites THEN 'LIMIT_REACHED'
+                ELSE 'DUPLICATE'
+            END
+            """, nativeQuery = true)
+    String insertIfUnderLimit(@Param("profileId") Integer profileId,
+            @Param("musicGenreId") Integer musicGenreId,
+            @Param("maxFavorites") int maxFavorites);
+
+    /**
+     * Typed wrapper over insertIfUnderLimit
+     * Versión tipada de insertIfUnderLimit
+     */
+    default FavoriteInsertOutcome addIfUnderLimit(Integer profileId, Integer musicGenreId, int maxFavorites) {
+        return FavoriteInsertOutcome.valueOf(insertIfUnderLimit(profileId, musicGenreId, maxFavorites));
+    }
+
+    /**
+     * Delete favorite genre and decrement the profile counter in one statement
+     * Elimina el género favorito y decrementa profiles.favorite_genres_count
+     * 
+     * @return número de favoritos eliminados (0 si no existía)
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM favorite_genres
+                WHERE profile_id = :profileId AND music_genre_id = :musicGenreId
+                RETURNING favorite_genre_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_genres_count = GREATEST(favorite_genres_count - (SELECT COUNT(*) FROM deleted), 0),
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId AND EXISTS (SELECT 1 FROM deleted)
+                RETURNING profile_id
+            )
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    long deleteAndDecrement(@Param("profileId") Integer profileId, @Param("musicGenreId") Integer musicGenreId);
+
+    /**
+     * Insert several favorite genres and increment the profile counter in one statement
+     * Inserta varios géneros favoritos (reemplazo de la lista completa); el
+     * llamador debe tener bloqueado el perfil y haber validado el límite
+     * 
+     * @return número de favoritos insertados
+     */
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO favorite_genres (profile_id, music_genre_id)
+                SELECT :profileId, music_genre_id FROM unnest(CAST(:musicGenreIds AS integer[])) AS music_genre_id
+                ON CONFLICT DO NOTHING
+                RETURNING favorite_genre_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_genres_count = favorite_genres_count + (SELECT COUNT(*) FROM inserted),
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId
+                RETURNING profile_id
+            )
+            SELECT COUNT(*) FROM inserted
+            """, nativeQuery = true)
+    long insertAllAndIncrement(@Param("profileId") Integer profileId,
+            @Param("musicGenreIds") Integer[] musicGenreIds);
+
+    default long insertAllAndIncrement(Integer profileId, Collection<Integer> musicGenreIds) {
+        return insertAllAndIncrement(profileId, musicGenreIds.toArray(Integer[]::new));
+    }
+
+    /**
+     * Delete several favorite genres and decrement the profile counter in one statement
+     * Elimina varios géneros favoritos y decrementa el contador
+     * 
+     * @return número de favoritos eliminados
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM favorite_genres
+                WHERE profile_id = :profileId AND music_genre_id IN (:musicGenreIds)
+                RETURNING favorite_genre_id
+            ), counted AS (
+                UPDATE profiles
+                SET favorite_genres_count = GREATEST(favorite_genres_count - (SELECT COUNT(*) FROM deleted), 0),
+                    preferences_version = preferences_version + 1
+                WHERE profile_id = :profileId AND EXISTS (SELECT 1 FROM deleted)
+                RETURNING profile_id
+            )
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    long deleteAllAndDecrement(@Param("profileId") Integer profileId,
+            @Param("musicGenreIds") Collection<Integer> musicGenreIds);
 }
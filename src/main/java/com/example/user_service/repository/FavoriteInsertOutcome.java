@@ -0,0 +1,14 @@
+package com.example.user_service.repository;
+
+/**
+ * Resultado de la inserción condicional de un favorito
+ * Resultado tipado de insertIfUnderLimit en los repositorios de favoritos
+ */
+public enum FavoriteInsertOutcome {
+    /** Se insertó la fila */
+    ADDED,
+    /** El favorito ya existía (o lo insertó una petición concurrente) */
+    DUPLICATE,
+    /** El perfil ya alcanzó el máximo permitido */
+    LIMIT_REACHED
+}
@@ -0,0 +1,11 @@
+package com.example.user_service.repository;
+
+/**
+ * Proyección: número de perfiles que marcaron cada género como favorito
+ */
+public interface GenreFavoriteCount {
+
+    Integer getMusicGenreId();
+
+    Long getFavorites();
+}
@@ -1,13 +1,76 @@
 package com.example.user_service.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.user_service.model.Profile;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Integer> {
     Optional<Profile> findByUserUserId(Integer userId);
+
+    /**
+     * Igual que findByUserUserId pero con SELECT ... FOR UPDATE
+     * Serializa las altas de favoritos concurrentes de un mismo perfil
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Profile> findWithLockByUserUserId(Integer userId);
+
+    /**
+     * Bloquea la fila del perfil (SELECT ... FOR UPDATE) por ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Profile p WHERE p.profileId = :profileId")
+    Optional<Profile> findByIdForUpdate(@Param("profileId") Integer profileId);
+
+    /**
+     * Bloquea la fila del perfil sin cargar la entidad ni sus relaciones
+     * 
+     * @return el ID si el perfil existe
+     */
+    @Query(value = "SELECT profile_id FROM profiles WHERE profile_id = :profileId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockById(@Param("profileId") Integer profileId);
+
+    /**
+     * IDs de perfiles cuyos contadores de favoritos no coinciden con las filas reales
+     */
+    @Query(value = """
+            SELECT p.profile_id
+            FROM profiles p
+            WHERE p.favorite_artists_count <> (SELECT COUNT(*) FROM favorite_artists fa WHERE fa.profile_id = p.profile_id)
+               OR p.favorite_genres_count <> (SELECT COUNT(*) FROM favorite_genres fg WHERE fg.profile_id = p.profile_id)
+            """, nativeQuery = true)
+    List<Integer> findProfileIdsWithDriftedFavoriteCounters();
+
+    /**
+     * Recalcula los contadores de favoritos de un perfil desde las tablas reales
+     * Ejecutar con la fila del perfil bloqueada
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE profiles
+            SET favorite_artists_count = (SELECT COUNT(*) FROM favorite_artists fa WHERE fa.profile_id = :profileId),
+                favorite_genres_count = (SELECT COUNT(*) FROM favorite_genres fg WHERE fg.profile_id = :profileId),
+                preferences_version = preferences_version + 1
+            WHERE profile_id = :profileId
+            """, nativeQuery = true)
+    int recountFavorites(@Param("profileId") Integer profileId);
+
+    /**
+     * Incrementa la versión de las preferencias (ETag) cuando el cambio no la
+     * incrementa ya en su propia sentencia
+     */
+    @Modifying
+    @Query(value = "UPDATE profiles SET preferences_version = preferences_version + 1 WHERE profile_id = :profileId",
+            nativeQuery = true)
+    int incrementPreferencesVersion(@Param("profileId") Integer profileId);
 }
@@ -0,0 +1,73 @@
+package com.example.user_service.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.user_service.dto.UserLookupRow;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * Mismas búsquedas que UserRepository.findLookupRowsByUserId/Email sobre R2DBC
+ * Devuelve las mismas filas (una por rol, ordenadas por perfil) para que
+ * UserMapper construya exactamente la misma respuesta
+ */
+@Repository
+@ConditionalOnProperty(prefix = "datasource.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveUserLookupRepository {
+
+    private static final String LOOKUP_SQL = """
+            SELECT u.user_id, u.email, u.password, u.user_type, u.enabled, u.account_non_expired,
+                   u.account_non_locked, u.credentials_non_expired, u.created_at, u.updated_at, r.role,
+                   p.profile_id, p.name AS profile_name, l.profile_location_id, l.municipality, l.state, l.country
+            FROM users u
+            LEFT JOIN user_roles r ON r.user_id = u.user_id
+            LEFT JOIN profiles p ON p.user_id = u.user_id
+            LEFT JOIN profile_locations l ON l.profile_id = p.profile_id
+            WHERE %s
+            ORDER BY p.profile_id
+            """;
+
+    private final DatabaseClient reactiveLookupDatabaseClient;
+
+    public Flux<UserLookupRow> findLookupRowsByUserId(Integer userId) {
+        return reactiveLookupDatabaseClient.sql(LOOKUP_SQL.formatted("u.user_id = :userId"))
+                .bind("userId", userId)
+                .map(ReactiveUserLookupRepository::toRow)
+                .all();
+    }
+
+    public Flux<UserLookupRow> findLookupRowsByEmail(String email) {
+        return reactiveLookupDatabaseClient.sql(LOOKUP_SQL.formatted("u.email = :email"))
+                .bind("email", email)
+                .map(ReactiveUserLookupRepository::toRow)
+                .all();
+    }
+
+    private static UserLookupRow toRow(Readable row) {
+        return new UserLookupRow(
+                row.get("user_id", Integer.class),
+                row.get("email", String.class),
+                row.get("password", String.class),
+                row.get("user_type", String.class),
+                row.get("enabled", Boolean.class),
+                row.get("account_non_expired", Boolean.class),
+                row.get("account_non_locked", Boolean.class),
+                row.get("credentials_non_expired", Boolean.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("role", String.class),
+                row.get("profile_id", Integer.class),
+                row.get("profile_name", String.class),
+                row.get("profile_location_id", Integer.class),
+                row.get("municipality", String.class),
+                row.get("state", String.class),
+                row.get("country", String.class));
+    }
+}
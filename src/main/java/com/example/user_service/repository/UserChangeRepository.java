@@ -0,0 +1,52 @@
+package com.example.user_service.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.user_service.model.UserChange;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    /**
+     * Añade una entrada al registro en la transacción en curso
+     * ID, txid y fecha los asignan los DEFAULT de la tabla
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_changes (user_id, change_type) VALUES (:userId, :changeType)",
+            nativeQuery = true)
+    int append(@Param("userId") Integer userId, @Param("changeType") String changeType);
+
+    /**
+     * Entradas posteriores al cursor (txid, change_id) en orden del feed
+     * Solo devuelve filas de transacciones terminadas (txid por debajo del xmin
+     * del snapshot): ninguna transacción en curso puede añadir después una fila
+     * anterior al último cursor devuelto
+     */
+    @Query(value = """
+            SELECT * FROM user_changes
+            WHERE (txid, change_id) > (:afterTxid, :afterChangeId)
+              AND txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)
+            ORDER BY txid, change_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserChange> findSettledAfter(@Param("afterTxid") long afterTxid,
+            @Param("afterChangeId") long afterChangeId, @Param("limit") int limit);
+
+    /**
+     * Última entrada servible por el feed (posición actual para suscriptores en vivo)
+     */
+    @Query(value = """
+            SELECT * FROM user_changes
+            WHERE txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)
+            ORDER BY txid DESC, change_id DESC
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<UserChange> findLatestSettled();
+}
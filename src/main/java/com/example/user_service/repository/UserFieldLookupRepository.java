@@ -0,0 +1,123 @@
+package com.example.user_service.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.user_service.dto.UserField;
+import com.example.user_service.dto.UserLookupRow;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Búsquedas internas con selección de campos (fields=)
+ * Misma forma de fila que UserRepository.findLookupRows*, pero el SELECT solo
+ * lleva las columnas de los campos pedidos y los JOIN de roles y perfil solo
+ * se añaden si se piden: sin roles hay una fila por usuario y perfil en lugar
+ * de una por rol. Las columnas no seleccionadas quedan null en la fila
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserFieldLookupRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Filas de los usuarios con alguno de los IDs o emails, ordenadas por usuario
+     * y perfil. El email se selecciona también si se busca por email, para poder
+     * asociar cada usuario a su clave
+     */
+    public List<UserLookupRow> findLookupRows(Collection<Integer> userIds, Collection<String> emails,
+            Set<UserField> fields) {
+        boolean email = fields.contains(UserField.EMAIL) || !emails.isEmpty();
+        boolean roles = fields.contains(UserField.ROLES);
+        boolean profile = fields.contains(UserField.PROFILE);
+        boolean accountStatus = fields.contains(UserField.ACCOUNT_STATUS);
+
+        List<String> columns = new ArrayList<>();
+        columns.add("u.user_id");
+        if (email) {
+            columns.add("u.email");
+        }
+        if (fields.contains(UserField.PASSWORD)) {
+            columns.add("u.password");
+        }
+        if (fields.contains(UserField.USER_TYPE)) {
+            columns.add("u.user_type");
+        }
+        if (accountStatus) {
+            columns.add("u.enabled, u.account_non_expired, u.account_non_locked, u.credentials_non_expired");
+        }
+        if (fields.contains(UserField.CREATED_AT)) {
+            columns.add("u.created_at");
+        }
+        if (fields.contains(UserField.UPDATED_AT)) {
+            columns.add("u.updated_at");
+        }
+        if (roles) {
+            columns.add("r.role");
+        }
+        if (profile) {
+            columns.add("p.profile_id, p.name AS profile_name, l.profile_location_id, l.municipality, l.state, l.country");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", columns)).append(" FROM users u");
+        if (roles) {
+            sql.append(" LEFT JOIN user_roles r ON r.user_id = u.user_id");
+        }
+        if (profile) {
+            sql.append(" LEFT JOIN profiles p ON p.user_id = u.user_id")
+                    .append(" LEFT JOIN profile_locations l ON l.profile_id = p.profile_id");
+        }
+
+        // IN () no es SQL válido: solo se añade el predicado de las claves presentes
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> predicates = new ArrayList<>(2);
+        if (!userIds.isEmpty()) {
+            predicates.add("u.user_id IN (:userIds)");
+            params.addValue("userIds", userIds);
+        }
+        if (!emails.isEmpty()) {
+            predicates.add("u.email IN (:emails)");
+            params.addValue("emails", emails);
+        }
+        if (predicates.isEmpty()) {
+            return List.of();
+        }
+        sql.append(" WHERE ").append(String.join(" OR ", predicates))
+                .append(profile ? " ORDER BY u.user_id, p.profile_id" : " ORDER BY u.user_id");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new UserLookupRow(
+                rs.getInt("user_id"),
+                email ? rs.getString("email") : null,
+                fields.contains(UserField.PASSWORD) ? rs.getString("password") : null,
+                fields.contains(UserField.USER_TYPE) ? rs.getString("user_type") : null,
+                accountStatus ? rs.getBoolean("enabled") : null,
+                accountStatus ? rs.getBoolean("account_non_expired") : null,
+                accountStatus ? rs.getBoolean("account_non_locked") : null,
+                accountStatus ? rs.getBoolean("credentials_non_expired") : null,
+                fields.contains(UserField.CREATED_AT) ? toLocalDateTime(rs, "created_at") : null,
+                fields.contains(UserField.UPDATED_AT) ? toLocalDateTime(rs, "updated_at") : null,
+                roles ? rs.getString("role") : null,
+                profile ? (Integer) rs.getObject("profile_id") : null,
+                profile ? rs.getString("profile_name") : null,
+                profile ? (Integer) rs.getObject("profile_location_id") : null,
+                profile ? rs.getString("municipality") : null,
+                profile ? rs.getString("state") : null,
+                profile ? rs.getString("country") : null));
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
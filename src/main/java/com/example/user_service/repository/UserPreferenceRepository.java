@@ -2,7 +2,12 @@ package com.example.user_service.repository;
 
 import java.util.Optional;
 
+import java.math.BigDecimal;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.user_service.model.UserPreference;
@@ -24,4 +29,26 @@ public interface UserPreferenceRepository extends JpaRepository<UserPreference,
      * Check if user preference exists for a profile
      */
     boolean existsByProfileProfileId(Integer profileId);
+
+    /**
+     * Actualiza solo los campos informados (null conserva el valor actual)
+     * sin cargar la entidad, e incrementa la versión de las preferencias del
+     * perfil en la misma sentencia
+     */
+    @Modifying
+    @Query(value = """
+            WITH updated AS (
+                UPDATE user_preferences
+                SET search_radius = COALESCE(CAST(:searchRadius AS numeric), search_radius),
+                    email_notifications = COALESCE(CAST(:emailNotifications AS boolean), email_notifications)
+                WHERE user_preference_id = :userPreferenceId
+                RETURNING profile_id
+            )
+            UPDATE profiles
+            SET preferences_version = preferences_version + 1
+            WHERE profile_id IN (SELECT profile_id FROM updated)
+            """, nativeQuery = true)
+    int updateSettings(@Param("userPreferenceId") Integer userPreferenceId,
+            @Param("searchRadius") BigDecimal searchRadius,
+            @Param("emailNotifications") Boolean emailNotifications);
 }
@@ -1,10 +1,17 @@
 package com.example.user_service.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.user_service.dto.UserLookupRow;
+import com.example.user_service.dto.UserPreferenceContext;
 import com.example.user_service.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +19,102 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Usuario y roles en una sola consulta (sin el select aparte de user_roles)
+     * Usado al autenticar cada petición
+     */
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByEmail(String email);
+
+    /**
+     * Carga usuario, roles, perfil, ubicación y preferencias en una sola consulta
+     * Lo que UserMapper.toResponse necesita, sin selects perezosos adicionales
+     */
+    @EntityGraph(attributePaths = { "roles", "profiles", "profiles.profileLocation", "profiles.userPreference" })
+    Optional<User> findWithProfileByUserId(Integer userId);
+
+    /**
+     * Igual que findWithProfileByUserId pero buscando por email
+     */
+    @EntityGraph(attributePaths = { "roles", "profiles", "profiles.profileLocation", "profiles.userPreference" })
+    Optional<User> findWithProfileByEmail(String email);
+
+    /**
+     * Email y marcas de tiempo del usuario: lo necesario para responder un
+     * If-None-Match sin cargar roles ni perfil
+     */
+    @Query("SELECT u.email AS email, u.createdAt AS createdAt, u.updatedAt AS updatedAt FROM User u WHERE u.userId = :userId")
+    Optional<UserVersion> findVersionByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Proyección de solo lectura por ID (una fila por rol, ordenadas por perfil)
+     * Usada por los endpoints internos de mayor tráfico
+     */
+    @Query("""
+            SELECT new com.example.user_service.dto.UserLookupRow(
+                u.userId, u.email, u.password, u.userType, u.enabled, u.accountNonExpired,
+                u.accountNonLocked, u.credentialsNonExpired, u.createdAt, u.updatedAt, r,
+                p.profileId, p.name, l.profileLocationId, l.municipality, l.state, l.country)
+            FROM User u
+            LEFT JOIN u.roles r
+            LEFT JOIN u.profiles p
+            LEFT JOIN p.profileLocation l
+            WHERE u.userId = :userId
+            ORDER BY p.profileId
+            """)
+    List<UserLookupRow> findLookupRowsByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Proyección de solo lectura por email (una fila por rol, ordenadas por perfil)
+     */
+    @Query("""
+            SELECT new com.example.user_service.dto.UserLookupRow(
+                u.userId, u.email, u.password, u.userType, u.enabled, u.accountNonExpired,
+                u.accountNonLocked, u.credentialsNonExpired, u.createdAt, u.updatedAt, r,
+                p.profileId, p.name, l.profileLocationId, l.municipality, l.state, l.country)
+            FROM User u
+            LEFT JOIN u.roles r
+            LEFT JOIN u.profiles p
+            LEFT JOIN p.profileLocation l
+            WHERE u.email = :email
+            ORDER BY p.profileId
+            """)
+    List<UserLookupRow> findLookupRowsByEmail(@Param("email") String email);
+
+    /**
+     * Proyección de solo lectura para varios usuarios a la vez (búsqueda por lotes)
+     * Una sola consulta con IN sobre IDs y emails; filas agrupadas por usuario
+     * y, dentro de cada uno, ordenadas por perfil como en las búsquedas individuales
+     */
+    @Query("""
+            SELECT new com.example.user_service.dto.UserLookupRow(
+                u.userId, u.email, u.password, u.userType, u.enabled, u.accountNonExpired,
+                u.accountNonLocked, u.credentialsNonExpired, u.createdAt, u.updatedAt, r,
+                p.profileId, p.name, l.profileLocationId, l.municipality, l.state, l.country)
+            FROM User u
+            LEFT JOIN u.roles r
+            LEFT JOIN u.profiles p
+            LEFT JOIN p.profileLocation l
+            WHERE u.userId IN :userIds OR u.email IN :emails
+            ORDER BY u.userId, p.profileId
+            """)
+    List<UserLookupRow> findLookupRowsByUserIdsOrEmails(@Param("userIds") Collection<Integer> userIds,
+            @Param("emails") Collection<String> emails);
+
+    /**
+     * Contexto de los endpoints de preferencias en una sola consulta
+     * (propietario, perfil, preferencias y contadores; una fila por perfil)
+     */
+    @Query("""
+            SELECT new com.example.user_service.dto.UserPreferenceContext(
+                u.userId, u.email, p.profileId, p.favoriteArtistsCount, p.favoriteGenresCount, p.preferencesVersion,
+                up.userPreferenceId, up.searchRadius, up.emailNotifications)
+            FROM User u
+            LEFT JOIN u.profiles p
+            LEFT JOIN p.userPreference up
+            WHERE u.userId = :userId
+            ORDER BY p.profileId
+            """)
+    List<UserPreferenceContext> findPreferenceContexts(@Param("userId") Integer userId);
 }
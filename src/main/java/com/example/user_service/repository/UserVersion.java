@@ -0,0 +1,16 @@
+package com.example.user_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección mínima para resolver el ETag de un usuario: email para validar
+ * la propiedad y marcas de tiempo como versión
+ */
+public interface UserVersion {
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
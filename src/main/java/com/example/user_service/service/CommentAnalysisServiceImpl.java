@@ -4,6 +4,7 @@ import com.azure.ai.textanalytics.TextAnalyticsClient;
 import com.azure.ai.textanalytics.models.DocumentSentiment;
 import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
 import com.azure.core.exception.AzureException;
+import com.example.user_service.config.TransactionMonitor;
 import com.example.user_service.dto.CommentAnalysisResponse;
 import com.example.user_service.model.ConcertComment;
 import com.example.user_service.model.GeneralComment;
@@ -30,6 +31,7 @@ public class CommentAnalysisServiceImpl implements CommentAnalysisService {
     private final TextAnalyticsClient textAnalyticsClient;
     private final GeneralCommentRepository generalCommentRepository;
     private final ConcertCommentRepository concertCommentRepository;
+    private final TransactionMonitor transactionMonitor;
 
     @Override
     @Transactional
@@ -86,6 +88,8 @@ public class CommentAnalysisServiceImpl implements CommentAnalysisService {
      * Método privado que realiza el análisis de sentimiento usando Azure AI
      */
     private CommentAnalysisResponse analyzeComment(String comment, String context) {
+        transactionMonitor.recordRemoteCall("azure-text-analytics");
+
         try {
             // Analizar sentimiento del comentario
             DocumentSentiment sentiment = textAnalyticsClient.analyzeSentiment(comment);
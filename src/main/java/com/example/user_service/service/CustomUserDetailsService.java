@@ -1,5 +1,7 @@
 package com.example.user_service.service;
 
+import java.util.Optional;
+
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -21,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
 
     /**
      * Carga los detalles del usuario desde la base de datos usando el email
@@ -33,7 +36,11 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         log.debug("Attempting to load user by email: {}", email);
 
-        User user = userRepository.findByEmail(email)
+        // Los emails que seguro no existen se rechazan sin consultar la BD
+        Optional<User> found = userEmailIndex.mightExist(email)
+                ? userRepository.findWithRolesByEmail(email)
+                : Optional.empty();
+        User user = found
                 .orElseThrow(() -> {
                     log.warn("User not found with email: {}", email);
                     return new UsernameNotFoundException(
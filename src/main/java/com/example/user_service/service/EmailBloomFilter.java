@@ -0,0 +1,84 @@
+package com.example.user_service.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de emails: responde "seguro que no existe" o "puede existir"
+ * Con una tasa de falsos positivos del 1% ocupa ~9.6 bits por email.
+ * Las k posiciones salen de dos hashes de 64 bits del email (h1 + i·h2), sin
+ * normalizar: la restricción única de users.email distingue mayúsculas.
+ * Añadir y consultar no toman locks (OR atómico sobre palabras de 64 bits)
+ */
+final class EmailBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+
+    private EmailBloomFilter(long bitCount, int hashCount, long capacity) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Filtro dimensionado para {@code capacity} emails con la tasa de falsos positivos indicada
+     */
+    static EmailBloomFilter forCapacity(long capacity, double falsePositiveRate) {
+        long expected = Math.max(capacity, 1);
+        long bits = Math.max(64, (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expected * LN2));
+        return new EmailBloomFilter(bits, hashes, expected);
+    }
+
+    void add(String email) {
+        long h1 = hash(email, 0x9E3779B97F4A7C15L);
+        long h2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (bits, added) -> bits | added);
+            }
+        }
+    }
+
+    boolean mightContain(String email) {
+        long h1 = hash(email, 0x9E3779B97F4A7C15L);
+        long h2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /**
+     * FNV-1a sobre los caracteres con semilla, terminado con el mezclador de SplitMix64
+     */
+    private static long hash(String email, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < email.length(); i++) {
+            h ^= email.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
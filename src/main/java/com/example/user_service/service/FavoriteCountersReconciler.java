@@ -0,0 +1,51 @@
+package com.example.user_service.service;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.repository.ProfileRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job periódico que repara los contadores desnormalizados de favoritos
+ * (profiles.favorite_artists_count / favorite_genres_count) cuando no coinciden
+ * con las filas reales, p. ej. perfiles anteriores a los contadores o
+ * escrituras hechas fuera del servicio
+ */
+@Component
+@Slf4j
+public class FavoriteCountersReconciler {
+
+    private final ProfileRepository profileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public FavoriteCountersReconciler(ProfileRepository profileRepository,
+            PlatformTransactionManager transactionManager) {
+        this.profileRepository = profileRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${preferences.counters.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${preferences.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        List<Integer> driftedProfileIds = profileRepository.findProfileIdsWithDriftedFavoriteCounters();
+        if (driftedProfileIds.isEmpty()) {
+            log.debug("Favorite counters are consistent");
+            return;
+        }
+
+        log.warn("🔧 Reconciling favorite counters for {} profiles", driftedProfileIds.size());
+        for (Integer profileId : driftedProfileIds) {
+            // Cada perfil en su propia transacción: bloquear la fila primero para que
+            // el recuento no compita con altas/bajas concurrentes
+            transactionTemplate.executeWithoutResult(status -> profileRepository.findByIdForUpdate(profileId)
+                    .ifPresent(profile -> profileRepository.recountFavorites(profileId)));
+        }
+        log.info("✅ Favorite counters reconciled for {} profiles", driftedProfileIds.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.user_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de la paginación keyset de favoritos
+ * Codifica el último ID de favorito devuelto junto con el tipo de lista, para
+ * que un cursor de artistas no se pueda usar con géneros. Los clientes no
+ * deben interpretarlo
+ */
+final class FavoriteCursor {
+
+    static final String ARTISTS = "fa";
+    static final String GENRES = "fg";
+
+    private FavoriteCursor() {
+    }
+
+    static String encode(String kind, Integer favoriteId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((kind + ":" + favoriteId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * ID a partir del cual continuar; 0 (desde el principio) si no hay cursor
+     */
+    static int decode(String kind, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            if (value.startsWith(kind + ":")) {
+                int favoriteId = Integer.parseInt(value.substring(kind.length() + 1));
+                if (favoriteId >= 0) {
+                    return favoriteId;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 o número inválido: se trata igual que un cursor de otro tipo
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
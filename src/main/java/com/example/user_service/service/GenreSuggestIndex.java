@@ -0,0 +1,157 @@
+package com.example.user_service.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de prefijos inmutable para el typeahead de géneros
+ * Las claves se normalizan sin acentos ni mayúsculas y se guardan en un arreglo
+ * ordenado: una búsqueda es una búsqueda binaria más un recorrido del rango
+ * que comparte el prefijo. Cada género aporta su nombre completo y el sufijo
+ * que empieza en cada palabra ("Heavy Metal" se encuentra con "met").
+ * El ranking prefiere coincidencias al inicio del nombre y luego popularidad
+ * (número de perfiles que lo tienen como favorito)
+ */
+final class GenreSuggestIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<MusicGenreCatalog.Entry> entries;
+    private final String[] keys;
+    private final int[] owners;
+    private final boolean[] fullName;
+    // Posición de cada género ordenado por popularidad desc y nombre asc
+    private final int[] rank;
+
+    private GenreSuggestIndex(List<MusicGenreCatalog.Entry> entries, String[] keys, int[] owners,
+            boolean[] fullName, int[] rank) {
+        this.entries = entries;
+        this.keys = keys;
+        this.owners = owners;
+        this.fullName = fullName;
+        this.rank = rank;
+    }
+
+    static GenreSuggestIndex build(List<MusicGenreCatalog.Entry> entries, Map<Integer, Long> favoritesByGenre) {
+        record Key(String key, int owner, boolean fullName) {
+        }
+
+        List<Key> collected = new ArrayList<>();
+        for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+            String name = entries.get(ordinal).name();
+            if (name == null) {
+                continue;
+            }
+            String key = fold(name);
+            if (key.isEmpty()) {
+                continue;
+            }
+            collected.add(new Key(key, ordinal, true));
+            for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+                collected.add(new Key(key.substring(i + 1), ordinal, false));
+            }
+        }
+        collected.sort(Comparator.comparing(Key::key));
+
+        String[] keys = new String[collected.size()];
+        int[] owners = new int[collected.size()];
+        boolean[] fullName = new boolean[collected.size()];
+        for (int i = 0; i < collected.size(); i++) {
+            keys[i] = collected.get(i).key();
+            owners[i] = collected.get(i).owner();
+            fullName[i] = collected.get(i).fullName();
+        }
+
+        Integer[] byPopularity = new Integer[entries.size()];
+        for (int i = 0; i < byPopularity.length; i++) {
+            byPopularity[i] = i;
+        }
+        Arrays.sort(byPopularity, Comparator
+                .comparingLong((Integer ordinal) -> -favoritesByGenre.getOrDefault(
+                        entries.get(ordinal).musicGenreId(), 0L))
+                .thenComparing(ordinal -> entries.get(ordinal).name(),
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        int[] rank = new int[entries.size()];
+        for (int position = 0; position < byPopularity.length; position++) {
+            rank[byPopularity[position]] = position;
+        }
+
+        return new GenreSuggestIndex(entries, keys, owners, fullName, rank);
+    }
+
+    /**
+     * Hasta {@code limit} géneros cuyo nombre o alguna de sus palabras empieza por la consulta
+     */
+    List<MusicGenreCatalog.Entry> suggest(String query, int limit) {
+        String prefix = fold(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        BitSet matched = new BitSet(entries.size());
+        BitSet matchedFullName = new BitSet(entries.size());
+        for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+            matched.set(owners[i]);
+            if (fullName[i]) {
+                matchedFullName.set(owners[i]);
+            }
+        }
+
+        // Top-k por inserción: limit es pequeño y el rango suele serlo también
+        int[] best = new int[Math.min(limit, matched.cardinality())];
+        int[] bestScore = new int[best.length];
+        int size = 0;
+        for (int ordinal = matched.nextSetBit(0); ordinal >= 0; ordinal = matched.nextSetBit(ordinal + 1)) {
+            int score = (matchedFullName.get(ordinal) ? 0 : entries.size()) + rank[ordinal];
+            if (size == best.length && score >= bestScore[size - 1]) {
+                continue;
+            }
+            int position = size == best.length ? size - 1 : size++;
+            while (position > 0 && bestScore[position - 1] > score) {
+                best[position] = best[position - 1];
+                bestScore[position] = bestScore[position - 1];
+                position--;
+            }
+            best[position] = ordinal;
+            bestScore[position] = score;
+        }
+
+        List<MusicGenreCatalog.Entry> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(entries.get(best[i]));
+        }
+        return result;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Minúsculas, sin acentos y con cualquier separador reducido a un espacio
+     * ("Música  Pop-Rock" → "musica pop rock")
+     */
+    static String fold(String text) {
+        String withoutMarks = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("");
+        return SEPARATORS.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.user_service.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limitador de intentos de login fallidos por email y por IP
+ * Se consulta ANTES de buscar el usuario o ejecutar BCrypt, de modo que un
+ * ataque de credential stuffing no pueda agotar la CPU ni la base de datos.
+ * Usa sketches aproximados con memoria fija (ver WindowedCountMinSketch),
+ * dimensionados para expected-failures-per-window fallos por ventana: un spray
+ * de emails distintos por debajo de esa cifra no bloquea a usuarios legítimos.
+ * Un login correcto perdona los fallos previos de ese email (no los de la IP,
+ * que un atacante con una cuenta válida podría ir reiniciando)
+ */
+@Service
+@Slf4j
+public class LoginAttemptLimiter {
+
+    private static final int STRIPES = 16;
+    private static final int SLOTS = 10;
+
+    private final boolean enabled;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final WindowedCountMinSketch emailFailures;
+    private final WindowedCountMinSketch ipFailures;
+    // Último login correcto por email; acotado a max-tracked-successes entradas
+    private final Map<String, WindowedCountMinSketch.Mark> emailSuccesses = new ConcurrentHashMap<>();
+    private final int maxTrackedSuccesses;
+
+    private final Counter failuresCounter;
+    private final Counter emailRejectedCounter;
+    private final Counter ipRejectedCounter;
+
+    public LoginAttemptLimiter(
+            @Value("${security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${security.login-throttle.window-seconds:300}") long windowSeconds,
+            @Value("${security.login-throttle.max-failures-per-email:10}") int maxFailuresPerEmail,
+            @Value("${security.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+            @Value("${security.login-throttle.expected-failures-per-window:500000}") long expectedFailures,
+            @Value("${security.login-throttle.max-tracked-successes:100000}") int maxTrackedSuccesses,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxTrackedSuccesses = maxTrackedSuccesses;
+        this.emailFailures = WindowedCountMinSketch.forExpectedKeys(STRIPES, expectedFailures, maxFailuresPerEmail,
+                SLOTS, windowSeconds * 1000);
+        this.ipFailures = WindowedCountMinSketch.forExpectedKeys(STRIPES, expectedFailures, maxFailuresPerIp,
+                SLOTS, windowSeconds * 1000);
+        log.info("🛡️ Login throttle sized for {} failures per window ({} KB)", expectedFailures,
+                (emailFailures.sizeInBytes() + ipFailures.sizeInBytes()) / 1024);
+
+        this.failuresCounter = Counter.builder("login.throttle.failures")
+                .description("Intentos de login fallidos registrados")
+                .register(meterRegistry);
+        this.emailRejectedCounter = Counter.builder("login.throttle.rejected")
+                .tag("key", "email")
+                .description("Intentos rechazados antes de verificar credenciales")
+                .register(meterRegistry);
+        this.ipRejectedCounter = Counter.builder("login.throttle.rejected")
+                .tag("key", "ip")
+                .description("Intentos rechazados antes de verificar credenciales")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifica que ni el email ni la IP hayan superado el límite de fallos
+     *
+     * @throws LoginThrottledException si alguno de los dos está bloqueado
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!isAllowed(email, clientIp)) {
+            throw new LoginThrottledException(retryAfterSeconds());
+        }
+    }
+
+    /**
+     * Igual que checkAllowed pero sin lanzar excepción (para filtros)
+     */
+    public boolean isAllowed(String email, String clientIp) {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (clientIp != null && ipFailures.estimate(clientIp, now) >= maxFailuresPerIp) {
+            ipRejectedCounter.increment();
+            log.warn("🚫 Login throttled for IP: {}", clientIp);
+            return false;
+        }
+        if (email != null && emailFailuresSinceSuccess(normalize(email), now) >= maxFailuresPerEmail) {
+            emailRejectedCounter.increment();
+            log.warn("🚫 Login throttled for email: {}", email);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Registra un intento fallido para el email y la IP
+     */
+    public void recordFailure(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        failuresCounter.increment();
+        if (email != null) {
+            emailFailures.increment(normalize(email), now);
+        }
+        if (clientIp != null) {
+            ipFailures.increment(clientIp, now);
+        }
+    }
+
+    /**
+     * Registra un login correcto: los fallos anteriores del email dejan de contar
+     */
+    public void recordSuccess(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String key = normalize(email);
+        // La inmensa mayoría de logins no tienen fallos previos: nada que guardar
+        if (emailFailuresSinceSuccess(key, now) == 0) {
+            return;
+        }
+        if (!emailSuccesses.containsKey(key) && emailSuccesses.size() >= maxTrackedSuccesses) {
+            emailSuccesses.values().removeIf(mark -> emailFailures.isExpired(mark, now));
+            if (emailSuccesses.size() >= maxTrackedSuccesses) {
+                // Sin sitio: los fallos siguen contando hasta que salgan de la ventana
+                return;
+            }
+        }
+        emailSuccesses.put(key, emailFailures.mark(key, now));
+    }
+
+    /**
+     * Los fallos de HTTP Basic llegan como eventos de Spring Security
+     */
+    @EventListener
+    public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+        String clientIp = null;
+        if (event.getAuthentication().getDetails() instanceof WebAuthenticationDetails details) {
+            clientIp = details.getRemoteAddress();
+        }
+        recordFailure(event.getAuthentication().getName(), clientIp);
+    }
+
+    /**
+     * Los HTTP Basic correctos también perdonan los fallos previos del email
+     */
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        recordSuccess(event.getAuthentication().getName());
+    }
+
+    /**
+     * IP del cliente de la petición en curso (null fuera de un request HTTP)
+     */
+    public String currentClientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, emailFailures.windowMillis() / SLOTS / 1000);
+    }
+
+    private int emailFailuresSinceSuccess(String key, long now) {
+        WindowedCountMinSketch.Mark success = emailSuccesses.get(key);
+        if (success != null && emailFailures.isExpired(success, now)) {
+            emailSuccesses.remove(key, success);
+            success = null;
+        }
+        return emailFailures.estimate(key, now, success);
+    }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.user_service.service;
+
+import lombok.Getter;
+
+/**
+ * Se lanza cuando un email o IP superó el límite de intentos de login fallidos
+ * RestExceptionHandler la traduce a 429 Too Many Requests
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many failed login attempts, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
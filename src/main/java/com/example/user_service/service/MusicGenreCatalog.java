@@ -0,0 +1,204 @@
+package com.example.user_service.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.user_service.dto.MusicGenreResponse;
+import com.example.user_service.model.MusicGenre;
+import com.example.user_service.repository.FavoriteGenreRepository;
+import com.example.user_service.repository.GenreFavoriteCount;
+import com.example.user_service.repository.MusicGenreRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catálogo de géneros musicales en memoria
+ * La tabla music_genres casi nunca cambia, así que se mantiene un snapshot
+ * inmutable (índice por ID y por nombre normalizado) junto con la respuesta
+ * JSON ya serializada y comprimida para GET /api/v1/genres.
+ * El snapshot se recarga periódicamente y cuando una búsqueda encuentra en BD
+ * un género que aún no estaba en memoria. Incluye además el índice de prefijos
+ * del typeahead, ordenado por popularidad (favoritos por género)
+ */
+@Service
+@Slf4j
+public class MusicGenreCatalog {
+
+    private final MusicGenreRepository musicGenreRepository;
+    private final FavoriteGenreRepository favoriteGenreRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public MusicGenreCatalog(MusicGenreRepository musicGenreRepository,
+            FavoriteGenreRepository favoriteGenreRepository, ObjectMapper objectMapper) {
+        this.musicGenreRepository = musicGenreRepository;
+        this.favoriteGenreRepository = favoriteGenreRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Género del catálogo (inmutable, se comparte entre hilos)
+     */
+    public record Entry(Integer musicGenreId, String name, String description) {
+
+        public MusicGenreResponse toResponse() {
+            return MusicGenreResponse.builder()
+                    .musicGenreId(musicGenreId)
+                    .name(name)
+                    .description(description)
+                    .build();
+        }
+    }
+
+    /**
+     * Respuesta pre-serializada del catálogo completo
+     * El ETag es fuerte y distinto por codificación, ya que los bytes difieren
+     */
+    public record SerializedCatalog(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    private record Snapshot(List<Entry> genres, Map<Integer, Entry> byId, Map<String, Entry> byName,
+            SerializedCatalog serialized, Map<Integer, Long> favoritesByGenre, GenreSuggestIndex suggestIndex) {
+    }
+
+    public List<Entry> getAll() {
+        return current().genres();
+    }
+
+    public SerializedCatalog getSerialized() {
+        return current().serialized();
+    }
+
+    /**
+     * Typeahead: géneros cuyo nombre o alguna de sus palabras empieza por la
+     * consulta, sin distinguir mayúsculas ni acentos. No consulta la BD
+     */
+    public List<Entry> suggest(String query, int limit) {
+        return current().suggestIndex().suggest(query, limit);
+    }
+
+    /**
+     * Busca por ID; si no está en memoria consulta la BD y, si existe, recarga el snapshot
+     */
+    public Optional<Entry> findById(Integer musicGenreId) {
+        Entry entry = current().byId().get(musicGenreId);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        if (musicGenreRepository.existsById(musicGenreId)) {
+            return Optional.ofNullable(load().byId().get(musicGenreId));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Busca por nombre sin distinguir mayúsculas; misma política de recarga que findById
+     */
+    public Optional<Entry> findByName(String name) {
+        String key = normalize(name);
+        Entry entry = current().byName().get(key);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        if (musicGenreRepository.existsByNameIgnoreCase(name.trim())) {
+            return Optional.ofNullable(load().byName().get(key));
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(initialDelayString = "${preferences.genres.reload-interval-ms:300000}",
+            fixedDelayString = "${preferences.genres.reload-interval-ms:300000}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Reconstruye el snapshot desde la BD
+     * Solo se publica si el contenido cambió, para que el ETag se mantenga estable;
+     * si solo cambió la popularidad se reconstruye únicamente el índice del typeahead
+     */
+    private synchronized Snapshot load() {
+        List<Entry> genres = musicGenreRepository.findAll().stream()
+                .sorted(Comparator.comparing(MusicGenre::getMusicGenreId))
+                .map(genre -> new Entry(genre.getMusicGenreId(), genre.getName(), genre.getDescription()))
+                .toList();
+        Map<Integer, Long> favoritesByGenre = favoriteGenreRepository.countFavoritesByGenre().stream()
+                .collect(Collectors.toUnmodifiableMap(GenreFavoriteCount::getMusicGenreId,
+                        GenreFavoriteCount::getFavorites));
+
+        Snapshot previous = snapshot;
+        if (previous != null && previous.genres().equals(genres)) {
+            if (previous.favoritesByGenre().equals(favoritesByGenre)) {
+                log.debug("Genre catalog unchanged ({} genres)", genres.size());
+                return previous;
+            }
+            Snapshot reranked = new Snapshot(previous.genres(), previous.byId(), previous.byName(),
+                    previous.serialized(), favoritesByGenre, GenreSuggestIndex.build(genres, favoritesByGenre));
+            snapshot = reranked;
+            log.debug("Genre suggest ranking refreshed");
+            return reranked;
+        }
+
+        Map<Integer, Entry> byId = new LinkedHashMap<>();
+        Map<String, Entry> byName = new LinkedHashMap<>();
+        for (Entry genre : genres) {
+            byId.put(genre.musicGenreId(), genre);
+            if (genre.name() != null) {
+                byName.putIfAbsent(normalize(genre.name()), genre);
+            }
+        }
+
+        Snapshot loaded = new Snapshot(genres, Map.copyOf(byId), Map.copyOf(byName), serialize(genres),
+                favoritesByGenre, GenreSuggestIndex.build(genres, favoritesByGenre));
+        snapshot = loaded;
+        log.info("🎵 Genre catalog loaded: {} genres (ETag {})", genres.size(), loaded.serialized().etag());
+        return loaded;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private SerializedCatalog serialize(List<Entry> genres) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(genres.stream().map(Entry::toResponse).toList());
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+            return new SerializedCatalog(json, buffer.toByteArray(), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize genre catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.user_service.service;
+
+import lombok.Getter;
+
+/**
+ * Se lanza cuando ya hay en curso una operación que solo admite una ejecución
+ * a la vez (importación o exportación masiva)
+ * RestExceptionHandler la traduce a 429 Too Many Requests
+ */
+@Getter
+public class OperationInProgressException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OperationInProgressException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
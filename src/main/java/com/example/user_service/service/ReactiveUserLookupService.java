@@ -0,0 +1,47 @@
+package com.example.user_service.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.user_service.dto.UserResponse;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.repository.ReactiveUserLookupRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión no bloqueante de UserService.getUserByIdInternal/getUserByEmail
+ * Mismas respuestas y mismos errores (404 si el usuario no existe)
+ */
+@Service
+@ConditionalOnProperty(prefix = "datasource.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserLookupService {
+
+    private final ReactiveUserLookupRepository reactiveUserLookupRepository;
+    private final UserMapper userMapper;
+
+    public Mono<UserResponse> getUserById(Integer userId) {
+        return reactiveUserLookupRepository.findLookupRowsByUserId(userId)
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(userMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(
+                        String.format("User not found with id: '%s'", userId))))
+                .doOnNext(user -> log.debug("✅ [INTERNAL] User fetched reactively: {}", userId));
+    }
+
+    public Mono<UserResponse> getUserByEmail(String email) {
+        return reactiveUserLookupRepository.findLookupRowsByEmail(email)
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(userMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(
+                        String.format("User not found with email: '%s'", email))))
+                .doOnNext(user -> log.debug("✅ [INTERNAL] User fetched reactively by email: {}", email));
+    }
+}
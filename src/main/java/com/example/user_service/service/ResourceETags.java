@@ -0,0 +1,41 @@
+package com.example.user_service.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * ETags débiles de los recursos de usuario y preferencias
+ * Se derivan de la versión almacenada (updated_at del usuario, contador
+ * preferences_version del perfil), no de los bytes de la respuesta: así un
+ * If-None-Match se resuelve con una consulta de la versión, sin cargar ni
+ * serializar el recurso
+ */
+public final class ResourceETags {
+
+    private ResourceETags() {
+    }
+
+    /**
+     * ETag del usuario a partir de su updated_at (created_at si nunca se modificó),
+     * en el mismo formato ISO que UserResponse
+     */
+    public static String user(Integer userId, String updatedAt, String createdAt) {
+        String version = updatedAt != null ? updatedAt : createdAt;
+        return "W/\"u" + userId + "-" + (version != null ? version.replaceAll("\\D", "") : "0") + "\"";
+    }
+
+    public static String user(Integer userId, LocalDateTime updatedAt, LocalDateTime createdAt) {
+        return user(userId, format(updatedAt), format(createdAt));
+    }
+
+    /**
+     * ETag de las preferencias; el resumen y la vista completa son representaciones distintas
+     */
+    public static String preferences(Integer profileId, Long version, boolean full) {
+        return "W/\"p" + profileId + "-" + (version != null ? version : 0) + (full ? "-full" : "-summary") + "\"";
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.format(DateTimeFormatter.ISO_DATE_TIME) : null;
+    }
+}
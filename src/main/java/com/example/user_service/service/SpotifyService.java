@@ -10,12 +10,14 @@ import org.apache.hc.core5.http.ParseException;
 import org.springframework.stereotype.Service;
 
 import com.example.user_service.config.SpotifyApiConfig;
+import com.example.user_service.config.TransactionMonitor;
 import com.example.user_service.dto.ArtistResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import se.michaelthelin.spotify.SpotifyApi;
 import se.michaelthelin.spotify.exceptions.SpotifyWebApiException;
+import se.michaelthelin.spotify.exceptions.detailed.BadRequestException;
 import se.michaelthelin.spotify.model_objects.specification.Artist;
 import se.michaelthelin.spotify.model_objects.specification.Paging;
 import se.michaelthelin.spotify.requests.data.artists.GetArtistRequest;
@@ -28,6 +30,9 @@ public class SpotifyService {
 
     private final SpotifyApi spotifyApi;
     private final SpotifyApiConfig spotifyApiConfig;
+    private final TransactionMonitor transactionMonitor;
+
+    private static final int MAX_ARTISTS_PER_REQUEST = 50;
 
     /**
      * Buscar artistas por nombre
@@ -36,6 +41,8 @@ public class SpotifyService {
     public List<ArtistResponse> searchArtistsByName(String name) {
         log.info("Buscando artistas en Spotify: {}", name);
 
+        transactionMonitor.recordRemoteCall("spotify");
+
         try {
             // Obtener access token
             spotifyApiConfig.getAccessToken(spotifyApi);
@@ -66,6 +73,8 @@ public class SpotifyService {
     public ArtistResponse getArtistById(String spotifyId) {
         log.info("Obteniendo información del artista: {}", spotifyId);
 
+        transactionMonitor.recordRemoteCall("spotify");
+
         try {
             // Obtener access token
             spotifyApiConfig.getAccessToken(spotifyApi);
@@ -87,22 +96,47 @@ public class SpotifyService {
 
     /**
      * Obtener múltiples artistas por IDs
+     * Usa el endpoint "Get Several Artists" en bloques de 50 IDs (máximo de la
+     * API): una llamada HTTP por bloque en lugar de una por artista. Los IDs
+     * que Spotify no reconoce simplemente no aparecen en el resultado
      */
     public List<ArtistResponse> getArtistsByIds(List<String> spotifyIds) {
         log.info("Obteniendo {} artistas", spotifyIds.size());
 
-        List<ArtistResponse> artists = new ArrayList<>();
+        List<ArtistResponse> artists = new ArrayList<>(spotifyIds.size());
+        if (spotifyIds.isEmpty()) {
+            return artists;
+        }
+
+        transactionMonitor.recordRemoteCall("spotify");
 
-        for (String spotifyId : spotifyIds) {
-            try {
-                ArtistResponse artist = getArtistById(spotifyId);
-                artists.add(artist);
-            } catch (Exception e) {
-                log.warn("Error obteniendo artista {}: {}", spotifyId, e.getMessage());
+        try {
+            spotifyApiConfig.getAccessToken(spotifyApi);
+
+            for (int from = 0; from < spotifyIds.size(); from += MAX_ARTISTS_PER_REQUEST) {
+                String[] chunk = spotifyIds
+                        .subList(from, Math.min(from + MAX_ARTISTS_PER_REQUEST, spotifyIds.size()))
+                        .toArray(String[]::new);
+                Artist[] found = spotifyApi.getSeveralArtists(chunk).build().execute();
+                if (found == null) {
+                    continue;
+                }
+                for (Artist artist : found) {
+                    // Spotify devuelve null en la posición de un ID inexistente
+                    if (artist != null) {
+                        artists.add(mapToArtistResponse(artist));
+                    }
+                }
             }
-        }
+            return artists;
 
-        return artists;
+        } catch (BadRequestException e) {
+            // IDs con formato inválido invalidan todo el bloque
+            throw new IllegalArgumentException("Invalid Spotify artist IDs: " + e.getMessage(), e);
+        } catch (IOException | SpotifyWebApiException | ParseException e) {
+            log.error("Error obteniendo artistas: {}", e.getMessage(), e);
+            throw new RuntimeException("Error al obtener información de artistas: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -0,0 +1,59 @@
+package com.example.user_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.user_service.model.UserChange;
+
+/**
+ * Cursor opaco del feed de cambios: posición (txid, change_id) de la última
+ * entrada entregada. El orden del feed es el de ese par, no el de change_id,
+ * porque solo así es estable frente a transacciones que confirman fuera de
+ * orden. Los clientes no deben interpretarlo
+ */
+record UserChangeCursor(long txid, long changeId) implements Comparable<UserChangeCursor> {
+
+    static final UserChangeCursor START = new UserChangeCursor(0, 0);
+
+    private static final String PREFIX = "uc:";
+
+    static UserChangeCursor of(UserChange change) {
+        return new UserChangeCursor(change.getTxid(), change.getChangeId());
+    }
+
+    /**
+     * Posición a partir de la que continuar; el principio del registro si no hay cursor
+     */
+    static UserChangeCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                String[] parts = value.substring(PREFIX.length()).split(":");
+                if (parts.length == 2) {
+                    long txid = Long.parseLong(parts[0]);
+                    long changeId = Long.parseLong(parts[1]);
+                    if (txid >= 0 && changeId >= 0) {
+                        return new UserChangeCursor(txid, changeId);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 o número inválido: se trata igual que un cursor de otro tipo
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + txid + ":" + changeId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public int compareTo(UserChangeCursor other) {
+        int byTxid = Long.compare(txid, other.txid);
+        return byTxid != 0 ? byTxid : Long.compare(changeId, other.changeId);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.UserChangeFeedResponse;
+import com.example.user_service.model.UserChangeType;
+
+/**
+ * Registro de cambios de usuarios y preferencias para las cachés de otros servicios
+ */
+public interface UserChangeService {
+
+    int MAX_FEED_LIMIT = 1000;
+
+    /**
+     * Registra el cambio en la transacción de la mutación: si esta hace rollback,
+     * la entrada desaparece con ella. Falla si no hay transacción activa
+     */
+    void record(Integer userId, UserChangeType type);
+
+    /**
+     * Hasta {@code limit} cambios posteriores al cursor ({@code since} null o vacío
+     * empieza por el principio del registro)
+     */
+    UserChangeFeedResponse getChanges(String since, int limit);
+}
@@ -0,0 +1,53 @@
+package com.example.user_service.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.user_service.dto.UserChangeFeedResponse;
+import com.example.user_service.dto.UserChangeResponse;
+import com.example.user_service.model.UserChange;
+import com.example.user_service.model.UserChangeType;
+import com.example.user_service.repository.UserChangeRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeServiceImpl implements UserChangeService {
+
+    private final UserChangeRepository userChangeRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Integer userId, UserChangeType type) {
+        userChangeRepository.append(userId, type.name());
+        log.debug("📝 Change recorded for user {}: {}", userId, type);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserChangeFeedResponse getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            throw new IllegalArgumentException(
+                    String.format("limit must be between 1 and %d", MAX_FEED_LIMIT));
+        }
+        UserChangeCursor cursor = UserChangeCursor.decode(since);
+
+        // Una fila de más para saber si hay otro bloque disponible sin COUNT(*)
+        List<UserChange> rows = userChangeRepository.findSettledAfter(cursor.txid(), cursor.changeId(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<UserChange> page = hasMore ? rows.subList(0, limit) : rows;
+
+        UserChangeCursor next = page.isEmpty() ? cursor : UserChangeCursor.of(page.get(page.size() - 1));
+        return UserChangeFeedResponse.builder()
+                .changes(page.stream().map(UserChangeResponse::of).toList())
+                .hasMore(hasMore)
+                .nextCursor(next.encode())
+                .build();
+    }
+}
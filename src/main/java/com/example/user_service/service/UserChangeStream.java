@@ -0,0 +1,295 @@
+package com.example.user_service.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.user_service.dto.UserChangeResponse;
+import com.example.user_service.model.UserChange;
+import com.example.user_service.repository.UserChangeRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feed de cambios en vivo por Server-Sent Events
+ * Un único sondeo periódico lee las entradas nuevas una vez y las reparte a
+ * todos los suscriptores al día, así la carga en BD no crece con el número de
+ * conexiones. Un suscriptor que llega con un cursor antiguo se pone al día por
+ * bloques (uno por sondeo) y pasa a recibir el reparto común cuando alcanza la
+ * posición del sondeo. Cada evento lleva como id el cursor de su entrada: al
+ * reconectar, el cliente lo reenvía en Last-Event-ID y no pierde ni repite cambios.
+ *
+ * El sondeo corre en el scheduler compartido, así que nunca escribe en los
+ * sockets: deja los eventos en una cola acotada por suscriptor y un pool propio
+ * los envía. Un cliente lento que llena su cola se desconecta (reconecta con
+ * Last-Event-ID) y el número de conexiones abiertas está limitado
+ */
+@Component
+@Slf4j
+public class UserChangeStream {
+
+    static final String EVENT_NAME = "user-change";
+
+    private final UserChangeRepository userChangeRepository;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final ExecutorService sender;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Última entrada repartida a los suscriptores al día; null sin suscriptores
+    // (solo la usa poll(), que es synchronized)
+    private UserChangeCursor head;
+
+    public UserChangeStream(UserChangeRepository userChangeRepository, MeterRegistry meterRegistry,
+            @Value("${users.changes.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${users.changes.stream.heartbeat-ms:15000}") long heartbeatMillis,
+            @Value("${users.changes.stream.batch-size:500}") int batchSize,
+            @Value("${users.changes.stream.queue-capacity:2000}") int queueCapacity,
+            @Value("${users.changes.stream.max-subscribers:200}") int maxSubscribers,
+            @Value("${users.changes.stream.sender-threads:4}") int senderThreads) {
+        this.userChangeRepository = userChangeRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.batchSize = batchSize;
+        // Al menos un bloque completo, para que ponerse al día no desconecte a nadie
+        this.queueCapacity = Math.max(queueCapacity, batchSize + 1);
+        this.maxSubscribers = maxSubscribers;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "user-change-sse-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("users.changes.stream.subscribers", subscribers, List::size)
+                .description("Conexiones SSE abiertas al feed de cambios")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre un stream que empieza después del cursor indicado (null: desde el
+     * principio del registro). Un cursor inválido falla antes de abrirlo y,
+     * con el cupo de conexiones lleno, se rechaza con Retry-After
+     */
+    public SseEmitter subscribe(String since) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), UserChangeCursor.decode(since),
+                queueCapacity);
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Al expirar se cierra sin error; el cliente reconecta con Last-Event-ID
+        emitter.onTimeout(emitter::complete);
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new OperationInProgressException("Too many change stream subscribers, please retry later", 30);
+            }
+            subscribers.add(subscriber);
+        }
+        log.debug("📡 Change stream opened ({} subscribers)", subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(initialDelayString = "${users.changes.stream.poll-interval-ms:500}",
+            fixedDelayString = "${users.changes.stream.poll-interval-ms:500}")
+    public synchronized void poll() {
+        if (subscribers.isEmpty()) {
+            head = null;
+            return;
+        }
+
+        try {
+            if (head == null) {
+                head = userChangeRepository.findLatestSettled()
+                        .map(UserChangeCursor::of)
+                        .orElse(UserChangeCursor.START);
+            }
+            broadcast();
+            catchUp();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Change stream poll failed: {}", e.getMessage());
+        }
+        heartbeat();
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Reparte las entradas posteriores a head a los suscriptores al día
+     */
+    private void broadcast() {
+        List<UserChange> batch;
+        do {
+            batch = userChangeRepository.findSettledAfter(head.txid(), head.changeId(), batchSize);
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.live) {
+                    deliver(subscriber, batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                head = UserChangeCursor.of(batch.get(batch.size() - 1));
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Un bloque por suscriptor atrasado; pasa a al día al alcanzar head
+     */
+    private void catchUp() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.live) {
+                continue;
+            }
+            // Sin hueco para un bloque completo espera al siguiente sondeo
+            if (subscriber.queue.remainingCapacity() < batchSize) {
+                continue;
+            }
+            List<UserChange> batch = userChangeRepository.findSettledAfter(subscriber.cursor.txid(),
+                    subscriber.cursor.changeId(), batchSize);
+            deliver(subscriber, batch);
+            // Lo que quede entre head y su cursor lo filtra deliver() en los repartos siguientes
+            if (!subscriber.dropped && batch.size() < batchSize && subscriber.cursor.compareTo(head) >= 0) {
+                subscriber.live = true;
+            }
+        }
+    }
+
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (now - subscriber.lastSentAt >= heartbeatMillis && subscriber.queue.isEmpty()) {
+                enqueue(subscriber, SseEmitter.event().comment("keep-alive"));
+            }
+        }
+    }
+
+    private void deliver(Subscriber subscriber, List<UserChange> batch) {
+        for (UserChange change : batch) {
+            UserChangeCursor cursor = UserChangeCursor.of(change);
+            if (cursor.compareTo(subscriber.cursor) <= 0) {
+                continue;
+            }
+            boolean queued = enqueue(subscriber, SseEmitter.event()
+                    .id(cursor.encode())
+                    .name(EVENT_NAME)
+                    .data(UserChangeResponse.of(change), MediaType.APPLICATION_JSON));
+            if (!queued) {
+                return;
+            }
+            subscriber.cursor = cursor;
+        }
+    }
+
+    /**
+     * Deja el evento en la cola del suscriptor sin bloquear el sondeo.
+     * false si ya no se le envía nada: con la cola llena se le desconecta
+     */
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.dropped) {
+            return false;
+        }
+        if (!subscriber.queue.offer(event)) {
+            log.warn("⚠️ Change stream subscriber too slow ({} events pending), disconnecting", queueCapacity);
+            drop(subscriber);
+            return false;
+        }
+        schedule(subscriber);
+        return true;
+    }
+
+    /**
+     * Lo saca del reparto ya; el cierre del emitter lo hace el pool de envío,
+     * que es quien puede quedarse bloqueado escribiendo en ese socket
+     */
+    private void drop(Subscriber subscriber) {
+        subscriber.dropped = true;
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+        schedule(subscriber);
+    }
+
+    /**
+     * Como mucho una tarea de envío por suscriptor, así sus eventos salen en orden
+     */
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // Apagando: close() completa los emitters
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.dropped && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+                subscriber.lastSentAt = System.currentTimeMillis();
+            }
+            if (subscriber.dropped && subscriber.closed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("📡 Change stream closed by client: {}", e.getMessage());
+            subscriber.dropped = true;
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            if (subscriber.closed.compareAndSet(false, true)) {
+                subscriber.emitter.completeWithError(e);
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Un evento (o una desconexión) llegado justo antes de soltar draining
+        // no puede quedarse sin atender
+        if (subscriber.dropped ? !subscriber.closed.get() : !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Última entrada encolada para este suscriptor (solo la usa poll())
+        private UserChangeCursor cursor;
+        private boolean live;
+        private volatile boolean dropped;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter, UserChangeCursor cursor, int queueCapacity) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
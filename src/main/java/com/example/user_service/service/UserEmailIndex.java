@@ -0,0 +1,209 @@
+package com.example.user_service.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria de los emails registrados (filtro de Bloom)
+ * Permite descartar sin tocar la BD los logins y autenticaciones de emails que
+ * no existen (la mayor parte del tráfico de ataque) y saltarse el existsByEmail
+ * del registro cuando el email es nuevo. Un "puede existir" se confirma en BD
+ * como antes.
+ *
+ * Se construye al arrancar con un scan en streaming de users.email, recibe las
+ * altas y cambios de email locales al confirmar la transacción y se sincroniza
+ * cada segundo con las filas nuevas o modificadas por otras instancias
+ * (user_id mayor que el último visto o updated_at reciente). Como un filtro de
+ * Bloom no admite borrados, se reconstruye periódicamente para descartar
+ * emails antiguos y redimensionarlo
+ */
+@Component
+@Slf4j
+public class UserEmailIndex {
+
+    private static final String COUNT_QUERY = "SELECT count(*) FROM users";
+    private static final String SCAN_QUERY = "SELECT user_id, email FROM users";
+    private static final String SYNC_QUERY = "SELECT user_id, email FROM users WHERE user_id > ? OR updated_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+    private final long syncOverlapMillis;
+    private final Object writeLock = new Object();
+
+    // null hasta que termina la primera carga; mientras tanto todo email "puede existir"
+    private volatile EmailBloomFilter filter;
+    // Emails añadidos mientras hay una reconstrucción en curso (protegido por writeLock)
+    private List<String> addedDuringRebuild;
+    // Estado de la sincronización incremental (solo lo tocan rebuild y sync, ambos synchronized)
+    private int lastSeenUserId;
+    private LocalDateTime lastSyncAt;
+
+    public UserEmailIndex(DataSource dataSource, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${users.email-index.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${users.email-index.sync-overlap-ms:60000}") long syncOverlapMillis,
+            @Value("${users.email-index.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // En PostgreSQL el fetch size solo usa cursor (streaming) fuera de autocommit
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapMillis = syncOverlapMillis;
+
+        Gauge.builder("users.email.index.bytes", this, index -> {
+            EmailBloomFilter current = index.filter;
+            return current != null ? current.sizeInBytes() : 0;
+        })
+                .description("Memoria ocupada por el filtro de emails registrados")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    /**
+     * false solo si el email seguro que no está registrado; true si puede estarlo
+     * (o si el índice aún no está cargado) y hay que confirmarlo en BD
+     */
+    public boolean mightExist(String email) {
+        EmailBloomFilter current = filter;
+        return email == null || current == null || current.mightContain(email);
+    }
+
+    public void add(String email) {
+        synchronized (writeLock) {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(email);
+            }
+            EmailBloomFilter current = filter;
+            if (current != null) {
+                current.add(email);
+            }
+        }
+    }
+
+    /**
+     * Añade el email cuando la transacción en curso confirma (o ya, si no hay transacción)
+     */
+    public void addAfterCommit(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(email);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${users.email-index.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${users.email-index.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * Añade las filas creadas o modificadas desde la última sincronización
+     * El solape (sync-overlap-ms) cubre transacciones que confirmaron tarde y
+     * diferencias de reloj entre instancias; volver a añadir un email no cambia nada
+     */
+    @Scheduled(initialDelayString = "${users.email-index.sync-interval-ms:1000}",
+            fixedDelayString = "${users.email-index.sync-interval-ms:1000}")
+    public synchronized void sync() {
+        EmailBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        int[] maxUserId = { lastSeenUserId };
+        int[] synced = { 0 };
+        try {
+            jdbcTemplate.query(SYNC_QUERY, rs -> {
+                add(rs.getString(2));
+                maxUserId[0] = Math.max(maxUserId[0], rs.getInt(1));
+                synced[0]++;
+            }, lastSeenUserId, Timestamp.valueOf(lastSyncAt.minusNanos(syncOverlapMillis * 1_000_000)));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Email index sync failed: {}", e.getMessage());
+            return;
+        }
+        lastSeenUserId = maxUserId[0];
+        lastSyncAt = startedAt;
+        log.trace("Email index synced {} rows", synced[0]);
+    }
+
+    /**
+     * Reconstruye el filtro con un scan completo, dimensionado para el doble de
+     * los usuarios actuales, y lo publica de una vez. Las altas confirmadas
+     * durante el scan se aplican encima antes de publicar
+     */
+    private synchronized void rebuild() {
+        synchronized (writeLock) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+
+        long startNanos = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        EmailBloomFilter[] rebuilt = new EmailBloomFilter[1];
+        int[] maxUserId = { 0 };
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                Long users = jdbcTemplate.queryForObject(COUNT_QUERY, Long.class);
+                rebuilt[0] = EmailBloomFilter.forCapacity(Math.max(2 * (users != null ? users : 0), 1024),
+                        falsePositiveRate);
+                jdbcTemplate.query(SCAN_QUERY, rs -> {
+                    rebuilt[0].add(rs.getString(2));
+                    maxUserId[0] = Math.max(maxUserId[0], rs.getInt(1));
+                });
+            });
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                addedDuringRebuild = null;
+            }
+            log.warn("⚠️ Email index rebuild failed, keeping previous filter: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (writeLock) {
+            addedDuringRebuild.forEach(rebuilt[0]::add);
+            addedDuringRebuild = null;
+            filter = rebuilt[0];
+        }
+        lastSeenUserId = maxUserId[0];
+        lastSyncAt = startedAt;
+
+        log.info("📧 Email index rebuilt: capacity {} emails, {} KB in {} ms", rebuilt[0].capacity(),
+                rebuilt[0].sizeInBytes() / 1024, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.user_service.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria de los IDs de usuario existentes
+ * Los IDs son valores identity densos, así que basta un bitmap de palabras de
+ * 64 bits (~125 KB por millón de usuarios). Se construye al arrancar con un
+ * único scan en streaming de users.user_id, se actualiza tras cada alta
+ * confirmada y se reconstruye periódicamente para recoger altas de otras
+ * instancias y bajas hechas fuera del servicio.
+ * Las lecturas no toman locks: leen la referencia volátil al arreglo de palabras
+ */
+@Component
+@Slf4j
+public class UserExistenceIndex {
+
+    private static final String SCAN_QUERY = "SELECT user_id FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Object writeLock = new Object();
+
+    // null hasta que termina la primera carga; mientras tanto contains() devuelve false
+    private volatile AtomicLongArray words;
+    // IDs añadidos mientras hay una reconstrucción en curso (protegido por writeLock)
+    private List<Integer> addedDuringRebuild;
+
+    public UserExistenceIndex(DataSource dataSource, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${users.existence-index.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // En PostgreSQL el fetch size solo usa cursor (streaming) fuera de autocommit
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("users.existence.index.size", this, UserExistenceIndex::size)
+                .description("IDs de usuario presentes en el índice de existencia")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return words != null;
+    }
+
+    /**
+     * true si el ID está en el índice; un false puede ser un alta aún no vista
+     * (de otra instancia o anterior a la primera carga)
+     */
+    public boolean contains(int userId) {
+        AtomicLongArray current = words;
+        if (current == null || userId < 0) {
+            return false;
+        }
+        int word = userId >>> 6;
+        return word < current.length() && (current.get(word) & (1L << userId)) != 0;
+    }
+
+    public void add(int userId) {
+        if (userId < 0) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(userId);
+            }
+            AtomicLongArray current = words;
+            if (current == null) {
+                return;
+            }
+            int word = userId >>> 6;
+            if (word >= current.length()) {
+                current = grow(current, word);
+                words = current;
+            }
+            current.getAndAccumulate(word, 1L << userId, (bits, bit) -> bits | bit);
+        }
+    }
+
+    /**
+     * Añade el ID cuando la transacción en curso confirma (o ya, si no hay transacción),
+     * para no anunciar usuarios que un rollback acabe descartando
+     */
+    public void addAfterCommit(int userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(userId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${users.existence-index.reconcile-interval-ms:600000}",
+            fixedDelayString = "${users.existence-index.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el bitmap con un scan completo y lo publica de una vez
+     * Las altas confirmadas durante el scan se aplican encima antes de publicar
+     */
+    private synchronized void rebuild() {
+        synchronized (writeLock) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+
+        long startNanos = System.nanoTime();
+        long[][] scanned = { new long[1024] };
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SCAN_QUERY, rs -> {
+                int userId = rs.getInt(1);
+                int word = userId >>> 6;
+                if (word >= scanned[0].length) {
+                    scanned[0] = Arrays.copyOf(scanned[0], Math.max(word + 1, scanned[0].length * 2));
+                }
+                scanned[0][word] |= 1L << userId;
+            }));
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                addedDuringRebuild = null;
+            }
+            log.warn("⚠️ User existence index rebuild failed, keeping previous snapshot: {}", e.getMessage());
+            return;
+        }
+
+        int previousSize = size();
+        AtomicLongArray rebuilt = new AtomicLongArray(scanned[0]);
+        synchronized (writeLock) {
+            for (int userId : addedDuringRebuild) {
+                int word = userId >>> 6;
+                if (word >= rebuilt.length()) {
+                    rebuilt = grow(rebuilt, word);
+                }
+                rebuilt.getAndAccumulate(word, 1L << userId, (bits, bit) -> bits | bit);
+            }
+            addedDuringRebuild = null;
+            words = rebuilt;
+        }
+
+        log.info("🔍 User existence index rebuilt: {} users (previously {}) in {} ms", size(), previousSize,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private int size() {
+        AtomicLongArray current = words;
+        if (current == null) {
+            return 0;
+        }
+        int size = 0;
+        for (int i = 0; i < current.length(); i++) {
+            size += Long.bitCount(current.get(i));
+        }
+        return size;
+    }
+
+    private static AtomicLongArray grow(AtomicLongArray current, int word) {
+        AtomicLongArray grown = new AtomicLongArray(Math.max(word + 1, current.length() * 2));
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        return grown;
+    }
+}
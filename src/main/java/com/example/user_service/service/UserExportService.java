@@ -0,0 +1,29 @@
+package com.example.user_service.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Exportación en streaming del directorio de usuarios (precarga de cachés,
+ * reconstrucción de índices de búsqueda)
+ */
+public interface UserExportService {
+
+    enum Format {
+        /** Un UserResponse JSON por línea */
+        NDJSON,
+        /** Un único array JSON compacto */
+        JSON
+    }
+
+    /**
+     * Escribe los usuarios (ordenados por ID) a medida que se leen de la BD, con
+     * memoria constante. {@code updatedSince} limita a los modificados desde esa
+     * fecha (null: todos). Solo una a la vez: si hay otra en curso lanza
+     * {@link OperationInProgressException}
+     *
+     * @return número de usuarios escritos
+     */
+    long exportUsers(LocalDateTime updatedSince, Format format, OutputStream output) throws IOException;
+}
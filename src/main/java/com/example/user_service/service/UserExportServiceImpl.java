@@ -0,0 +1,178 @@
+package com.example.user_service.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.dto.UserLookupRow;
+import com.example.user_service.mapper.UserMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Una fila por usuario: los roles se agregan en un ARRAY y el primer perfil
+ * (con su ubicación) sale de un LATERAL, así el recorrido por la PK de users
+ * se envía tal cual sin ordenar ni agrupar el resultado completo. Las filas se
+ * leen con cursor de servidor (fetch size dentro de una transacción de solo
+ * lectura) y cada una se serializa directamente al stream de salida.
+ *
+ * La transacción y su conexión del pool siguen abiertas mientras el cliente
+ * descarga (con un cliente lento, minutos, y TransactionMonitor la reporta
+ * como transacción larga), así que solo se admite una exportación a la vez
+ */
+@Service
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT u.user_id, u.email, u.password, u.user_type, u.enabled, u.account_non_expired,
+                   u.account_non_locked, u.credentials_non_expired, u.created_at, u.updated_at,
+                   ARRAY(SELECT r.role FROM user_roles r WHERE r.user_id = u.user_id) AS roles,
+                   p.profile_id, p.name AS profile_name, p.profile_location_id, p.municipality, p.state, p.country
+            FROM users u
+            LEFT JOIN LATERAL (
+                SELECT pr.profile_id, pr.name, l.profile_location_id, l.municipality, l.state, l.country
+                FROM profiles pr
+                LEFT JOIN profile_locations l ON l.profile_id = pr.profile_id
+                WHERE pr.user_id = u.user_id
+                ORDER BY pr.profile_id
+                LIMIT 1
+            ) p ON true
+            %s
+            ORDER BY u.user_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final UserMapper userMapper;
+    // Sin flush tras cada usuario: se vacía el buffer cada flushEvery filas
+    private final ObjectWriter writer;
+    private final int flushEvery;
+    private final Semaphore exportPermit = new Semaphore(1);
+
+    public UserExportServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+            UserMapper userMapper, ObjectMapper objectMapper,
+            @Value("${users.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // En PostgreSQL el fetch size solo usa cursor (streaming) fuera de autocommit
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.userMapper = userMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushEvery = fetchSize;
+    }
+
+    @Override
+    public long exportUsers(LocalDateTime updatedSince, Format format, OutputStream output) throws IOException {
+        if (!exportPermit.tryAcquire()) {
+            throw new OperationInProgressException("A user export is already running, please retry later", 60);
+        }
+        try {
+            return runExport(updatedSince, format, output);
+        } finally {
+            exportPermit.release();
+        }
+    }
+
+    private long runExport(LocalDateTime updatedSince, Format format, OutputStream output) throws IOException {
+        log.info("📤 Starting user export ({}, updatedSince: {})", format, updatedSince);
+
+        long startNanos = System.nanoTime();
+        long[] exported = { 0 };
+        JsonGenerator generator = writer.createGenerator(output);
+        if (format == Format.JSON) {
+            generator.writeStartArray();
+        }
+
+        String sql = EXPORT_SQL.formatted(updatedSince != null ? "WHERE u.updated_at >= ?" : "");
+        Object[] args = updatedSince != null ? new Object[] { Timestamp.valueOf(updatedSince) } : new Object[0];
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, rs -> {
+                try {
+                    writer.writeValue(generator, userMapper.toResponse(toRow(rs), roles(rs), null));
+                    if (format == Format.NDJSON) {
+                        generator.writeRaw('\n');
+                    }
+                    if (++exported[0] % flushEvery == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    // Cliente desconectado: se corta la lectura y se cierra el cursor
+                    throw new UncheckedIOException(e);
+                }
+            }, args));
+        } catch (UncheckedIOException e) {
+            log.warn("⚠️ User export aborted after {} users: {}", exported[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        if (format == Format.JSON) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        log.info("✅ User export finished: {} users in {} ms ({} users/s)", exported[0],
+                Math.round(seconds * 1000), seconds > 0 ? Math.round(exported[0] / seconds) : exported[0]);
+        return exported[0];
+    }
+
+    private static UserLookupRow toRow(ResultSet rs) throws SQLException {
+        return new UserLookupRow(
+                rs.getInt("user_id"),
+                rs.getString("email"),
+                rs.getString("password"),
+                rs.getString("user_type"),
+                rs.getBoolean("enabled"),
+                rs.getBoolean("account_non_expired"),
+                rs.getBoolean("account_non_locked"),
+                rs.getBoolean("credentials_non_expired"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                null,
+                (Integer) rs.getObject("profile_id"),
+                rs.getString("profile_name"),
+                (Integer) rs.getObject("profile_location_id"),
+                rs.getString("municipality"),
+                rs.getString("state"),
+                rs.getString("country"));
+    }
+
+    private static Set<String> roles(ResultSet rs) throws SQLException {
+        Array roles = rs.getArray("roles");
+        if (roles == null) {
+            return new LinkedHashSet<>();
+        }
+        try {
+            return new LinkedHashSet<>(Arrays.asList((String[]) roles.getArray()));
+        } finally {
+            roles.free();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
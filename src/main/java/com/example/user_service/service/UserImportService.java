@@ -0,0 +1,25 @@
+package com.example.user_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.example.user_service.dto.UserImportResponse;
+
+/**
+ * Importación masiva de usuarios para onboarding de partners
+ */
+public interface UserImportService {
+
+    enum Format {
+        /** Cabecera obligatoria: email,password,name,location */
+        CSV,
+        /** Un objeto JSON por línea con los campos de UserRequest */
+        NDJSON
+    }
+
+    /**
+     * Lee el stream fila a fila y crea usuario, rol, perfil y ubicación por cada
+     * fila válida. Las filas inválidas o duplicadas se reportan sin detener la importación
+     */
+    UserImportResponse importUsers(InputStream input, Format format) throws IOException;
+}
@@ -0,0 +1,416 @@
+package com.example.user_service.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.dto.UserImportError;
+import com.example.user_service.dto.UserImportResponse;
+import com.example.user_service.dto.UserRequest;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.model.ProfileLocation;
+import com.example.user_service.model.UserChangeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación masiva de usuarios
+ * Procesa el stream en lotes: valida cada fila, descarta emails repetidos o ya
+ * registrados, hashea las contraseñas en paralelo y escribe usuarios, roles,
+ * perfiles y ubicaciones con inserts JDBC por lotes. Los IDs se reservan por
+ * bloques de las secuencias de las columnas identity (un solo round trip por
+ * tabla y lote), así no hace falta leer las claves generadas fila a fila.
+ * Solo se admite una importación a la vez y el hashing usa un pool propio de
+ * un cuarto de los núcleos, que junto al pool del login (la mitad) deja CPU
+ * libre para Tomcat
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService, DisposableBean {
+
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final List<String> CSV_COLUMNS = List.of("email", "password", "name", "location");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserMapper userMapper;
+    private final UserExistenceIndex userExistenceIndex;
+    private final UserEmailIndex userEmailIndex;
+    // Mismo formato que el encoder de SecurityConfig, pero fuera de su pool acotado
+    // para que una importación no deje sin capacidad al login
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final ExecutorService hashingPool;
+    private final Semaphore importPermit = new Semaphore(1);
+
+    public UserImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            ObjectMapper objectMapper,
+            UserMapper userMapper,
+            UserExistenceIndex userExistenceIndex,
+            UserEmailIndex userEmailIndex,
+            @Value("${users.import.batch-size:1000}") int batchSize,
+            @Value("${users.import.hashing-threads:0}") int hashingThreads,
+            @Value("${users.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.userMapper = userMapper;
+        this.userExistenceIndex = userExistenceIndex;
+        this.userEmailIndex = userEmailIndex;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        int threads = hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+
+    private record PendingRow(long line, UserRequest request) {
+    }
+
+    private record HashedRow(long line, UserRequest request, String passwordHash) {
+    }
+
+    @Override
+    public UserImportResponse importUsers(InputStream input, Format format) throws IOException {
+        if (!importPermit.tryAcquire()) {
+            throw new OperationInProgressException("A bulk import is already running, please retry later", 60);
+        }
+        try {
+            return runImport(input, format);
+        } finally {
+            importPermit.release();
+        }
+    }
+
+    private UserImportResponse runImport(InputStream input, Format format) throws IOException {
+        log.info("📥 Starting bulk user import ({})", format);
+
+        long startNanos = System.nanoTime();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Map<String, Integer> csvColumns = null;
+            if (format == Format.CSV) {
+                csvColumns = parseCsvHeader(reader.readLine());
+                lineNumber++;
+            }
+
+            List<PendingRow> chunk = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                UserRequest request = format == Format.CSV
+                        ? parseCsvRow(line, csvColumns)
+                        : parseJsonRow(line, lineNumber, report);
+                if (request == null || !isValid(request, lineNumber, report)) {
+                    continue;
+                }
+                if (!seenEmails.add(request.getEmail())) {
+                    report.reject(lineNumber, request.getEmail(), "Duplicate email in file");
+                    continue;
+                }
+
+                chunk.add(new PendingRow(lineNumber, request));
+                if (chunk.size() == batchSize) {
+                    flush(chunk, report, startNanos);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(chunk, report, startNanos);
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        UserImportResponse response = report.toResponse(elapsedMillis);
+        log.info("✅ Bulk import finished: {} imported, {} failed in {} ms ({} rows/s)",
+                response.getImported(), response.getFailed(), elapsedMillis,
+                String.format(Locale.ROOT, "%.1f", response.getRowsPerSecond()));
+        return response;
+    }
+
+    // ===== LOTES =====
+
+    private void flush(List<PendingRow> chunk, ImportReport report, long startNanos) {
+        Set<String> registered = findRegisteredEmails(chunk);
+        List<PendingRow> fresh = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (registered.contains(row.request().getEmail())) {
+                report.reject(row.line(), row.request().getEmail(), "Email is already registered");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // BCrypt domina el coste: se reparte entre los hilos del pool de importación
+        List<CompletableFuture<HashedRow>> hashing = fresh.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> new HashedRow(row.line(), row.request(),
+                        passwordEncoder.encode(row.request().getPassword())), hashingPool))
+                .toList();
+        List<HashedRow> hashed = hashing.stream().map(CompletableFuture::join).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(hashed));
+            report.imported(hashed.size());
+        } catch (DataAccessException e) {
+            // Algún conflicto (p. ej. un registro concurrente): reintentar fila a fila
+            log.warn("⚠️ Batch insert failed, retrying {} rows individually: {}", hashed.size(),
+                    e.getMostSpecificCause().getMessage());
+            for (HashedRow row : hashed) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    report.imported(1);
+                } catch (DataAccessException rowError) {
+                    report.reject(row.line(), row.request().getEmail(),
+                            rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+
+        log.info("📥 Import progress: {} imported, {} failed ({} rows/s)", report.imported, report.failed,
+                String.format(Locale.ROOT, "%.1f", report.rowsPerSecond((System.nanoTime() - startNanos) / 1_000_000)));
+    }
+
+    private Set<String> findRegisteredEmails(List<PendingRow> chunk) {
+        List<String> emails = chunk.stream().map(row -> row.request().getEmail()).toList();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)", Map.of("emails", emails), String.class));
+    }
+
+    private void insert(List<HashedRow> rows) {
+        List<Long> userIds = nextIds("users", "user_id", rows.size());
+        List<Long> profileIds = nextIds("profiles", "profile_id", rows.size());
+        List<Long> locationIds = nextIds("profile_locations", "profile_location_id", rows.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> roles = new ArrayList<>(rows.size());
+        List<Object[]> profiles = new ArrayList<>(rows.size());
+        List<Object[]> locations = new ArrayList<>(rows.size());
+        List<Object[]> changes = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserRequest request = rows.get(i).request();
+            ProfileLocation location = userMapper.toProfileLocation(request.getLocation(), null);
+
+            users.add(new Object[] { userIds.get(i), request.getEmail(), rows.get(i).passwordHash(), now, now });
+            roles.add(new Object[] { userIds.get(i), DEFAULT_ROLE });
+            profiles.add(new Object[] { profileIds.get(i), request.getName(), userIds.get(i) });
+            locations.add(new Object[] { locationIds.get(i), location.getMunicipality(), location.getState(),
+                    location.getCountry(), profileIds.get(i) });
+            changes.add(new Object[] { userIds.get(i), UserChangeType.USER_REGISTERED.name() });
+        }
+
+        // Con reWriteBatchedInserts el driver los envía como INSERT multi-fila
+        jdbcTemplate.getJdbcTemplate().batchUpdate("""
+                INSERT INTO users (user_id, email, password, user_type, enabled, account_non_expired,
+                                   account_non_locked, credentials_non_expired, created_at, updated_at)
+                VALUES (?, ?, ?, 'USER', true, true, true, true, ?, ?)
+                """, users);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "INSERT INTO user_roles (user_id, role) VALUES (?, ?)", roles);
+        jdbcTemplate.getJdbcTemplate().batchUpdate("""
+                INSERT INTO profiles (profile_id, name, user_id, favorite_artists_count, favorite_genres_count)
+                VALUES (?, ?, ?, 0, 0)
+                """, profiles);
+        jdbcTemplate.getJdbcTemplate().batchUpdate("""
+                INSERT INTO profile_locations (profile_location_id, municipality, state, country, profile_id)
+                VALUES (?, ?, ?, ?, ?)
+                """, locations);
+        // Registro de cambios en la misma transacción que las altas (feed de cambios)
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "INSERT INTO user_changes (user_id, change_type) VALUES (?, ?)", changes);
+        userIds.forEach(userId -> userExistenceIndex.addAfterCommit(userId.intValue()));
+        rows.forEach(row -> userEmailIndex.addAfterCommit(row.request().getEmail()));
+    }
+
+    /**
+     * Reserva {@code count} valores de la secuencia de una columna identity
+     */
+    private List<Long> nextIds(String table, String column, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(:table, :column)) FROM generate_series(1, :count)",
+                Map.of("table", table, "column", column, "count", count), Long.class);
+    }
+
+    // ===== PARSEO Y VALIDACIÓN =====
+
+    private boolean isValid(UserRequest request, long lineNumber, ImportReport report) {
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        report.reject(lineNumber, request.getEmail(), violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        return false;
+    }
+
+    private UserRequest parseJsonRow(String line, long lineNumber, ImportReport report) {
+        try {
+            return objectMapper.readValue(line, UserRequest.class);
+        } catch (JsonProcessingException e) {
+            report.reject(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private Map<String, Integer> parseCsvHeader(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import is empty, expected header: " + String.join(",", CSV_COLUMNS));
+        }
+        List<String> names = parseCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must contain: " + String.join(",", CSV_COLUMNS));
+        }
+        return columns;
+    }
+
+    private UserRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = parseCsvLine(line);
+        return UserRequest.builder()
+                .email(field(fields, columns.get("email")))
+                .password(field(fields, columns.get("password")))
+                .name(field(fields, columns.get("name")))
+                .location(field(fields, columns.get("location")))
+                .build();
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : null;
+    }
+
+    /**
+     * Separa una línea CSV (RFC 4180: comillas dobles y "" como escape)
+     * La ubicación "Ciudad, Estado, País" debe ir entre comillas
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    // ===== REPORTE =====
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<UserImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void reject(long line, String email, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(UserImportError.builder().line(line).email(email).message(message).build());
+            }
+        }
+
+        double rowsPerSecond(long elapsedMillis) {
+            return elapsedMillis > 0 ? (imported + failed) * 1000.0 / elapsedMillis : 0.0;
+        }
+
+        UserImportResponse toResponse(long elapsedMillis) {
+            return UserImportResponse.builder()
+                    .imported(imported)
+                    .failed(failed)
+                    .elapsedMillis(elapsedMillis)
+                    .rowsPerSecond(rowsPerSecond(elapsedMillis))
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
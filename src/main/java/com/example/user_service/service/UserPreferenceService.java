@@ -8,7 +8,9 @@ import org.springframework.data.domain.Pageable;
 import com.example.user_service.dto.AddFavoriteGenreRequest;
 import com.example.user_service.dto.ArtistResponse;
 import com.example.user_service.dto.DeleteFavoriteGenreRequest;
+import com.example.user_service.dto.FavoritesSliceResponse;
 import com.example.user_service.dto.MusicGenreResponse;
+import com.example.user_service.dto.ReplaceFavoritesResponse;
 import com.example.user_service.dto.SuccessResponse;
 import com.example.user_service.dto.UserPreferenceBasicResponse;
 import com.example.user_service.dto.UserPreferenceRequest;
@@ -31,6 +33,12 @@ public interface UserPreferenceService {
      */
     UserPreferenceResponse getPreferences(Integer userId, boolean includeFullLists);
 
+    /**
+     * Current ETag of the preferences (same permission checks as getPreferences),
+     * resolved with the context query only, to answer If-None-Match with 304
+     */
+    String getPreferencesETag(Integer userId, boolean includeFullLists);
+
     // ===== FAVORITE ARTISTS =====
 
     /**
@@ -53,6 +61,22 @@ public interface UserPreferenceService {
      */
     Page<ArtistResponse> getFavoriteArtists(Integer userId, Pageable pageable);
 
+    /**
+     * Get favorite artists after a cursor (keyset pagination, no total count)
+     * Obtener artistas favoritos a partir de un cursor; null para empezar
+     * 
+     * @return Slice of artists with the cursor for the next one
+     */
+    FavoritesSliceResponse<ArtistResponse> getFavoriteArtistsAfter(Integer userId, String after, int size);
+
+    /**
+     * Replace the whole favorite artist list with the given set
+     * Reemplaza la lista completa: agrega los nuevos y elimina los que ya no están
+     * 
+     * @return Artists added and removed
+     */
+    ReplaceFavoritesResponse<String> replaceFavoriteArtists(Integer userId, List<String> spotifyIds);
+
     // ===== FAVORITE GENRES =====
 
     /**
@@ -75,6 +99,22 @@ public interface UserPreferenceService {
      */
     Page<MusicGenreResponse> getFavoriteGenres(Integer userId, Pageable pageable);
 
+    /**
+     * Get favorite genres after a cursor (keyset pagination, no total count)
+     * Obtener géneros favoritos a partir de un cursor; null para empezar
+     * 
+     * @return Slice of genres with the cursor for the next one
+     */
+    FavoritesSliceResponse<MusicGenreResponse> getFavoriteGenresAfter(Integer userId, String after, int size);
+
+    /**
+     * Replace the whole favorite genre list with the given set
+     * Reemplaza la lista completa: agrega los nuevos y elimina los que ya no están
+     * 
+     * @return Genre IDs added and removed
+     */
+    ReplaceFavoritesResponse<Integer> replaceFavoriteGenres(Integer userId, List<Integer> genreIds);
+
     /**
      * Get all available music genres
      * Obtener todos los géneros musicales disponibles
@@ -1,37 +1,52 @@
 package com.example.user_service.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException; // Import added correctly
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.user_service.dto.AddFavoriteGenreRequest;
 import com.example.user_service.dto.ArtistResponse;
 import com.example.user_service.dto.DeleteFavoriteGenreRequest;
+import com.example.user_service.dto.FavoritesSliceResponse;
 import com.example.user_service.dto.MusicGenreResponse;
+import com.example.user_service.dto.ReplaceFavoritesResponse;
 import com.example.user_service.dto.SuccessResponse;
 import com.example.user_service.dto.UserPreferenceBasicResponse;
+import com.example.user_service.dto.UserPreferenceContext;
 import com.example.user_service.dto.UserPreferenceRequest;
 import com.example.user_service.dto.UserPreferenceResponse;
 import com.example.user_service.mapper.UserPreferenceMapper;
-import com.example.user_service.model.FavoriteArtist;
-import com.example.user_service.model.FavoriteGenre;
-import com.example.user_service.model.MusicGenre;
 import com.example.user_service.model.Profile;
-import com.example.user_service.model.User; // Import added
+import com.example.user_service.model.UserChangeType;
 import com.example.user_service.model.UserPreference;
+import com.example.user_service.repository.FavoriteArtistKey;
 import com.example.user_service.repository.FavoriteArtistRepository;
+import com.example.user_service.repository.FavoriteGenreKey;
 import com.example.user_service.repository.FavoriteGenreRepository;
-import com.example.user_service.repository.MusicGenreRepository;
+import com.example.user_service.repository.FavoriteInsertOutcome;
 import com.example.user_service.repository.ProfileRepository;
 import com.example.user_service.repository.UserPreferenceRepository;
 import com.example.user_service.repository.UserRepository;
@@ -49,15 +64,23 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
     private final ProfileRepository profileRepository;
     private final FavoriteArtistRepository favoriteArtistRepository;
     private final FavoriteGenreRepository favoriteGenreRepository;
-    private final MusicGenreRepository musicGenreRepository;
+    private final MusicGenreCatalog musicGenreCatalog;
     private final SpotifyService spotifyService;
     private final UserPreferenceMapper mapper;
     private final UserRepository userRepository;
+    private final UserChangeService userChangeService;
+    private final PlatformTransactionManager transactionManager;
 
     private static final int MAX_FAVORITE_ARTISTS = 40;
     private static final int MAX_FAVORITE_GENRES = 30;
     private static final BigDecimal DEFAULT_SEARCH_RADIUS = BigDecimal.valueOf(25.0);
 
+    private record FavoriteChanges<T>(List<T> added, List<T> removed) {
+    }
+
+    private record FavoriteIds(UserPreferenceContext context, List<String> spotifyIds, List<Integer> genreIds) {
+    }
+
     // ===== SEARCH PREFERENCES =====
 
     @Override
@@ -65,104 +88,122 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
     public UserPreferenceBasicResponse createOrUpdatePreferences(Integer userId, UserPreferenceRequest request) {
         log.info("Configuring preferences for user: {}", userId);
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
-
-        UserPreference preference = getOrCreateUserPreference(profile);
+        UserPreferenceContext context = resolveContext(userId);
 
+        UserPreference preference = preferenceOf(context);
         if (request.getSearchRadiusKm() != null) {
             preference.setSearchRadius(request.getSearchRadiusKm());
         }
-
         if (request.getEmailNotifications() != null) {
             preference.setEmailNotifications(request.getEmailNotifications());
         }
 
-        preference = userPreferenceRepository.save(preference);
+        if (context.hasPreference()) {
+            // UPDATE directo: los valores actuales ya vienen en el contexto
+            userPreferenceRepository.updateSettings(context.userPreferenceId(),
+                    request.getSearchRadiusKm(), request.getEmailNotifications());
+        } else {
+            // Referencia al perfil sin cargarlo: solo el INSERT
+            preference.setProfile(profileRepository.getReferenceById(context.profileId()));
+            preference = userPreferenceRepository.save(preference);
+            profileRepository.incrementPreferencesVersion(context.profileId());
+        }
+        userChangeService.record(userId, UserChangeType.PREFERENCES_UPDATED);
         log.info("✅ Preferences updated for user {}", userId);
 
         return mapper.toBasicResponse(preference);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserPreferenceResponse getPreferences(Integer userId, boolean includeFullLists) {
         log.info("Getting preferences for user: {} (includeLists: {})", userId, includeFullLists);
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
-
-        // Buscar preferencias existentes
-        UserPreference preference = userPreferenceRepository
-                .findByProfileProfileId(profile.getProfileId())
-                .orElse(null);
+        // Contexto e IDs de favoritos en una transacción corta; Spotify se consulta
+        // después, sin retener la conexión
+        FavoriteIds ids = inReadOnlyTransaction(status -> {
+            UserPreferenceContext resolved = resolveContext(userId);
+            return includeFullLists
+                    ? new FavoriteIds(resolved,
+                            favoriteArtistRepository.findSpotifyIdsByProfileId(resolved.profileId()),
+                            favoriteGenreRepository.findMusicGenreIdsByProfileId(resolved.profileId()))
+                    : new FavoriteIds(resolved, List.of(), List.of());
+        });
+        UserPreferenceContext context = ids.context();
 
         // ✅ Si no existen, usar valores por defecto SIN persistir
-        if (preference == null) {
+        if (!context.hasPreference()) {
             log.info("⚠️ No preferences found for profile: {}, returning defaults without persisting",
-                    profile.getProfileId());
-            preference = buildDefaultPreference(profile);
+                    context.profileId());
         }
 
-        if (includeFullLists) {
-            return buildPreferenceResponse(profile, preference);
-        } else {
-            return buildPreferenceSummary(profile, preference);
-        }
+        UserPreferenceResponse response = includeFullLists
+                ? buildPreferenceResponse(ids)
+                : buildPreferenceSummary(context);
+        response.setVersion(context.preferencesVersion());
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getPreferencesETag(Integer userId, boolean includeFullLists) {
+        UserPreferenceContext context = resolveContext(userId);
+        return ResourceETags.preferences(context.profileId(), context.preferencesVersion(), includeFullLists);
     }
 
     // ===== FAVORITE ARTISTS =====
 
     @Override
-    @Transactional
     public ArtistResponse addFavoriteArtist(Integer userId, String spotifyId) {
         log.info("➕ Adding favorite artist {} for user {}", spotifyId, userId);
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
-
-        long currentCount = favoriteArtistRepository.countByProfileProfileId(profile.getProfileId());
-        if (currentCount >= MAX_FAVORITE_ARTISTS) {
-            throw new IllegalStateException(
-                    String.format("You have reached the limit of %d favorite artists", MAX_FAVORITE_ARTISTS));
-        }
+        UserPreferenceContext context = resolveContext(userId);
 
-        // Verify artist exists in Spotify and get details
+        // Verify artist exists in Spotify and get details (sin transacción: no retiene conexión)
         ArtistResponse artistResponse = spotifyService.getArtistById(spotifyId);
         if (artistResponse == null) {
             throw new IllegalArgumentException("Artist not found in Spotify with ID: " + spotifyId);
         }
 
-        if (favoriteArtistRepository.existsByProfileProfileIdAndSpotifyId(
-                profile.getProfileId(), spotifyId)) {
-            throw new IllegalStateException("This artist is already in your favorites");
-        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Bloquea el perfil: las altas concurrentes del mismo usuario se serializan
+            Integer profileId = lockProfile(context);
 
-        FavoriteArtist favoriteArtist = FavoriteArtist.builder()
-                .profile(profile)
-                .spotifyId(spotifyId)
-                .build();
+            // Límite, duplicado e inserción en una sola sentencia
+            FavoriteInsertOutcome outcome = favoriteArtistRepository.addIfUnderLimit(
+                    profileId, spotifyId, MAX_FAVORITE_ARTISTS);
+            if (outcome == FavoriteInsertOutcome.LIMIT_REACHED) {
+                throw new IllegalStateException(
+                        String.format("You have reached the limit of %d favorite artists", MAX_FAVORITE_ARTISTS));
+            }
+            if (outcome == FavoriteInsertOutcome.DUPLICATE) {
+                throw new IllegalStateException("This artist is already in your favorites");
+            }
+            userChangeService.record(userId, UserChangeType.FAVORITE_ARTISTS_CHANGED);
+        });
 
-        favoriteArtistRepository.save(favoriteArtist);
-        log.info("✅ Artist added to favorites. Total: {}", currentCount + 1);
+        log.info("✅ Artist {} added to favorites", spotifyId);
 
         return artistResponse;
     }
 
     @Override
-    @Transactional
     public SuccessResponse removeFavoriteArtist(Integer userId, String spotifyId) {
         log.info("➖ Removing favorite artist {} from user {}", spotifyId, userId);
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
+        UserPreferenceContext context = resolveContext(userId);
 
-        FavoriteArtist favoriteArtist = favoriteArtistRepository
-                .findByProfileProfileIdAndSpotifyId(profile.getProfileId(), spotifyId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("Favorite artist not found with spotifyId: '%s'", spotifyId)));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Elimina y decrementa el contador del perfil en una sola sentencia
+            long removed = favoriteArtistRepository.deleteAndDecrement(context.profileId(), spotifyId);
+            if (removed == 0) {
+                throw new EntityNotFoundException(
+                        String.format("Favorite artist not found with spotifyId: '%s'", spotifyId));
+            }
+            userChangeService.record(userId, UserChangeType.FAVORITE_ARTISTS_CHANGED);
+        });
 
         // Try to get artist name for response, but don't fail if not possible
+        // (ya confirmado: la llamada a Spotify no retiene conexión)
         String artistName = "Unknown Artist";
         try {
             ArtistResponse ar = spotifyService.getArtistById(spotifyId);
@@ -172,38 +213,97 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
             log.warn("Could not fetch artist name for removal message: {}", e.getMessage());
         }
 
-        favoriteArtistRepository.deleteByProfileProfileIdAndSpotifyId(
-                profile.getProfileId(), spotifyId);
-
         log.info("✅ Artist removed from favorites");
 
         return SuccessResponse.of("Artist removed successfully", artistName);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Page<ArtistResponse> getFavoriteArtists(Integer userId, Pageable pageable) {
         log.info("Getting favorite artists for user: {} (page: {}, size: {})",
                 userId, pageable.getPageNumber(), pageable.getPageSize());
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
-
-        Page<FavoriteArtist> favoritesPage = favoriteArtistRepository
-                .findByProfileProfileId(profile.getProfileId(), pageable);
-
-        // Enrich with Spotify data
-        return favoritesPage.map(fa -> {
-            try {
-                return spotifyService.getArtistById(fa.getSpotifyId());
-            } catch (Exception e) {
-                // Fallback if Spotify fails
-                return ArtistResponse.builder()
-                        .spotifyId(fa.getSpotifyId())
-                        .name("Unknown Artist")
-                        .build();
+        // Total desde el contador desnormalizado: sin COUNT(*)
+        FavoriteIds ids = inReadOnlyTransaction(status -> {
+            UserPreferenceContext context = resolveContext(userId);
+            return new FavoriteIds(context,
+                    favoriteArtistRepository.findSpotifyIdsByProfileId(context.profileId(), pageable), List.of());
+        });
+
+        // Enrich with Spotify data (ya sin transacción)
+        return new PageImpl<>(toArtistResponses(ids.spotifyIds(), "Unknown Artist"), pageable,
+                ids.context().artistsCount());
+    }
+
+    @Override
+    public FavoritesSliceResponse<ArtistResponse> getFavoriteArtistsAfter(Integer userId, String after, int size) {
+        log.info("Getting favorite artists for user: {} (after: {}, size: {})", userId, after, size);
+
+        int afterId = FavoriteCursor.decode(FavoriteCursor.ARTISTS, after);
+
+        // Claves en una transacción corta; el enriquecimiento con Spotify va después
+        Slice<FavoriteArtistKey> keys = inReadOnlyTransaction(status -> favoriteArtistRepository
+                .findKeysByProfileIdAfter(resolveContext(userId).profileId(), afterId, PageRequest.of(0, size)));
+        List<ArtistResponse> artists = toArtistResponses(
+                keys.map(FavoriteArtistKey::getSpotifyId).getContent(), "Unknown Artist");
+
+        String nextCursor = keys.hasNext()
+                ? FavoriteCursor.encode(FavoriteCursor.ARTISTS,
+                        keys.getContent().get(keys.getNumberOfElements() - 1).getFavoriteArtistId())
+                : null;
+        return FavoritesSliceResponse.of(new SliceImpl<>(artists, keys.getPageable(), keys.hasNext()), nextCursor);
+    }
+
+    @Override
+    public ReplaceFavoritesResponse<String> replaceFavoriteArtists(Integer userId, List<String> spotifyIds) {
+        log.info("🔁 Replacing favorite artists for user {} ({} requested)", userId, spotifyIds.size());
+
+        UserPreferenceContext context = resolveContext(userId);
+        Set<String> desired = desiredSet(spotifyIds, MAX_FAVORITE_ARTISTS, "favorite artists");
+
+        // Valida solo los IDs nuevos, con una llamada por bloque y antes de abrir la
+        // transacción: los round trips a Spotify no retienen una conexión del pool
+        List<String> candidates = difference(desired,
+                favoriteArtistRepository.findSpotifyIdsByProfileId(context.profileId()));
+        if (!candidates.isEmpty()) {
+            Set<String> found = spotifyService.getArtistsByIds(candidates).stream()
+                    .map(ArtistResponse::getSpotifyId)
+                    .collect(Collectors.toSet());
+            List<String> missing = candidates.stream().filter(id -> !found.contains(id)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Artists not found in Spotify with IDs: " + missing);
             }
+        }
+
+        // Con el perfil bloqueado se recalcula la diferencia sobre el estado actual
+        // (un ID añadido entre tanto por otra petición ya estaba validado por ella)
+        FavoriteChanges<String> changes = new TransactionTemplate(transactionManager).execute(status -> {
+            Integer profileId = lockProfile(context);
+            List<String> current = favoriteArtistRepository.findSpotifyIdsByProfileId(profileId);
+            List<String> toAdd = difference(desired, current);
+            List<String> toRemove = difference(current, desired);
+
+            if (!toRemove.isEmpty()) {
+                favoriteArtistRepository.deleteAllAndDecrement(profileId, toRemove);
+            }
+            if (!toAdd.isEmpty()) {
+                favoriteArtistRepository.insertAllAndIncrement(profileId, toAdd);
+            }
+            if (!toAdd.isEmpty() || !toRemove.isEmpty()) {
+                userChangeService.record(userId, UserChangeType.FAVORITE_ARTISTS_CHANGED);
+            }
+            return new FavoriteChanges<>(toAdd, toRemove);
         });
+        List<String> added = changes.added();
+        List<String> removed = changes.removed();
+
+        log.info("✅ Favorite artists replaced for user {}: +{} -{}", userId, added.size(), removed.size());
+
+        return ReplaceFavoritesResponse.<String>builder()
+                .added(added)
+                .removed(removed)
+                .total(desired.size())
+                .build();
     }
 
     // ===== FAVORITE GENRES =====
@@ -213,35 +313,32 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
     public MusicGenreResponse addFavoriteGenre(Integer userId, AddFavoriteGenreRequest request) {
         log.info("➕ Adding favorite genre for user {}: {}", userId, request);
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
+        UserPreferenceContext context = resolveContext(userId);
 
         if (!request.isValid()) {
             throw new IllegalArgumentException("Either genreId or genreName must be provided");
         }
 
-        long currentCount = favoriteGenreRepository.countByProfileProfileId(profile.getProfileId());
-        if (currentCount >= MAX_FAVORITE_GENRES) {
+        MusicGenreCatalog.Entry genre = findGenreByIdOrName(request);
+
+        // Bloquea el perfil: las altas concurrentes del mismo usuario se serializan
+        Integer profileId = lockProfile(context);
+
+        // Límite, duplicado e inserción en una sola sentencia
+        FavoriteInsertOutcome outcome = favoriteGenreRepository.addIfUnderLimit(
+                profileId, genre.musicGenreId(), MAX_FAVORITE_GENRES);
+        if (outcome == FavoriteInsertOutcome.LIMIT_REACHED) {
             throw new IllegalStateException(
                     String.format("You have reached the limit of %d favorite genres", MAX_FAVORITE_GENRES));
         }
-
-        MusicGenre genre = findGenreByIdOrName(request);
-
-        if (favoriteGenreRepository.existsByProfileProfileIdAndMusicGenre_MusicGenreId(
-                profile.getProfileId(), genre.getMusicGenreId())) {
+        if (outcome == FavoriteInsertOutcome.DUPLICATE) {
             throw new IllegalStateException("This genre is already in your favorites");
         }
+        userChangeService.record(userId, UserChangeType.FAVORITE_GENRES_CHANGED);
 
-        FavoriteGenre favoriteGenre = FavoriteGenre.builder()
-                .profile(profile)
-                .musicGenre(genre)
-                .build();
-
-        favoriteGenreRepository.save(favoriteGenre);
-        log.info("✅ Genre '{}' added to favorites. Total: {}", genre.getName(), currentCount + 1);
+        log.info("✅ Genre '{}' added to favorites", genre.name());
 
-        return mapper.toGenreResponse(genre);
+        return genre.toResponse();
     }
 
     @Override
@@ -249,27 +346,25 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
     public SuccessResponse removeFavoriteGenre(Integer userId, DeleteFavoriteGenreRequest request) {
         log.info("➖ Removing favorite genre from user {}: {}", userId, request);
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
+        UserPreferenceContext context = resolveContext(userId);
 
         if (!request.isValid()) {
             throw new IllegalArgumentException("Either genreId or genreName must be provided");
         }
 
-        MusicGenre genre = findGenreByIdOrName(request);
-
-        FavoriteGenre favoriteGenre = favoriteGenreRepository
-                .findByProfileProfileIdAndMusicGenre_MusicGenreId(
-                        profile.getProfileId(), genre.getMusicGenreId())
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("Favorite genre not found with %s: '%s'",
-                                request.getGenreId() != null ? "genreId" : "genreName",
-                                request.getGenreId() != null ? request.getGenreId() : request.getGenreName())));
+        MusicGenreCatalog.Entry genre = findGenreByIdOrName(request);
 
-        String genreName = genre.getName();
+        String genreName = genre.name();
 
-        favoriteGenreRepository.deleteByProfileProfileIdAndMusicGenre_MusicGenreId(
-                profile.getProfileId(), genre.getMusicGenreId());
+        // Elimina y decrementa el contador del perfil en una sola sentencia
+        long removed = favoriteGenreRepository.deleteAndDecrement(context.profileId(), genre.musicGenreId());
+        if (removed == 0) {
+            throw new EntityNotFoundException(
+                    String.format("Favorite genre not found with %s: '%s'",
+                            request.getGenreId() != null ? "genreId" : "genreName",
+                            request.getGenreId() != null ? request.getGenreId() : request.getGenreName()));
+        }
+        userChangeService.record(userId, UserChangeType.FAVORITE_GENRES_CHANGED);
 
         log.info("✅ Genre '{}' removed from favorites", genreName);
 
@@ -282,36 +377,86 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
         log.info("Getting favorite genres for user: {} (page: {}, size: {})",
                 userId, pageable.getPageNumber(), pageable.getPageSize());
 
-        validateUserOwnership(userId);
-        Profile profile = getProfileByUserId(userId);
+        UserPreferenceContext context = resolveContext(userId);
 
-        Page<FavoriteGenre> favoritesPage = favoriteGenreRepository
-                .findByProfileProfileId(profile.getProfileId(), pageable);
+        // Total desde el contador desnormalizado y nombres desde el catálogo en memoria
+        List<Integer> genreIds = favoriteGenreRepository.findMusicGenreIdsByProfileId(context.profileId(), pageable);
 
-        return favoritesPage.map(fg -> {
-            if (fg.getMusicGenre() != null) {
-                return mapper.toGenreResponse(fg.getMusicGenre());
-            }
-            return MusicGenreResponse.builder()
-                    .musicGenreId(null)
-                    .name("Unknown Genre")
-                    .build();
-        });
+        return new PageImpl<>(toGenreResponses(genreIds), pageable, context.genresCount());
     }
 
     @Override
     @Transactional(readOnly = true)
+    public FavoritesSliceResponse<MusicGenreResponse> getFavoriteGenresAfter(Integer userId, String after, int size) {
+        log.info("Getting favorite genres for user: {} (after: {}, size: {})", userId, after, size);
+
+        int afterId = FavoriteCursor.decode(FavoriteCursor.GENRES, after);
+        UserPreferenceContext context = resolveContext(userId);
+
+        Slice<FavoriteGenreKey> keys = favoriteGenreRepository
+                .findKeysByProfileIdAfter(context.profileId(), afterId, PageRequest.of(0, size));
+        List<MusicGenreResponse> genres = toGenreResponses(keys.map(FavoriteGenreKey::getMusicGenreId).getContent());
+
+        String nextCursor = keys.hasNext()
+                ? FavoriteCursor.encode(FavoriteCursor.GENRES,
+                        keys.getContent().get(keys.getNumberOfElements() - 1).getFavoriteGenreId())
+                : null;
+        return FavoritesSliceResponse.of(new SliceImpl<>(genres, keys.getPageable(), keys.hasNext()), nextCursor);
+    }
+
+    @Override
+    @Transactional
+    public ReplaceFavoritesResponse<Integer> replaceFavoriteGenres(Integer userId, List<Integer> genreIds) {
+        log.info("🔁 Replacing favorite genres for user {} ({} requested)", userId, genreIds.size());
+
+        UserPreferenceContext context = resolveContext(userId);
+        Set<Integer> desired = desiredSet(genreIds, MAX_FAVORITE_GENRES, "favorite genres");
+
+        // Validación contra el catálogo en memoria, sin consultar music_genres
+        for (Integer genreId : desired) {
+            findGenreByIdOrName(genreId, null);
+        }
+
+        Integer profileId = lockProfile(context);
+        List<Integer> current = favoriteGenreRepository.findMusicGenreIdsByProfileId(profileId);
+        List<Integer> added = difference(desired, current);
+        List<Integer> removed = difference(current, desired);
+
+        if (!removed.isEmpty()) {
+            favoriteGenreRepository.deleteAllAndDecrement(profileId, removed);
+        }
+        if (!added.isEmpty()) {
+            favoriteGenreRepository.insertAllAndIncrement(profileId, added);
+        }
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            userChangeService.record(userId, UserChangeType.FAVORITE_GENRES_CHANGED);
+        }
+
+        log.info("✅ Favorite genres replaced for user {}: +{} -{}", userId, added.size(), removed.size());
+
+        return ReplaceFavoritesResponse.<Integer>builder()
+                .added(added)
+                .removed(removed)
+                .total(desired.size())
+                .build();
+    }
+
+    @Override
     public List<MusicGenreResponse> getAllGenres() {
         log.info("Getting all available genres");
 
-        return musicGenreRepository.findAll().stream()
-                .map(mapper::toGenreResponse)
+        return musicGenreCatalog.getAll().stream()
+                .map(MusicGenreCatalog.Entry::toResponse)
                 .collect(Collectors.toList());
     }
 
     // ===== HELPER METHODS =====
 
-    private void validateUserOwnership(Integer targetUserId) {
+    /**
+     * Contexto de la petición en una sola consulta: valida que el usuario exista
+     * y sea el autenticado (o un admin) y devuelve perfil, preferencias y contadores
+     */
+    private UserPreferenceContext resolveContext(Integer targetUserId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -323,149 +468,171 @@ public class UserPreferenceServiceImpl implements UserPreferenceService {
         boolean isAdmin = authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
 
-        if (isAdmin) {
-            log.debug("✅ Admin user accessing preferences for user ID: {}", targetUserId);
-            // Even admins should get 404 if user doesn't exist, so we check existence
-            if (!userRepository.existsById(targetUserId)) {
-                throw new EntityNotFoundException(
-                        String.format("User not found with id: '%s'", targetUserId));
-            }
-            return;
+        // Even admins should get 404 if user doesn't exist
+        List<UserPreferenceContext> contexts = userRepository.findPreferenceContexts(targetUserId);
+        if (contexts.isEmpty()) {
+            throw new EntityNotFoundException(
+                    String.format("User not found with id: '%s'", targetUserId));
         }
+        UserPreferenceContext context = contexts.get(0);
 
-        // Fetch target user to verify existence (throws 404 if not found)
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("User not found with id: '%s'", targetUserId)));
-
-        // Check ownership
-        if (!targetUser.getEmail().equals(authenticatedEmail)) {
+        if (isAdmin) {
+            log.debug("✅ Admin user accessing preferences for user ID: {}", targetUserId);
+        } else if (!context.email().equals(authenticatedEmail)) {
             log.warn("❌ Unauthorized access attempt by user: {} for user ID: {}",
                     authenticatedEmail, targetUserId);
             throw new AccessDeniedException("You don't have permission to access this resource");
+        } else {
+            log.debug("✅ User validated: {} accessing own preferences (ID: {})",
+                    authenticatedEmail, targetUserId);
         }
 
-        log.debug("✅ User validated: {} accessing own preferences (ID: {})",
-                authenticatedEmail, targetUserId);
-    }
-
-    private Profile getProfileByUserId(Integer userId) {
-        return profileRepository.findByUserUserId(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("Profile not found with userId: '%s'", userId)));
+        if (context.profileId() == null) {
+            throw new EntityNotFoundException(
+                    String.format("Profile not found with userId: '%s'", targetUserId));
+        }
+        return context;
     }
 
-    private UserPreference getOrCreateUserPreference(Profile profile) {
-        return userPreferenceRepository.findByProfileProfileId(profile.getProfileId())
-                .orElseGet(() -> createDefaultPreference(profile));
+    /**
+     * Lecturas en una transacción de solo lectura (va a la réplica) que se
+     * cierra antes de enriquecer con Spotify
+     */
+    private <T> T inReadOnlyTransaction(TransactionCallback<T> callback) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(callback);
     }
 
     /**
-     * Creates a default preference object WITHOUT persisting it to the database.
-     * Used for returning default values when no preference exists yet.
+     * Bloquea la fila del perfil con SELECT ... FOR UPDATE
+     * Usado por las altas de favoritos para que el límite no se pueda superar
+     * con peticiones concurrentes
      */
-    private UserPreference buildDefaultPreference(Profile profile) {
-        return UserPreference.builder()
-                .userPreferenceId(null) // null indica que no está persistido
-                .profile(profile)
-                .searchRadius(DEFAULT_SEARCH_RADIUS)
-                .emailNotifications(true)
-                .build();
+    private Integer lockProfile(UserPreferenceContext context) {
+        return profileRepository.lockById(context.profileId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Profile not found with userId: '%s'", context.userId())));
     }
 
     /**
-     * Creates and persists a default preference to the database.
-     * Used when we need to ensure a preference exists.
+     * Preferencias del contexto como entidad no administrada; si no existen
+     * se usan los valores por defecto (null en userPreferenceId = no persistido)
      */
-    private UserPreference createDefaultPreference(Profile profile) {
-        UserPreference preference = UserPreference.builder()
-                .profile(profile)
-                .searchRadius(DEFAULT_SEARCH_RADIUS)
-                .emailNotifications(true)
+    private UserPreference preferenceOf(UserPreferenceContext context) {
+        return UserPreference.builder()
+                .userPreferenceId(context.userPreferenceId())
+                .profile(Profile.builder().profileId(context.profileId()).build())
+                .searchRadius(context.hasPreference() ? context.searchRadius() : DEFAULT_SEARCH_RADIUS)
+                .emailNotifications(context.hasPreference() ? context.emailNotifications() : Boolean.TRUE)
                 .build();
-
-        return userPreferenceRepository.save(preference);
     }
 
-    private UserPreferenceResponse buildPreferenceResponse(Profile profile, UserPreference preference) {
-        List<FavoriteArtist> favoriteArtists = favoriteArtistRepository.findByProfileProfileId(profile.getProfileId());
-        List<FavoriteGenre> favoriteGenres = favoriteGenreRepository.findByProfileProfileId(profile.getProfileId());
-
-        List<ArtistResponse> artistResponses = favoriteArtists.stream()
-                .map(fa -> {
-                    try {
-                        return spotifyService.getArtistById(fa.getSpotifyId());
-                    } catch (Exception e) {
-                        return ArtistResponse.builder()
-                                .spotifyId(fa.getSpotifyId())
-                                .name("Unknown")
-                                .build();
-                    }
-                })
-                .collect(Collectors.toList());
-
-        List<MusicGenreResponse> genreResponses = favoriteGenres.stream()
-                .map(fg -> {
-                    if (fg.getMusicGenre() != null) {
-                        return mapper.toGenreResponse(fg.getMusicGenre());
-                    }
-                    return MusicGenreResponse.builder()
-                            .musicGenreId(null)
-                            .name("Unknown Genre")
-                            .build();
-                })
-                .collect(Collectors.toList());
+    private UserPreferenceResponse buildPreferenceResponse(FavoriteIds ids) {
+        List<ArtistResponse> artistResponses = toArtistResponses(ids.spotifyIds(), "Unknown");
+        List<MusicGenreResponse> genreResponses = toGenreResponses(ids.genreIds());
 
-        return mapper.toResponse(preference, artistResponses, genreResponses);
+        return mapper.toResponse(preferenceOf(ids.context()), artistResponses, genreResponses);
     }
 
-    private UserPreferenceResponse buildPreferenceSummary(Profile profile, UserPreference preference) {
-        long artistsCount = favoriteArtistRepository.countByProfileProfileId(profile.getProfileId());
-        long genresCount = favoriteGenreRepository.countByProfileProfileId(profile.getProfileId());
+    private UserPreferenceResponse buildPreferenceSummary(UserPreferenceContext context) {
+        // Contadores desnormalizados: sin COUNT(*) sobre las tablas de favoritos
+        UserPreference preference = preferenceOf(context);
 
         return UserPreferenceResponse.builder()
                 .userPreferenceId(preference.getUserPreferenceId())
-                .profileId(profile.getProfileId())
+                .profileId(context.profileId())
                 .searchRadius(preference.getSearchRadius())
                 .emailNotifications(preference.getEmailNotifications())
                 .favoriteArtists(Collections.emptyList())
                 .favoriteGenres(Collections.emptyList())
-                .favoriteArtistsCount((int) artistsCount)
-                .favoriteGenresCount((int) genresCount)
+                .favoriteArtistsCount(context.artistsCount())
+                .favoriteGenresCount(context.genresCount())
                 .maxFavoriteArtists(MAX_FAVORITE_ARTISTS)
                 .maxFavoriteGenres(MAX_FAVORITE_GENRES)
                 .build();
     }
 
-    private MusicGenre findGenreByIdOrName(AddFavoriteGenreRequest request) {
-        if (request.getGenreId() != null) {
-            return musicGenreRepository.findById(request.getGenreId())
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            String.format("Genre not found with id: '%s'", request.getGenreId())));
+    /**
+     * Datos de Spotify en una llamada por bloque de 50, en el orden de los IDs;
+     * los que no se puedan obtener se devuelven solo con su ID
+     */
+    private List<ArtistResponse> toArtistResponses(List<String> spotifyIds, String fallbackName) {
+        Map<String, ArtistResponse> found = new HashMap<>();
+        try {
+            for (ArtistResponse artist : spotifyService.getArtistsByIds(spotifyIds)) {
+                found.putIfAbsent(artist.getSpotifyId(), artist);
+            }
+        } catch (Exception e) {
+            // Fallback if Spotify fails
+            log.warn("Could not fetch artists from Spotify: {}", e.getMessage());
         }
+        return spotifyIds.stream()
+                .map(spotifyId -> found.getOrDefault(spotifyId, ArtistResponse.builder()
+                        .spotifyId(spotifyId)
+                        .name(fallbackName)
+                        .build()))
+                .collect(Collectors.toList());
+    }
 
-        if (request.getGenreName() != null && !request.getGenreName().trim().isEmpty()) {
-            String genreName = request.getGenreName().trim();
-            return musicGenreRepository.findByNameIgnoreCase(genreName)
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            String.format("Genre not found with name: '%s'", genreName)));
+    private List<MusicGenreResponse> toGenreResponses(List<Integer> genreIds) {
+        return genreIds.stream()
+                .map(genreId -> musicGenreCatalog.findById(genreId)
+                        .map(MusicGenreCatalog.Entry::toResponse)
+                        .orElseGet(() -> MusicGenreResponse.builder()
+                                .musicGenreId(null)
+                                .name("Unknown Genre")
+                                .build()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Conjunto deseado sin duplicados (conserva el orden de la petición)
+     */
+    private static <T> Set<T> desiredSet(List<T> ids, int limit, String label) {
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("The list of " + label + " cannot contain null values");
+        }
+        Set<T> desired = new LinkedHashSet<>(ids);
+        if (desired.size() > limit) {
+            throw new IllegalStateException(
+                    String.format("You have reached the limit of %d %s", limit, label));
         }
+        return desired;
+    }
 
-        throw new IllegalArgumentException("Either genreId or genreName must be provided");
+    private static <T> List<T> difference(Collection<T> from, Collection<T> minus) {
+        Set<T> excluded = minus instanceof Set<T> set ? set : new LinkedHashSet<>(minus);
+        List<T> result = new ArrayList<>();
+        for (T id : from) {
+            if (!excluded.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private MusicGenreCatalog.Entry findGenreByIdOrName(AddFavoriteGenreRequest request) {
+        return findGenreByIdOrName(request.getGenreId(), request.getGenreName());
+    }
+
+    private MusicGenreCatalog.Entry findGenreByIdOrName(DeleteFavoriteGenreRequest request) {
+        return findGenreByIdOrName(request.getGenreId(), request.getGenreName());
     }
 
-    private MusicGenre findGenreByIdOrName(DeleteFavoriteGenreRequest request) {
-        if (request.getGenreId() != null) {
-            return musicGenreRepository.findById(request.getGenreId())
+    // Resuelto contra el catálogo en memoria, sin consultar music_genres
+    private MusicGenreCatalog.Entry findGenreByIdOrName(Integer genreId, String genreName) {
+        if (genreId != null) {
+            return musicGenreCatalog.findById(genreId)
                     .orElseThrow(() -> new EntityNotFoundException(
-                            String.format("Genre not found with id: '%s'", request.getGenreId())));
+                            String.format("Genre not found with id: '%s'", genreId)));
         }
 
-        if (request.getGenreName() != null && !request.getGenreName().trim().isEmpty()) {
-            String genreName = request.getGenreName().trim();
-            return musicGenreRepository.findByNameIgnoreCase(genreName)
+        if (genreName != null && !genreName.trim().isEmpty()) {
+            String trimmedName = genreName.trim();
+            return musicGenreCatalog.findByName(trimmedName)
                     .orElseThrow(() -> new EntityNotFoundException(
-                            String.format("Genre not found with name: '%s'", genreName)));
+                            String.format("Genre not found with name: '%s'", trimmedName)));
         }
 
         throw new IllegalArgumentException("Either genreId or genreName must be provided");
@@ -1,8 +1,13 @@
 package com.example.user_service.service;
 
+import java.util.Set;
+
 import com.example.user_service.dto.LoginRequest;
 import com.example.user_service.dto.UpdatePasswordRequest;
 import com.example.user_service.dto.UpdateProfileRequest;
+import com.example.user_service.dto.UserField;
+import com.example.user_service.dto.UserBatchLookupRequest;
+import com.example.user_service.dto.UserBatchLookupResponse;
 import com.example.user_service.dto.UserRequest;
 import com.example.user_service.dto.UserResponse;
 
@@ -19,6 +24,12 @@ public interface UserService {
 
     UserResponse getUserById(Integer userId);
 
+    /**
+     * ETag actual del usuario con la misma validación de permisos que getUserById,
+     * consultando solo su versión (para responder If-None-Match con 304)
+     */
+    String getUserETag(Integer userId);
+
     /**
      * Verifica si un usuario existe en el sistema
      * Usado por otros microservicios
@@ -29,12 +40,25 @@ public interface UserService {
      * Obtiene un usuario por ID SIN validar permisos
      * SOLO para comunicación INTERNA entre microservicios
      * NO usar desde endpoints públicos
+     * 
+     * @param fields campos a devolver (null: respuesta completa)
      */
-    UserResponse getUserByIdInternal(Integer userId);
+    UserResponse getUserByIdInternal(Integer userId, Set<UserField> fields);
 
     /**
      * Obtiene un usuario por email
      * Usado para autenticación en graphql-service
+     * 
+     * @param fields campos a devolver (null: respuesta completa)
+     */
+    UserResponse getUserByEmail(String email, Set<UserField> fields);
+
+    /**
+     * Obtiene varios usuarios por ID y/o email en una sola consulta, SIN validar permisos
+     * SOLO para comunicación INTERNA entre microservicios
+     * Las claves inexistentes aparecen en la respuesta marcadas como no encontradas
+     * 
+     * @param fields campos a devolver de cada usuario (null: respuesta completa)
      */
-    UserResponse getUserByEmail(String email);
+    UserBatchLookupResponse getUsersInternal(UserBatchLookupRequest request, Set<UserField> fields);
 }
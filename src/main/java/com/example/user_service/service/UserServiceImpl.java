@@ -1,7 +1,13 @@
 package com.example.user_service.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.security.access.AccessDeniedException;
@@ -14,15 +20,23 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.user_service.dto.LoginRequest;
 import com.example.user_service.dto.UpdatePasswordRequest;
 import com.example.user_service.dto.UpdateProfileRequest;
+import com.example.user_service.dto.UserBatchLookupRequest;
+import com.example.user_service.dto.UserBatchLookupResponse;
+import com.example.user_service.dto.UserField;
+import com.example.user_service.dto.UserLookupResult;
+import com.example.user_service.dto.UserLookupRow;
 import com.example.user_service.dto.UserRequest;
 import com.example.user_service.dto.UserResponse;
 import com.example.user_service.mapper.UserMapper;
 import com.example.user_service.model.Profile;
 import com.example.user_service.model.ProfileLocation;
 import com.example.user_service.model.User;
+import com.example.user_service.model.UserChangeType;
 import com.example.user_service.repository.ProfileLocationRepository;
 import com.example.user_service.repository.ProfileRepository;
+import com.example.user_service.repository.UserFieldLookupRepository;
 import com.example.user_service.repository.UserRepository;
+import com.example.user_service.repository.UserVersion;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -34,18 +48,24 @@ import lombok.extern.slf4j.Slf4j;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserFieldLookupRepository userFieldLookupRepository;
     private final ProfileRepository profileRepository;
     private final ProfileLocationRepository profileLocationRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final UserExistenceIndex userExistenceIndex;
+    private final UserEmailIndex userEmailIndex;
+    private final UserChangeService userChangeService;
 
     @Override
     @Transactional
     public UserResponse registerUser(UserRequest request) {
         log.info("Registering new user with email: {}", request.getEmail());
 
-        // Validar email único
-        if (userRepository.existsByEmail(request.getEmail())) {
+        // Validar email único (el índice descarta sin consultar la BD los emails nuevos;
+        // un alta concurrente en otra instancia la sigue frenando la restricción única)
+        if (userEmailIndex.mightExist(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
             log.warn("Registration failed: Email already exists: {}", request.getEmail());
             throw new IllegalStateException("Email is already registered");
         }
@@ -74,6 +94,8 @@ public class UserServiceImpl implements UserService {
         // Guardar el ID ANTES de usarlo
         final Integer userId = user.getUserId();
         log.debug("User created with ID: {}", userId);
+        userExistenceIndex.addAfterCommit(userId);
+        userEmailIndex.addAfterCommit(user.getEmail());
 
         // Crear perfil
         Profile profile = Profile.builder()
@@ -84,10 +106,12 @@ public class UserServiceImpl implements UserService {
         log.debug("Profile created with ID: {}", profile.getProfileId());
 
         // Crear ubicación del perfil
-        ProfileLocation location = parseAndCreateLocation(request.getLocation(), profile);
+        ProfileLocation location = userMapper.toProfileLocation(request.getLocation(), profile);
         profileLocationRepository.save(location);
         log.debug("Profile location created");
 
+        userChangeService.record(userId, UserChangeType.USER_REGISTERED);
+
         // Recargar usuario con relaciones usando el ID guardado
         User savedUser = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(
@@ -101,10 +125,19 @@ public class UserServiceImpl implements UserService {
     public UserResponse login(LoginRequest request) {
         log.info("Login attempt for email: {}", request.getEmail());
 
-        // Buscar usuario por email
-        User user = userRepository.findByEmail(request.getEmail())
+        // Rechazar emails/IPs bloqueados antes de tocar la BD o BCrypt
+        String clientIp = loginAttemptLimiter.currentClientIp();
+        loginAttemptLimiter.checkAllowed(request.getEmail(), clientIp);
+
+        // Buscar usuario por email (con perfil y ubicación en una sola consulta)
+        // Los emails que seguro no existen se rechazan sin consultar la BD
+        Optional<User> found = userEmailIndex.mightExist(request.getEmail())
+                ? userRepository.findWithProfileByEmail(request.getEmail())
+                : Optional.empty();
+        User user = found
                 .orElseThrow(() -> {
                     log.warn("Login failed: User not found with email: {}", request.getEmail());
+                    loginAttemptLimiter.recordFailure(request.getEmail(), clientIp);
                     return new EntityNotFoundException(
                             String.format("User not found with email: '%s'", request.getEmail()));
                 });
@@ -112,9 +145,11 @@ public class UserServiceImpl implements UserService {
         // Verificar contraseña usando BCrypt
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
             log.warn("Login failed: Invalid password for email: {}", request.getEmail());
+            loginAttemptLimiter.recordFailure(request.getEmail(), clientIp);
             throw new IllegalArgumentException("Invalid credentials");
         }
 
+        loginAttemptLimiter.recordSuccess(request.getEmail());
         log.info("✅ Login successful for email: {}", request.getEmail());
         return userMapper.toResponse(user);
     }
@@ -123,6 +158,10 @@ public class UserServiceImpl implements UserService {
     public void logout(Integer userId) {
         log.info("Logout request for user ID: {}", userId);
 
+        // Verificar que el usuario solo pueda cerrar su propia sesión
+        // (antes que la existencia: un usuario ajeno inexistente también es 403)
+        validateUserOwnership(userId);
+
         // Verificar que el usuario exista
         if (!userRepository.existsById(userId)) {
             log.warn("Logout failed: User not found with ID: {}", userId);
@@ -130,9 +169,6 @@ public class UserServiceImpl implements UserService {
                     String.format("User not found with id: '%s'", userId));
         }
 
-        // Verificar que el usuario solo pueda cerrar su propia sesión
-        validateUserOwnership(userId);
-
         log.info("✅ Logout successful for user ID: {}", userId);
     }
 
@@ -162,6 +198,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setUpdatedAt(LocalDateTime.now());
         user = userRepository.save(user);
+        userChangeService.record(userId, UserChangeType.PASSWORD_CHANGED);
 
         log.info("✅ Password changed successfully for user ID: {}", userId);
         return userMapper.toResponse(user);
@@ -172,24 +209,24 @@ public class UserServiceImpl implements UserService {
     public UserResponse updateProfile(Integer userId, UpdateProfileRequest request) {
         log.info("Profile update request for user ID: {}", userId);
 
-        // Verificar que el usuario solo pueda actualizar su propio perfil
-        validateUserOwnership(userId);
-
-        // Buscar usuario
-        User user = userRepository.findById(userId)
+        // Buscar usuario con perfil y ubicación en una sola consulta
+        User user = userRepository.findWithProfileByUserId(userId)
                 .orElseThrow(() -> {
                     log.warn("Profile update failed: User not found with ID: {}", userId);
-                    return new EntityNotFoundException(
-                            String.format("User not found with id: '%s'", userId));
+                    return userNotFoundOrDenied(userId);
                 });
 
+        // Verificar que el usuario solo pueda actualizar su propio perfil
+        validateUserOwnershipWithUser(userId, user);
+
         // Actualizar email si se proporciona
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(request.getEmail())) {
+            if (userEmailIndex.mightExist(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
                 log.warn("Profile update failed: Email already exists: {}", request.getEmail());
                 throw new IllegalStateException("Email is already registered");
             }
             user.setEmail(request.getEmail());
+            userEmailIndex.addAfterCommit(request.getEmail());
             log.debug("Email updated for user ID: {}", userId);
         }
 
@@ -220,6 +257,7 @@ public class UserServiceImpl implements UserService {
         user.setUpdatedAt(LocalDateTime.now());
         profileRepository.save(profile);
         user = userRepository.save(user);
+        userChangeService.record(userId, UserChangeType.PROFILE_UPDATED);
 
         log.info("✅ Profile updated successfully for user ID: {}", userId);
         return userMapper.toResponse(user);
@@ -230,11 +268,11 @@ public class UserServiceImpl implements UserService {
         log.info("Fetching user by ID: {}", userId);
 
         // CORRECCIÓN: Primero buscar el usuario para asegurar que existe
-        User user = userRepository.findById(userId)
+        // (con perfil y ubicación en una sola consulta)
+        User user = userRepository.findWithProfileByUserId(userId)
                 .orElseThrow(() -> {
                     log.warn("User not found with ID: {}", userId);
-                    return new EntityNotFoundException(
-                            String.format("User not found with id: '%s'", userId));
+                    return userNotFoundOrDenied(userId);
                 });
 
         // Luego validar los permisos de acceso
@@ -245,6 +283,19 @@ public class UserServiceImpl implements UserService {
         return userMapper.toResponse(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserETag(Integer userId) {
+        UserVersion version = userRepository.findVersionByUserId(userId)
+                .orElseThrow(() -> {
+                    log.warn("User not found with ID: {}", userId);
+                    return userNotFoundOrDenied(userId);
+                });
+
+        validateUserOwnershipWithEmail(userId, version.getEmail());
+        return ResourceETags.user(userId, version.getUpdatedAt(), version.getCreatedAt());
+    }
+
     // ==================== MÉTODOS PRIVADOS ====================
 
     /**
@@ -275,8 +326,7 @@ public class UserServiceImpl implements UserService {
 
         // Si no es ADMIN, verificar que sea el propietario
         User targetUser = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format("User not found with id: '%s'", userId)));
+                .orElseThrow(() -> userNotFoundOrDenied(userId));
 
         if (!targetUser.getEmail().equals(authenticatedEmail)) {
             log.warn("Unauthorized access attempt by user: {} for user ID: {}",
@@ -295,6 +345,14 @@ public class UserServiceImpl implements UserService {
      * @throws IllegalStateException si el usuario no tiene permiso
      */
     private void validateUserOwnershipWithUser(Integer userId, User targetUser) {
+        validateUserOwnershipWithEmail(userId, targetUser.getEmail());
+    }
+
+    /**
+     * Igual que validateUserOwnershipWithUser pero solo con el email del usuario
+     * objetivo (p. ej. desde una proyección)
+     */
+    private void validateUserOwnershipWithEmail(Integer userId, String targetEmail) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -315,7 +373,7 @@ public class UserServiceImpl implements UserService {
         }
 
         // Si no es ADMIN, verificar que sea el propietario
-        if (!targetUser.getEmail().equals(authenticatedEmail)) {
+        if (!targetEmail.equals(authenticatedEmail)) {
             log.warn("❌ Unauthorized access attempt by user: {} for user ID: {}",
                     authenticatedEmail, userId);
             throw new AccessDeniedException("You don't have permission to access this resource");
@@ -326,33 +384,22 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Parsea y crea una ubicación de perfil desde un string
-     * Formato esperado: "Ciudad, Estado, País"
+     * Error para un usuario que no existe: 404 solo para ADMIN. El resto recibe
+     * el mismo 403 que con un usuario ajeno, para no revelar qué IDs existen
      */
-    private ProfileLocation parseAndCreateLocation(String locationString, Profile profile) {
-        String[] parts = locationString.split(",");
+    private RuntimeException userNotFoundOrDenied(Integer userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        String city = locationString;
-        String state = "Unknown";
-        String country = "Unknown";
-
-        if (parts.length >= 3) {
-            city = parts[0].trim();
-            state = parts[1].trim();
-            country = parts[2].trim();
-        } else if (parts.length == 2) {
-            city = parts[0].trim();
-            country = parts[1].trim();
-        } else if (parts.length == 1) {
-            city = parts[0].trim();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return new IllegalStateException("User not authenticated");
         }
 
-        return ProfileLocation.builder()
-                .municipality(city)
-                .state(state)
-                .country(country)
-                .profile(profile)
-                .build();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+        if (isAdmin) {
+            return new EntityNotFoundException(String.format("User not found with id: '%s'", userId));
+        }
+        return new AccessDeniedException("You don't have permission to access this resource");
     }
 
     /**
@@ -374,11 +421,20 @@ public class UserServiceImpl implements UserService {
     /**
      * Verifica si un usuario existe en el sistema
      * Método para comunicación entre microservicios
+     *
+     * Los aciertos se resuelven con el índice en memoria sin tocar la BD; un fallo
+     * puede ser un alta de otra instancia aún no reconciliada, así que se confirma en BD
      */
     @Override
     public boolean userExists(Integer userId) {
-        log.debug("🔍 [INTERNAL] Checking existence of user ID: {}", userId);
+        if (userExistenceIndex.contains(userId)) {
+            return true;
+        }
+        log.debug("🔍 [INTERNAL] User {} not in existence index, checking database", userId);
         boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            userExistenceIndex.add(userId);
+        }
         log.debug("🔍 [INTERNAL] User {} exists: {}", userId, exists);
         return exists;
     }
@@ -391,18 +447,23 @@ public class UserServiceImpl implements UserService {
      * Es usado por graphql-profile-service para obtener datos de usuarios
      */
     @Override
-    public UserResponse getUserByIdInternal(Integer userId) {
+    @Transactional(readOnly = true)
+    public UserResponse getUserByIdInternal(Integer userId, Set<UserField> fields) {
         log.info("🔗 [INTERNAL] Fetching user by ID (NO permission check): {}", userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.warn("User not found with ID: {}", userId);
-                    return new EntityNotFoundException(
-                            String.format("User not found with id: '%s'", userId));
-                });
+        // Proyección de solo lectura: sin entidades administradas ni dirty-checking
+        // (con fields=, solo las columnas y JOIN de los campos pedidos)
+        List<UserLookupRow> rows = fields == null
+                ? userRepository.findLookupRowsByUserId(userId)
+                : userFieldLookupRepository.findLookupRows(List.of(userId), List.of(), fields);
+        if (rows.isEmpty()) {
+            log.warn("User not found with ID: {}", userId);
+            throw new EntityNotFoundException(
+                    String.format("User not found with id: '%s'", userId));
+        }
 
-        log.info("✅ [INTERNAL] User fetched successfully: {}", user.getEmail());
-        return userMapper.toResponse(user);
+        log.info("✅ [INTERNAL] User fetched successfully: {}", userId);
+        return userMapper.toResponse(rows, fields);
     }
 
     /**
@@ -410,17 +471,84 @@ public class UserServiceImpl implements UserService {
      * Usado para autenticación en graphql-service
      */
     @Override
-    public UserResponse getUserByEmail(String email) {
+    @Transactional(readOnly = true)
+    public UserResponse getUserByEmail(String email, Set<UserField> fields) {
         log.info("🔐 [INTERNAL] Fetching user by email for authentication: {}", email);
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.warn("User not found with email: {}", email);
-                    return new EntityNotFoundException(
-                            String.format("User not found with email: '%s'", email));
-                });
+        List<UserLookupRow> rows = fields == null
+                ? userRepository.findLookupRowsByEmail(email)
+                : userFieldLookupRepository.findLookupRows(List.of(), List.of(email), fields);
+        if (rows.isEmpty()) {
+            log.warn("User not found with email: {}", email);
+            throw new EntityNotFoundException(
+                    String.format("User not found with email: '%s'", email));
+        }
 
         log.info("✅ [INTERNAL] User fetched by email successfully: {}", email);
-        return userMapper.toResponse(user);
+        return userMapper.toResponse(rows, fields);
+    }
+
+    /**
+     * Obtiene varios usuarios por ID y/o email SIN validar permisos
+     * SOLO para comunicación INTERNA entre microservicios
+     *
+     * Todas las claves se resuelven con una sola consulta IN; las que no existen
+     * se devuelven explícitamente como no encontradas en lugar de omitirse
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserBatchLookupResponse getUsersInternal(UserBatchLookupRequest request, Set<UserField> fields) {
+        Set<Integer> userIds = request.getUserIds() != null
+                ? new LinkedHashSet<>(request.getUserIds())
+                : new LinkedHashSet<>();
+        Set<String> emails = request.getEmails() != null
+                ? new LinkedHashSet<>(request.getEmails())
+                : new LinkedHashSet<>();
+        userIds.remove(null);
+        emails.remove(null);
+
+        if (userIds.isEmpty() && emails.isEmpty()) {
+            throw new IllegalArgumentException("At least one user ID or email is required");
+        }
+        if (userIds.size() + emails.size() > UserBatchLookupRequest.MAX_KEYS) {
+            throw new IllegalArgumentException(String.format(
+                    "A batch lookup accepts at most %d IDs and emails combined", UserBatchLookupRequest.MAX_KEYS));
+        }
+
+        log.info("🔗 [INTERNAL] Batch lookup of {} IDs and {} emails (NO permission check)",
+                userIds.size(), emails.size());
+
+        // Filas ordenadas por usuario: se agrupan sin reordenar
+        Map<Integer, List<UserLookupRow>> rowsByUser = new LinkedHashMap<>();
+        List<UserLookupRow> lookupRows = fields == null
+                ? userRepository.findLookupRowsByUserIdsOrEmails(userIds, emails)
+                : userFieldLookupRepository.findLookupRows(userIds, emails, fields);
+        for (UserLookupRow row : lookupRows) {
+            rowsByUser.computeIfAbsent(row.userId(), id -> new ArrayList<>()).add(row);
+        }
+
+        // Claves desde la fila: con fields= la respuesta puede no incluir el email
+        Map<Integer, UserResponse> usersById = new LinkedHashMap<>();
+        Map<String, UserResponse> usersByEmail = new LinkedHashMap<>();
+        for (List<UserLookupRow> rows : rowsByUser.values()) {
+            UserResponse user = userMapper.toResponse(rows, fields);
+            usersById.put(rows.get(0).userId(), user);
+            usersByEmail.put(rows.get(0).email(), user);
+        }
+
+        Map<Integer, UserLookupResult> byId = new LinkedHashMap<>();
+        for (Integer userId : userIds) {
+            byId.put(userId, UserLookupResult.of(usersById.get(userId)));
+        }
+        Map<String, UserLookupResult> byEmail = new LinkedHashMap<>();
+        for (String email : emails) {
+            byEmail.put(email, UserLookupResult.of(usersByEmail.get(email)));
+        }
+
+        log.info("✅ [INTERNAL] Batch lookup resolved {} of {} keys", rowsByUser.size(), byId.size() + byEmail.size());
+        return UserBatchLookupResponse.builder()
+                .byId(byId)
+                .byEmail(byEmail)
+                .build();
     }
 }
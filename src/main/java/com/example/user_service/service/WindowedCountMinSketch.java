@@ -0,0 +1,225 @@
+package com.example.user_service.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contador aproximado por clave sobre una ventana deslizante
+ * Count-min sketch dividido en franjas (cada una con su propio lock) y en
+ * sub-ventanas que rotan con el tiempo. La memoria es fija sin importar
+ * cuántas claves distintas se vean; las colisiones solo pueden sobreestimar.
+ *
+ * El ancho se calcula con {@link #forExpectedKeys}: con una carga media de
+ * threshold/2.5 incrementos por celda, que las DEPTH celdas de una clave nueva
+ * alcancen el umbral solo por colisiones es del orden de 1e-18. Si la carga
+ * real multiplica por ~1.5 la esperada sigue por debajo de 1e-4; más allá de
+ * eso las claves legítimas empiezan a verse bloqueadas
+ */
+final class WindowedCountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final int MIN_WIDTH = 64;
+
+    private final int width;
+    private final int slots;
+    private final long slotMillis;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final Stripe[] stripes;
+
+    /**
+     * Punto de la ventana en el que se "perdonan" los incrementos previos de
+     * una clave: la sub-ventana y el valor que tenía la clave en ella
+     */
+    record Mark(long epoch, int count) {
+    }
+
+    /**
+     * @param stripes      número de franjas independientes (potencia de 2)
+     * @param width        columnas por fila de cada franja (potencia de 2)
+     * @param slots        sub-ventanas en las que se divide la ventana
+     * @param windowMillis duración total de la ventana deslizante
+     */
+    WindowedCountMinSketch(int stripes, int width, int slots, long windowMillis) {
+        if (Integer.bitCount(stripes) != 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("stripes and width must be powers of two");
+        }
+        this.width = width;
+        this.slots = slots;
+        this.slotMillis = Math.max(1, windowMillis / slots);
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(slots, width);
+        }
+    }
+
+    /**
+     * Sketch dimensionado para {@code expectedKeys} incrementos por ventana sin
+     * que una clave nueva llegue a {@code threshold} por colisiones
+     */
+    static WindowedCountMinSketch forExpectedKeys(int stripes, long expectedKeys, int threshold, int slots,
+            long windowMillis) {
+        long columns = Math.max(1, (long) Math.ceil(expectedKeys * 2.5 / Math.max(1, threshold)));
+        long perStripe = Math.max(MIN_WIDTH, (columns + stripes - 1) / stripes);
+        int width = (int) Math.min(1 << 30, Long.highestOneBit(perStripe - 1) << 1);
+        return new WindowedCountMinSketch(stripes, width, slots, windowMillis);
+    }
+
+    /**
+     * Suma 1 a la clave en la sub-ventana actual y devuelve la estimación
+     */
+    int increment(String key, long nowMillis) {
+        long hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        long epoch = nowMillis / slotMillis;
+        stripe.lock.lock();
+        try {
+            int slot = stripe.rotate(epoch, slots);
+            for (int d = 0; d < DEPTH; d++) {
+                int index = column(hash, d);
+                // Contadores de 16 bits saturados: los umbrales son muy inferiores
+                if (stripe.counters[slot][d][index] != Short.MAX_VALUE) {
+                    stripe.counters[slot][d][index]++;
+                }
+            }
+            return stripe.estimate(hash, epoch, null, this);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Estimación (nunca menor que el valor real) de la clave en la ventana
+     */
+    int estimate(String key, long nowMillis) {
+        return estimate(key, nowMillis, null);
+    }
+
+    /**
+     * Estimación de los incrementos de la clave posteriores a {@code since}
+     * (nunca menor que el valor real); null equivale a toda la ventana
+     */
+    int estimate(String key, long nowMillis, Mark since) {
+        long hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        long epoch = nowMillis / slotMillis;
+        stripe.lock.lock();
+        try {
+            return stripe.estimate(hash, epoch, since, this);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Marca el valor actual de la clave para descontarlo en estimate(key, now, mark)
+     */
+    Mark mark(String key, long nowMillis) {
+        long hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        long epoch = nowMillis / slotMillis;
+        stripe.lock.lock();
+        try {
+            int slot = stripe.rotate(epoch, slots);
+            int min = Integer.MAX_VALUE;
+            for (int d = 0; d < DEPTH; d++) {
+                min = Math.min(min, stripe.counters[slot][d][column(hash, d)]);
+            }
+            return new Mark(epoch, min);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * true si la marca ya quedó fuera de la ventana (no descuenta nada)
+     */
+    boolean isExpired(Mark mark, long nowMillis) {
+        return mark.epoch() <= nowMillis / slotMillis - slots;
+    }
+
+    long windowMillis() {
+        return slotMillis * slots;
+    }
+
+    long sizeInBytes() {
+        return (long) stripes.length * slots * DEPTH * width * Short.BYTES;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 58) & (stripes.length - 1)];
+    }
+
+    private int column(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & (width - 1);
+    }
+
+    /**
+     * FNV-1a sembrado por proceso + mezcla final, para que no se puedan
+     * fabricar colisiones a partir de String.hashCode()
+     */
+    private long hash(String key) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final short[][][] counters;
+        private final long[] slotEpochs;
+
+        private Stripe(int slots, int width) {
+            this.counters = new short[slots][DEPTH][width];
+            this.slotEpochs = new long[slots];
+            Arrays.fill(slotEpochs, Long.MIN_VALUE);
+        }
+
+        private int rotate(long epoch, int slots) {
+            int slot = (int) Math.floorMod(epoch, (long) slots);
+            if (slotEpochs[slot] != epoch) {
+                for (short[] row : counters[slot]) {
+                    Arrays.fill(row, (short) 0);
+                }
+                slotEpochs[slot] = epoch;
+            }
+            return slot;
+        }
+
+        /**
+         * Con marca, las sub-ventanas anteriores a ella no cuentan y a la de la
+         * marca se le resta su valor de entonces (por fila, así no subestima)
+         */
+        private int estimate(long hash, long epoch, Mark since, WindowedCountMinSketch sketch) {
+            int min = Integer.MAX_VALUE;
+            for (int d = 0; d < DEPTH; d++) {
+                int column = sketch.column(hash, d);
+                int sum = 0;
+                for (int s = 0; s < counters.length; s++) {
+                    long slotEpoch = slotEpochs[s];
+                    if (slotEpoch <= epoch - counters.length || slotEpoch > epoch) {
+                        continue;
+                    }
+                    int count = counters[s][d][column];
+                    if (since == null || slotEpoch > since.epoch()) {
+                        sum += count;
+                    } else if (slotEpoch == since.epoch()) {
+                        sum += Math.max(0, count - since.count());
+                    }
+                }
+                min = Math.min(min, sum);
+            }
+            return min;
+        }
+    }
+}
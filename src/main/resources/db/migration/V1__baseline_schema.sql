@@ -0,0 +1,151 @@
+-- ========================================
+-- Esquema base del User Service
+-- Reproduce lo que creaba ddl-auto=update. Todo es IF NOT EXISTS para que
+-- también se aplique sin cambios sobre bases ya existentes (baseline 0)
+-- ========================================
+
+-- ==================== USUARIOS ====================
+CREATE TABLE IF NOT EXISTS users (
+    user_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    user_type VARCHAR(50),
+    enabled BOOLEAN NOT NULL,
+    account_non_expired BOOLEAN NOT NULL,
+    account_non_locked BOOLEAN NOT NULL,
+    credentials_non_expired BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id INTEGER NOT NULL REFERENCES users (user_id),
+    role VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id, role)
+);
+
+-- ==================== PERFILES ====================
+CREATE TABLE IF NOT EXISTS profiles (
+    profile_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    user_id INTEGER REFERENCES users (user_id),
+    favorite_artists_count INTEGER NOT NULL DEFAULT 0,
+    favorite_genres_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS profile_locations (
+    profile_location_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    municipality VARCHAR(100),
+    state VARCHAR(100),
+    country VARCHAR(100),
+    profile_id INTEGER UNIQUE REFERENCES profiles (profile_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_preferences (
+    user_preference_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    search_radius NUMERIC(5, 2),
+    email_notifications BOOLEAN,
+    profile_id INTEGER UNIQUE REFERENCES profiles (profile_id)
+);
+
+-- ==================== GÉNEROS Y FAVORITOS ====================
+CREATE TABLE IF NOT EXISTS music_genres (
+    music_genre_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100),
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS favorite_genres (
+    favorite_genre_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    music_genre_id INTEGER REFERENCES music_genres (music_genre_id),
+    profile_id INTEGER REFERENCES profiles (profile_id)
+);
+
+CREATE TABLE IF NOT EXISTS favorite_artists (
+    favorite_artist_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    spotify_id VARCHAR(255) NOT NULL,
+    profile_id INTEGER NOT NULL REFERENCES profiles (profile_id)
+);
+
+-- ==================== CONCIERTOS Y NOTIFICACIONES ====================
+CREATE TABLE IF NOT EXISTS saved_concerts (
+    saved_concert_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    concert_id INTEGER,
+    profile_id INTEGER REFERENCES profiles (profile_id)
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    notification_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100),
+    notification_type VARCHAR(100),
+    message TEXT,
+    profile_id INTEGER REFERENCES profiles (profile_id),
+    concert_id INTEGER
+);
+
+-- ==================== COMENTARIOS (AZURE AI) ====================
+-- Antes en db-comments-migration.sql
+
+-- Tabla para comentarios generales sobre la plataforma
+CREATE TABLE IF NOT EXISTS general_comments (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    comment TEXT NOT NULL,
+    sentiment VARCHAR(20),
+    confidence_positive DOUBLE PRECISION,
+    confidence_neutral DOUBLE PRECISION,
+    confidence_negative DOUBLE PRECISION,
+    detected_language VARCHAR(10),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Índices para general_comments
+CREATE INDEX IF NOT EXISTS idx_general_comments_user_id ON general_comments(user_id);
+CREATE INDEX IF NOT EXISTS idx_general_comments_sentiment ON general_comments(sentiment);
+CREATE INDEX IF NOT EXISTS idx_general_comments_created_at ON general_comments(created_at DESC);
+
+-- Comentar tabla con descripción
+COMMENT ON TABLE general_comments IS 'Almacena comentarios generales sobre la plataforma con análisis de sentimiento de Azure AI';
+COMMENT ON COLUMN general_comments.id IS 'ID único del comentario';
+COMMENT ON COLUMN general_comments.user_id IS 'ID del usuario que hizo el comentario';
+COMMENT ON COLUMN general_comments.comment IS 'Texto del comentario';
+COMMENT ON COLUMN general_comments.sentiment IS 'Sentimiento detectado: positive, negative, neutral, mixed';
+COMMENT ON COLUMN general_comments.confidence_positive IS 'Score de confianza para sentimiento positivo (0.0-1.0)';
+COMMENT ON COLUMN general_comments.confidence_neutral IS 'Score de confianza para sentimiento neutral (0.0-1.0)';
+COMMENT ON COLUMN general_comments.confidence_negative IS 'Score de confianza para sentimiento negativo (0.0-1.0)';
+COMMENT ON COLUMN general_comments.detected_language IS 'Código ISO 639-1 del idioma detectado';
+COMMENT ON COLUMN general_comments.created_at IS 'Marca de tiempo de creación';
+
+-- Tabla para comentarios sobre conciertos
+CREATE TABLE IF NOT EXISTS concert_comments (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    concert_name VARCHAR(200) NOT NULL,
+    comment TEXT NOT NULL,
+    sentiment VARCHAR(20),
+    confidence_positive DOUBLE PRECISION,
+    confidence_neutral DOUBLE PRECISION,
+    confidence_negative DOUBLE PRECISION,
+    detected_language VARCHAR(10),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Índices para concert_comments
+CREATE INDEX IF NOT EXISTS idx_concert_comments_user_id ON concert_comments(user_id);
+CREATE INDEX IF NOT EXISTS idx_concert_comments_concert_name ON concert_comments(concert_name);
+CREATE INDEX IF NOT EXISTS idx_concert_comments_sentiment ON concert_comments(sentiment);
+CREATE INDEX IF NOT EXISTS idx_concert_comments_created_at ON concert_comments(created_at DESC);
+
+-- Comentar tabla con descripción
+COMMENT ON TABLE concert_comments IS 'Almacena comentarios sobre conciertos con análisis de sentimiento de Azure AI';
+COMMENT ON COLUMN concert_comments.id IS 'ID único del comentario';
+COMMENT ON COLUMN concert_comments.user_id IS 'ID del usuario que hizo el comentario';
+COMMENT ON COLUMN concert_comments.concert_name IS 'Nombre del concierto comentado';
+COMMENT ON COLUMN concert_comments.comment IS 'Texto del comentario';
+COMMENT ON COLUMN concert_comments.sentiment IS 'Sentimiento detectado: positive, negative, neutral, mixed';
+COMMENT ON COLUMN concert_comments.confidence_positive IS 'Score de confianza para sentimiento positivo (0.0-1.0)';
+COMMENT ON COLUMN concert_comments.confidence_neutral IS 'Score de confianza para sentimiento neutral (0.0-1.0)';
+COMMENT ON COLUMN concert_comments.confidence_negative IS 'Score de confianza para sentimiento negativo (0.0-1.0)';
+COMMENT ON COLUMN concert_comments.detected_language IS 'Código ISO 639-1 del idioma detectado';
+COMMENT ON COLUMN concert_comments.created_at IS 'Marca de tiempo de creación';
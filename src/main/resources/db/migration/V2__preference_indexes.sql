@@ -0,0 +1,65 @@
+-- ========================================
+-- Índices y restricciones para las consultas de preferencias
+-- Todas filtran por perfil (y por artista/género al agregar o eliminar)
+-- ========================================
+
+-- Contadores de favoritos en profiles (bases anteriores a los contadores)
+ALTER TABLE profiles ADD COLUMN IF NOT EXISTS favorite_artists_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE profiles ADD COLUMN IF NOT EXISTS favorite_genres_count INTEGER NOT NULL DEFAULT 0;
+
+-- Un artista/género aparece una sola vez por perfil. Se eliminan duplicados
+-- previos (conservando el más antiguo) antes de crear la restricción
+DELETE FROM favorite_artists fa
+USING favorite_artists older
+WHERE fa.profile_id = older.profile_id
+  AND fa.spotify_id = older.spotify_id
+  AND fa.favorite_artist_id > older.favorite_artist_id;
+
+DELETE FROM favorite_genres fg
+USING favorite_genres older
+WHERE fg.profile_id = older.profile_id
+  AND fg.music_genre_id = older.music_genre_id
+  AND fg.favorite_genre_id > older.favorite_genre_id;
+
+-- Los contadores recién añadidos valen 0: se recalculan con las filas que
+-- quedan para que los límites y los totales sean correctos desde el arranque
+UPDATE profiles p
+SET favorite_artists_count = (SELECT COUNT(*) FROM favorite_artists fa WHERE fa.profile_id = p.profile_id),
+    favorite_genres_count = (SELECT COUNT(*) FROM favorite_genres fg WHERE fg.profile_id = p.profile_id);
+
+-- La restricción única también es el índice (profile_id, ...) de las búsquedas
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_favorite_artists_profile_spotify') THEN
+        ALTER TABLE favorite_artists
+            ADD CONSTRAINT uk_favorite_artists_profile_spotify UNIQUE (profile_id, spotify_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_favorite_genres_profile_genre') THEN
+        ALTER TABLE favorite_genres
+            ADD CONSTRAINT uk_favorite_genres_profile_genre UNIQUE (profile_id, music_genre_id);
+    END IF;
+END $$;
+
+-- Perfil por usuario: todas las operaciones de preferencias empiezan aquí
+CREATE INDEX IF NOT EXISTS idx_profiles_user_id ON profiles (user_id);
+
+-- Preferencias y ubicación por perfil. Hibernate ya creaba una restricción
+-- única (con nombre generado) para el @OneToOne; solo se crea el índice si
+-- la columna todavía no encabeza ningún índice
+DO $$
+BEGIN
+    IF NOT EXISTS (
+            SELECT 1
+            FROM pg_index i
+            JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+            WHERE i.indrelid = 'user_preferences'::regclass AND a.attname = 'profile_id') THEN
+        CREATE INDEX idx_user_preferences_profile_id ON user_preferences (profile_id);
+    END IF;
+    IF NOT EXISTS (
+            SELECT 1
+            FROM pg_index i
+            JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+            WHERE i.indrelid = 'profile_locations'::regclass AND a.attname = 'profile_id') THEN
+        CREATE INDEX idx_profile_locations_profile_id ON profile_locations (profile_id);
+    END IF;
+END $$;
@@ -0,0 +1,6 @@
+-- ========================================
+-- Índice para la sincronización incremental del índice de emails en memoria
+-- (filas de users creadas o modificadas en el último minuto, cada segundo)
+-- ========================================
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
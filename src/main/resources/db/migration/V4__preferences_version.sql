@@ -0,0 +1,6 @@
+-- ========================================
+-- Versión de las preferencias de cada perfil (ETag de GET /preferences)
+-- Se incrementa en la misma sentencia que cada cambio de preferencias o favoritos
+-- ========================================
+
+ALTER TABLE profiles ADD COLUMN IF NOT EXISTS preferences_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- ========================================
+-- Registro de cambios de usuarios y preferencias (feed para cachés de otros servicios)
+-- Cada mutación inserta una fila en su misma transacción. txid es el ID de esa
+-- transacción: el feed solo sirve filas con txid menor que el xmin del snapshot
+-- actual (transacciones ya terminadas), así un cursor nunca salta una fila que
+-- confirma más tarde con un change_id menor
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS user_changes (
+    change_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    txid BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint),
+    user_id INTEGER NOT NULL,
+    change_type VARCHAR(40) NOT NULL,
+    changed_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_changes_txid_change_id ON user_changes (txid, change_id);
@@ -0,0 +1,19 @@
+package com.example.user_service;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base para tests que necesitan PostgreSQL real (ON CONFLICT, FOR UPDATE,
+ * EXPLAIN...). El contenedor se comparte entre clases y los tests se omiten
+ * cuando no hay Docker disponible
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresContainerTests {
+
+    @Container
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+}
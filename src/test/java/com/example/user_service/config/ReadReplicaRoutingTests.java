@@ -0,0 +1,114 @@
+package com.example.user_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.jdbc.DataSourcePoolMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enrutado a la réplica de lectura usando la misma base con dos nombres:
+ * cada pool se identifica por su application_name
+ */
+@DataJpaTest(properties = {
+        "datasource.replica.enabled=true",
+        "spring.datasource.hikari.data-source-properties.ApplicationName=primary-pool",
+        "datasource.replica.hikari.data-source-properties.ApplicationName=replica-pool"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReadReplicaDataSourceConfig.class)
+@ImportAutoConfiguration({ MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class,
+        DataSourcePoolMetricsAutoConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTests extends PostgresContainerTests {
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replica.url", POSTGRES::getJdbcUrl);
+        registry.add("datasource.replica.username", POSTGRES::getUsername);
+        registry.add("datasource.replica.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        String applicationName = readOnly.execute(status -> {
+            userRepository.count();
+            return applicationName();
+        });
+
+        assertThat(applicationName).isEqualTo("replica-pool");
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        String applicationName = readWrite.execute(status -> applicationName());
+
+        assertThat(applicationName).isEqualTo("primary-pool");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        doReturn(false).when(replicaLagMonitor).isAvailable();
+
+        String applicationName = readOnly.execute(status -> applicationName());
+
+        assertThat(applicationName).isEqualTo("primary-pool");
+    }
+
+    @Test
+    void eachPoolPublishesItsOwnMetrics() {
+        assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", "replica").gauge()).isNotNull();
+        assertThat(meterRegistry.find("datasource.replica.lag").gauge().value()).isZero();
+    }
+
+    private String applicationName() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.user_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.user_service.controller.UserController;
+import com.example.user_service.dto.UserResponse;
+import com.example.user_service.model.User;
+import com.example.user_service.service.CustomUserDetailsService;
+import com.example.user_service.service.LoginAttemptLimiter;
+import com.example.user_service.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que la cadena de la API no cree HttpSession en ningún caso y que
+ * la cadena de Swagger limite los intentos de HTTP Basic igual que la API
+ */
+@WebMvcTest(UserController.class)
+@Import({ SecurityConfig.class, LoginAttemptLimiter.class, StatelessSecurityTests.MetricsConfig.class })
+class StatelessSecurityTests {
+
+    private static final String EMAIL = "test@rockstadium.com";
+    private static final String PASSWORD = "Password1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .userId(1)
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(Set.of("ROLE_USER"))
+                .build();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+        when(userService.getUserById(anyInt())).thenReturn(UserResponse.builder().userId(1).email(EMAIL).build());
+        when(userService.getUserByIdInternal(anyInt(), any())).thenReturn(UserResponse.builder().userId(1).build());
+    }
+
+    @Test
+    void authenticatedApiCallDoesNotCreateSession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/users/1").with(httpBasic(EMAIL, PASSWORD)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void unauthenticatedApiCallDoesNotCreateSession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/users/1"))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void badCredentialsDoNotCreateSession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/users/1").with(httpBasic(EMAIL, "wrong")))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void publicInternalCallDoesNotCreateSession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/users/internal/1"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void swaggerChainThrottlesRepeatedBadCredentials() throws Exception {
+        String email = "swagger-" + EMAIL;
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(User.builder()
+                .userId(2)
+                .email(email)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(Set.of("ROLE_USER"))
+                .build());
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/v3/api-docs").with(httpBasic(email, "wrong")))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // El límite por email también aplica a la cadena de Swagger: ya no se consulta la BD
+        mockMvc.perform(get("/v3/api-docs").with(httpBasic(email, "wrong")))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.user_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Métricas por endpoint y detección de transacciones largas o con I/O remoto
+ */
+class TransactionMonitorTests {
+
+    private static final String ENDPOINT = "PUT /api/v1/users/{userId}/preferences/artists";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionMonitor monitor = new TransactionMonitor(meterRegistry, 50);
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+        transactionManager.setTransactionExecutionListeners(List.of(monitor));
+        tx = new TransactionTemplate(transactionManager);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/users/7/preferences/artists");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                "/api/v1/users/{userId}/preferences/artists");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void recordsTransactionDurationPerEndpoint() {
+        tx.executeWithoutResult(status -> {
+        });
+
+        assertThat(meterRegistry.get("db.transaction.duration")
+                .tag("endpoint", ENDPOINT).tag("outcome", "commit").timer().count()).isEqualTo(1);
+        assertThat(monitor.report().active()).isEmpty();
+        assertThat(monitor.report().recentSlow()).isEmpty();
+    }
+
+    @Test
+    void longTransactionIsReportedWithThreadStack() {
+        tx.executeWithoutResult(status -> {
+            sleep(80);
+            monitor.scan();
+            assertThat(monitor.report().active()).singleElement().satisfies(active -> {
+                assertThat(active.endpoint()).isEqualTo(ENDPOINT);
+                assertThat(active.stack()).anyMatch(frame -> frame.contains("longTransactionIsReportedWithThreadStack"));
+            });
+        });
+
+        assertThat(meterRegistry.get("db.transaction.long").tag("endpoint", ENDPOINT).counter().count()).isEqualTo(1);
+        assertThat(monitor.report().recentSlow()).singleElement()
+                .satisfies(slow -> assertThat(slow.durationMs()).isGreaterThanOrEqualTo(80));
+    }
+
+    @Test
+    void remoteCallInsideTransactionIsCounted() {
+        monitor.recordRemoteCall("spotify");
+        tx.executeWithoutResult(status -> monitor.recordRemoteCall("spotify"));
+
+        assertThat(meterRegistry.get("db.transaction.remote.calls")
+                .tag("endpoint", ENDPOINT).tag("target", "spotify").counter().count()).isEqualTo(1);
+        assertThat(monitor.report().recentSlow()).singleElement()
+                .satisfies(completed -> assertThat(completed.remoteCalls()).isEqualTo(1));
+    }
+
+    @Test
+    void connectionMetricsAreTaggedWithPoolAndEndpoint() {
+        IMetricsTracker tracker = new EndpointMetricsTrackerFactory.EndpointMetricsTracker("primary", meterRegistry,
+                new IMetricsTracker() {
+                });
+        tracker.recordConnectionAcquiredNanos(2_000_000);
+        tracker.recordConnectionUsageMillis(30);
+
+        assertThat(meterRegistry.get("db.connection.acquire").tag("pool", "primary").tag("endpoint", ENDPOINT)
+                .timer().count()).isEqualTo(1);
+        assertThat(monitor.report().endpoints().get(ENDPOINT).maxHoldMs()).isEqualTo(30);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Transaction manager sin recurso: solo dispara los listeners
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
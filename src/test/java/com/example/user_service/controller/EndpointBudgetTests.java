@@ -0,0 +1,602 @@
+package com.example.user_service.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.config.SecurityConfig;
+import com.example.user_service.config.SpotifyApiConfig;
+import com.example.user_service.dto.CommentAnalysisResponse;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.mapper.UserPreferenceMapper;
+import com.example.user_service.model.FavoriteArtist;
+import com.example.user_service.model.FavoriteGenre;
+import com.example.user_service.model.MusicGenre;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.ProfileLocation;
+import com.example.user_service.model.User;
+import com.example.user_service.model.UserPreference;
+import com.example.user_service.repository.FavoriteArtistRepository;
+import com.example.user_service.repository.FavoriteGenreRepository;
+import com.example.user_service.repository.MusicGenreRepository;
+import com.example.user_service.repository.ProfileLocationRepository;
+import com.example.user_service.repository.ProfileRepository;
+import com.example.user_service.repository.UserFieldLookupRepository;
+import com.example.user_service.repository.UserPreferenceRepository;
+import com.example.user_service.repository.UserRepository;
+import com.example.user_service.service.CommentAnalysisService;
+import com.example.user_service.service.CustomUserDetailsService;
+import com.example.user_service.service.LoginAttemptLimiter;
+import com.example.user_service.service.MusicGenreCatalog;
+import com.example.user_service.service.SpotifyService;
+import com.example.user_service.service.UserChangeServiceImpl;
+import com.example.user_service.service.UserChangeStream;
+import com.example.user_service.service.UserPreferenceServiceImpl;
+import com.example.user_service.service.UserEmailIndex;
+import com.example.user_service.service.UserExistenceIndex;
+import com.example.user_service.service.UserServiceImpl;
+import com.example.user_service.support.RequestBudget;
+import com.example.user_service.support.RequestBudgetTestConfig;
+import com.example.user_service.support.RequestCostMeter;
+
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import se.michaelthelin.spotify.SpotifyApi;
+
+/**
+ * Presupuesto de SQL y llamadas externas por endpoint
+ * Cada petición pasa por la cadena real (seguridad, controlador, servicio,
+ * repositorios y PostgreSQL); solo Spotify (a nivel HTTP) y Azure están
+ * simulados. Un N+1 o una llamada remota por elemento hace fallar el test
+ * con la lista de sentencias o peticiones ejecutadas.
+ * La autenticación HTTP Basic cuenta: cargar el usuario es una sentencia más.
+ * Para añadir un endpoint basta con otro meter.perform(...) con su presupuesto
+ */
+@WebMvcTest(controllers = { UserController.class, UserChangeController.class, UserPreferenceController.class,
+        CommentController.class },
+        properties = { "spotify.client.id=test-client", "spotify.client.secret=test-secret",
+                "users.email-index.sync-interval-ms=3600000", "users.changes.stream.poll-interval-ms=3600000" })
+@AutoConfigureDataJpa
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ RequestBudgetTestConfig.class, SecurityConfig.class, LoginAttemptLimiter.class,
+        CustomUserDetailsService.class, UserServiceImpl.class, UserExistenceIndex.class, UserEmailIndex.class, UserMapper.class,
+        UserChangeServiceImpl.class, UserChangeStream.class, UserFieldLookupRepository.class,
+        UserPreferenceServiceImpl.class, UserPreferenceMapper.class, MusicGenreCatalog.class,
+        SpotifyService.class, SpotifyApiConfig.class })
+class EndpointBudgetTests extends PostgresContainerTests {
+
+    private static final String PASSWORD = "Password1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RequestCostMeter meter;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private ProfileLocationRepository profileLocationRepository;
+
+    @Autowired
+    private UserPreferenceRepository userPreferenceRepository;
+
+    @Autowired
+    private MusicGenreRepository musicGenreRepository;
+
+    @Autowired
+    private FavoriteArtistRepository favoriteArtistRepository;
+
+    @Autowired
+    private FavoriteGenreRepository favoriteGenreRepository;
+
+    @Autowired
+    private MusicGenreCatalog musicGenreCatalog;
+
+    @Autowired
+    private UserEmailIndex userEmailIndex;
+
+    @Autowired
+    private UserChangeStream userChangeStream;
+
+    @Autowired
+    private SpotifyApiConfig spotifyApiConfig;
+
+    @Autowired
+    private SpotifyApi spotifyApi;
+
+    @MockitoBean
+    private CommentAnalysisService commentAnalysisService;
+
+    private String email;
+    private Integer userId;
+    private Integer rockId;
+    private Integer jazzId;
+
+    @BeforeEach
+    void setUp() {
+        email = "budget-" + System.nanoTime() + "@rockstadium.com";
+        User user = userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode(PASSWORD))
+                .userType("USER")
+                .roles(Set.of("ROLE_USER"))
+                .build());
+        Profile profile = profileRepository.save(Profile.builder()
+                .name("Budget").user(user).build());
+        profileLocationRepository.save(ProfileLocation.builder()
+                .municipality("Toluca").state("Estado de México").country("México").profile(profile).build());
+        userPreferenceRepository.save(UserPreference.builder()
+                .searchRadius(BigDecimal.TEN).emailNotifications(true).profile(profile).build());
+        MusicGenre rock = musicGenreRepository.save(MusicGenre.builder().name("rock-" + System.nanoTime()).build());
+        MusicGenre jazz = musicGenreRepository.save(MusicGenre.builder().name("jazz-" + System.nanoTime()).build());
+        favoriteArtistRepository.save(FavoriteArtist.builder().spotifyId("artist1").profile(profile).build());
+        favoriteArtistRepository.save(FavoriteArtist.builder().spotifyId("artist2").profile(profile).build());
+        favoriteGenreRepository.save(FavoriteGenre.builder().musicGenre(rock).profile(profile).build());
+        // Los contadores solo los escriben las consultas nativas
+        jdbcTemplate.update("UPDATE profiles SET favorite_artists_count = 2, favorite_genres_count = 1 WHERE profile_id = ?",
+                profile.getProfileId());
+
+        userId = user.getUserId();
+        rockId = rock.getMusicGenreId();
+        jazzId = jazz.getMusicGenreId();
+        musicGenreCatalog.reload();
+        // El usuario se creó por JPA: se recoge como lo haría la sincronización periódica
+        userEmailIndex.sync();
+        // El token se reutiliza entre peticiones: se mide el estado estable
+        spotifyApiConfig.getAccessToken(spotifyApi);
+
+        CommentAnalysisResponse analysis = CommentAnalysisResponse.builder().sentiment("positive").build();
+        when(commentAnalysisService.analyzeGeneralComment(anyInt(), anyString())).thenReturn(analysis);
+        when(commentAnalysisService.analyzeConcertComment(anyInt(), anyString(), any())).thenReturn(analysis);
+    }
+
+    // ===== USERS =====
+
+    @Test
+    void register() throws Exception {
+        meter.perform(mockMvc, json(post("/api/v1/users/register"), """
+                {"email":"new-%s","password":"Password1","name":"New","location":"Toluca, Estado de México, México"}
+                """.formatted(email)), RequestBudget.sql(5))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void login() throws Exception {
+        meter.perform(mockMvc, json(post("/api/v1/users/login"), """
+                {"email":"%s","password":"%s"}
+                """.formatted(email, PASSWORD)), RequestBudget.sql(1))
+                .andExpect(status().isOk());
+        // Email inexistente: lo descarta el índice en memoria
+        meter.perform(mockMvc, json(post("/api/v1/users/login"), """
+                {"email":"unknown-%s","password":"%s"}
+                """.formatted(email, PASSWORD)), RequestBudget.sql(0))
+                .andExpect(status().isNotFound());
+        meter.perform(mockMvc, get("/api/v1/users/{userId}", userId)
+                .with(httpBasic("unknown-" + email, PASSWORD)), RequestBudget.sql(0))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getUser() throws Exception {
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}", userId)), RequestBudget.sql(2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile.location.municipality").value("Toluca"));
+    }
+
+    @Test
+    void getUserNotModified() throws Exception {
+        String etag = mockMvc.perform(authenticated(get("/api/v1/users/{userId}", userId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Solo la autenticación y la consulta de la versión
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}", userId))
+                .header(HttpHeaders.IF_NONE_MATCH, etag), RequestBudget.sql(2))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(authenticated(json(put("/api/v1/users/{userId}/profile", userId), """
+                {"name":"Renamed"}
+                """))).andExpect(status().isOk());
+        mockMvc.perform(authenticated(get("/api/v1/users/{userId}", userId)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.profile.name").value("Renamed"));
+    }
+
+    @Test
+    void getUserInternal() throws Exception {
+        // Sin fields= se mantiene el contrato completo, null incluidos
+        meter.perform(mockMvc, get("/api/v1/users/internal/{userId}", userId), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userType").hasJsonPath())
+                .andExpect(jsonPath("$.password").hasJsonPath())
+                .andExpect(jsonPath("$.createdAt").hasJsonPath())
+                .andExpect(jsonPath("$.updatedAt").hasJsonPath());
+        meter.perform(mockMvc, get("/api/v1/users/internal/email/{email}", email), RequestBudget.sql(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getUserInternalFields() throws Exception {
+        // Sin roles ni perfil: una sola fila por usuario y solo las columnas pedidas
+        meter.perform(mockMvc, get("/api/v1/users/internal/{userId}", userId).param("fields", "email,password"),
+                RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId))
+                .andExpect(jsonPath("$.email").value(email))
+                .andExpect(jsonPath("$.password").exists())
+                .andExpect(jsonPath("$.roles").doesNotHaveJsonPath())
+                .andExpect(jsonPath("$.profile").doesNotHaveJsonPath())
+                .andExpect(jsonPath("$.accountStatus").doesNotHaveJsonPath());
+        meter.perform(mockMvc, get("/api/v1/users/internal/email/{email}", email).param("fields", "roles,profile"),
+                RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").doesNotHaveJsonPath())
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_USER"))
+                .andExpect(jsonPath("$.profile.location.municipality").value("Toluca"));
+        meter.perform(mockMvc, json(post("/api/v1/users/internal/batch").param("fields", "accountStatus"), """
+                {"userIds": [999999], "emails": ["%s"]}
+                """.formatted(email)), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byEmail['" + email + "'].user.userId").value(userId))
+                .andExpect(jsonPath("$.byEmail['" + email + "'].user.accountStatus.enabled").value(true))
+                .andExpect(jsonPath("$.byEmail['" + email + "'].user.email").doesNotHaveJsonPath())
+                .andExpect(jsonPath("$.byId['999999'].found").value(false));
+        mockMvc.perform(get("/api/v1/users/internal/{userId}", userId).param("fields", "email,creditCard"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void userExists() throws Exception {
+        // El usuario se creó por JPA en el setUp: el primer fallo lo confirma en BD y lo añade al índice
+        meter.perform(mockMvc, get("/api/v1/users/{userId}/exists", userId), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+        meter.perform(mockMvc, get("/api/v1/users/{userId}/exists", userId), RequestBudget.sql(0))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+        meter.perform(mockMvc, get("/api/v1/users/{userId}/exists", 999999), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(content().string("false"));
+    }
+
+    @Test
+    void getUsersInternalBatch() throws Exception {
+        meter.perform(mockMvc, json(post("/api/v1/users/internal/batch"), """
+                {"userIds": [%d, 999999], "emails": ["%s", "nobody@rockstadium.com"]}
+                """.formatted(userId, email)), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byId['" + userId + "'].found").value(true))
+                .andExpect(jsonPath("$.byId['" + userId + "'].user.profile.location.municipality").value("Toluca"))
+                .andExpect(jsonPath("$.byId['999999'].found").value(false))
+                .andExpect(jsonPath("$.byEmail['" + email + "'].user.userId").value(userId))
+                .andExpect(jsonPath("$.byEmail['nobody@rockstadium.com'].found").value(false));
+        meter.perform(mockMvc, json(post("/api/v1/users/internal/batch"), """
+                {"userIds": [%d]}
+                """.formatted(userId)), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byId['" + userId + "'].user.email").value(email));
+    }
+
+    @Test
+    void changeFeed() throws Exception {
+        String cursor = latestChangeCursor();
+        mockMvc.perform(authenticated(json(put("/api/v1/users/{userId}/profile", userId), """
+                {"name":"Renamed"}
+                """))).andExpect(status().isOk());
+
+        meter.perform(mockMvc, get("/api/v1/users/internal/changes").param("since", cursor), RequestBudget.sql(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].userId").value(userId))
+                .andExpect(jsonPath("$.changes[0].type").value("PROFILE_UPDATED"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").value(not(cursor)));
+        mockMvc.perform(get("/api/v1/users/internal/changes").param("since", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changeStream() throws Exception {
+        String cursor = latestChangeCursor();
+        MvcResult stream = mockMvc.perform(get("/api/v1/users/internal/changes/stream").param("since", cursor))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(authenticated(json(put("/api/v1/users/{userId}/password", userId), """
+                {"oldPassword":"%s","newPassword":"Password2"}
+                """.formatted(PASSWORD)))).andExpect(status().isOk());
+
+        try {
+            // Primer sondeo: se pone al día desde el cursor; el segundo no repite la entrada
+            userChangeStream.poll();
+            userChangeStream.poll();
+            // El envío va por el pool del stream, no por el hilo del sondeo
+            String events = awaitContent(stream, "PASSWORD_CHANGED");
+            assertThat(events).contains("event:user-change")
+                    .contains("\"userId\":" + userId)
+                    .contains("\"type\":\"PASSWORD_CHANGED\"");
+            assertThat(events.split("event:user-change", -1)).hasSize(2);
+        } finally {
+            userChangeStream.close();
+        }
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    void updateProfile() throws Exception {
+        meter.perform(mockMvc, authenticated(json(put("/api/v1/users/{userId}/profile", userId), """
+                {"name":"Renamed","location":"Metepec, Estado de México, México"}
+                """)), RequestBudget.sql(6))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void foreignOrUnknownUserIsForbidden() throws Exception {
+        // Un usuario inexistente responde igual que uno ajeno: no se revela qué IDs existen
+        Integer otherUserId = userRepository.save(User.builder()
+                .email("other-" + email).password("hash").userType("USER").build()).getUserId();
+        for (Integer target : new Integer[] { otherUserId, Integer.MAX_VALUE }) {
+            mockMvc.perform(authenticated(json(put("/api/v1/users/{userId}/profile", target), """
+                    {"name":"Renamed"}
+                    """))).andExpect(status().isForbidden());
+            mockMvc.perform(authenticated(get("/api/v1/users/{userId}", target)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(authenticated(post("/api/v1/users/{userId}/logout", target)))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    void changePassword() throws Exception {
+        meter.perform(mockMvc, authenticated(json(put("/api/v1/users/{userId}/password", userId), """
+                {"oldPassword":"%s","newPassword":"Password2"}
+                """.formatted(PASSWORD))), RequestBudget.sql(5))
+                .andExpect(status().isOk());
+    }
+
+    // ===== PREFERENCES =====
+
+    @Test
+    void preferencesSummary() throws Exception {
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences", userId)),
+                RequestBudget.sql(2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favoriteArtistsCount").value(2));
+    }
+
+    @Test
+    void preferencesFull() throws Exception {
+        double remoteCallsInTransaction = remoteCallsInTransaction();
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences", userId).param("full", "true")),
+                RequestBudget.sql(4).spotify(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favoriteArtists.length()").value(2));
+        // Spotify se consulta después de cerrar la transacción de lectura
+        assertThat(remoteCallsInTransaction()).isEqualTo(remoteCallsInTransaction);
+    }
+
+    @Test
+    void preferencesNotModified() throws Exception {
+        String fullEtag = mockMvc.perform(authenticated(get("/api/v1/users/{userId}/preferences", userId)
+                .param("full", "true")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String summaryEtag = mockMvc.perform(authenticated(get("/api/v1/users/{userId}/preferences", userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(summaryEtag).isNotEqualTo(fullEtag);
+
+        // Solo la autenticación y la consulta de contexto: sin favoritos ni Spotify
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences", userId)
+                .param("full", "true")
+                .header(HttpHeaders.IF_NONE_MATCH, fullEtag)), RequestBudget.sql(2).spotify(0))
+                .andExpect(status().isNotModified());
+
+        // Cualquier cambio de favoritos o ajustes invalida ambas representaciones
+        mockMvc.perform(authenticated(json(post("/api/v1/users/{userId}/preferences/genres", userId), """
+                {"genreId":%d}
+                """.formatted(jazzId)))).andExpect(status().isOk());
+        mockMvc.perform(authenticated(get("/api/v1/users/{userId}/preferences", userId)
+                .param("full", "true")
+                .header(HttpHeaders.IF_NONE_MATCH, fullEtag)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favoriteGenres.length()").value(2));
+
+        mockMvc.perform(authenticated(json(put("/api/v1/users/{userId}/preferences", userId), """
+                {"searchRadiusKm":20}
+                """))).andExpect(status().isOk());
+        mockMvc.perform(authenticated(get("/api/v1/users/{userId}/preferences", userId)
+                .header(HttpHeaders.IF_NONE_MATCH, summaryEtag)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.searchRadius").value(20));
+    }
+
+    @Test
+    void updatePreferences() throws Exception {
+        meter.perform(mockMvc, authenticated(json(put("/api/v1/users/{userId}/preferences", userId), """
+                {"searchRadiusKm":20,"emailNotifications":false}
+                """)), RequestBudget.sql(4))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void favoriteArtistPages() throws Exception {
+        double remoteCallsInTransaction = remoteCallsInTransaction();
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences/artists", userId)),
+                RequestBudget.sql(3).spotify(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences/artists/scroll", userId)),
+                RequestBudget.sql(3).spotify(1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+        // Paginado y scroll consultan Spotify con la transacción ya cerrada
+        assertThat(remoteCallsInTransaction()).isEqualTo(remoteCallsInTransaction);
+    }
+
+    @Test
+    void addAndRemoveFavoriteArtist() throws Exception {
+        double remoteCallsInTransaction = remoteCallsInTransaction();
+        meter.perform(mockMvc, authenticated(json(post("/api/v1/users/{userId}/preferences/artists", userId), """
+                {"spotifyId":"artist3"}
+                """)), RequestBudget.sql(5).spotify(1))
+                .andExpect(status().isOk());
+        meter.perform(mockMvc, authenticated(delete("/api/v1/users/{userId}/preferences/artists/{spotifyId}",
+                userId, "artist3")), RequestBudget.sql(4).spotify(1))
+                .andExpect(status().isOk());
+        assertThat(remoteCallsInTransaction()).isEqualTo(remoteCallsInTransaction);
+    }
+
+    @Test
+    void replaceFavoriteArtists() throws Exception {
+        double remoteCallsInTransaction = remoteCallsInTransaction();
+        meter.perform(mockMvc, authenticated(json(put("/api/v1/users/{userId}/preferences/artists", userId), """
+                {"spotifyIds":["artist2","artist3","artist4"]}
+                """)), RequestBudget.sql(8).spotify(1))
+                .andExpect(status().isOk());
+        // La validación contra Spotify ocurre antes de abrir la transacción
+        assertThat(remoteCallsInTransaction()).isEqualTo(remoteCallsInTransaction);
+    }
+
+    @Test
+    void favoriteGenrePages() throws Exception {
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences/genres", userId)),
+                RequestBudget.sql(3))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        meter.perform(mockMvc, authenticated(get("/api/v1/users/{userId}/preferences/genres/scroll", userId)),
+                RequestBudget.sql(3))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void addAndRemoveFavoriteGenre() throws Exception {
+        meter.perform(mockMvc, authenticated(json(post("/api/v1/users/{userId}/preferences/genres", userId), """
+                {"genreId":%d}
+                """.formatted(jazzId))), RequestBudget.sql(5))
+                .andExpect(status().isOk());
+        meter.perform(mockMvc, authenticated(json(delete("/api/v1/users/{userId}/preferences/genres", userId), """
+                {"genreId":%d}
+                """.formatted(jazzId))), RequestBudget.sql(4))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void replaceFavoriteGenres() throws Exception {
+        meter.perform(mockMvc, authenticated(json(put("/api/v1/users/{userId}/preferences/genres", userId), """
+                {"genreIds":[%d,%d]}
+                """.formatted(rockId, jazzId))), RequestBudget.sql(6))
+                .andExpect(status().isOk());
+    }
+
+    // ===== COMMENTS =====
+
+    @Test
+    void analyzeComments() throws Exception {
+        meter.perform(mockMvc, authenticated(json(post("/api/v1/comments/general"), """
+                {"comment":"Me encanta RockStadium"}
+                """)), RequestBudget.sql(1).azure(1))
+                .andExpect(status().isOk());
+        meter.perform(mockMvc, authenticated(json(post("/api/v1/comments/concert"), """
+                {"concertName":"Metallica","comment":"Increíble concierto"}
+                """)), RequestBudget.sql(1).azure(1))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Llamadas remotas hechas con una transacción abierta (TransactionMonitor)
+     */
+    private double remoteCallsInTransaction() {
+        return meterRegistry.find("db.transaction.remote.calls").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.with(httpBasic(email, PASSWORD));
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, String body) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    /**
+     * Cursor al final del feed (la BD de tests es compartida y ya tiene cambios)
+     */
+    private String latestChangeCursor() throws Exception {
+        String cursor = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            MockHttpServletRequestBuilder request = get("/api/v1/users/internal/changes").param("limit", "1000");
+            if (cursor != null) {
+                request.param("since", cursor);
+            }
+            String body = mockMvc.perform(request).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            cursor = JsonPath.read(body, "$.nextCursor");
+            hasMore = JsonPath.read(body, "$.hasMore");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.user_service.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga de lazo cerrado: endpoints internos bloqueantes (JPA) frente
+ * a los reactivos (R2DBC) contra una instancia ya arrancada.
+ * Para comparar a memoria fija, arrancar el servicio con el mismo heap y
+ * límite de hilos en ambas pasadas, por ejemplo:
+ *
+ *   DB_REACTIVE_ENABLED=true java -Xmx256m -jar user-service.jar --server.tomcat.threads.max=50
+ *
+ * Ejecutar: mvn test-compile y luego main() con el classpath de test.
+ * Propiedades: -Dbase.url (http://localhost:8080), -Dusers (IDs existentes,
+ * "1-1000"), -Dclients (200), -Dseconds (30) y -Dadmin=email:password para
+ * leer jvm.memory.used y jvm.threads.live de /actuator/metrics tras cada pasada
+ */
+public class InternalLookupLoadBenchmark {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("base.url", "http://localhost:8080");
+        String[] users = System.getProperty("users", "1-1000").split("-");
+        int firstUser = Integer.parseInt(users[0]);
+        int lastUser = Integer.parseInt(users[users.length - 1]);
+        int clients = Integer.getInteger("clients", 200);
+        int seconds = Integer.getInteger("seconds", 30);
+        String admin = System.getProperty("admin");
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(clients))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        for (String path : List.of("/api/v1/users/internal/", "/api/v1/users/internal/reactive/")) {
+            // Calentamiento corto antes de cada pasada medida
+            run(http, baseUrl + path, firstUser, lastUser, clients, 5);
+            Result result = run(http, baseUrl + path, firstUser, lastUser, clients, seconds);
+            System.out.printf("%-36s %8.0f req/s  p50 %6.1f ms  p99 %6.1f ms  errors %d%s%n", path,
+                    result.requests() / (double) seconds, result.percentile(0.50), result.percentile(0.99),
+                    result.errors(), admin != null ? "  " + serverMetrics(http, baseUrl, admin) : "");
+        }
+        System.exit(0);
+    }
+
+    private record Result(long requests, long errors, long[] latenciesNanos) {
+
+        double percentile(double p) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            return latenciesNanos[(int) Math.min(latenciesNanos.length - 1, latenciesNanos.length * p)] / 1e6;
+        }
+    }
+
+    private static Result run(HttpClient http, String url, int firstUser, int lastUser, int clients, int seconds)
+            throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                long errors = 0;
+                while (System.nanoTime() < deadline) {
+                    int userId = ThreadLocalRandom.current().nextInt(firstUser, lastUser + 1);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(url + userId))
+                                .timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors++;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = errors;
+                return result;
+            }));
+        }
+
+        long errors = 0;
+        List<long[]> all = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            errors += latencies[latencies.length - 1];
+            all.add(Arrays.copyOf(latencies, latencies.length - 1));
+        }
+        pool.shutdown();
+
+        long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(merged.length, errors, merged);
+    }
+
+    private static String serverMetrics(HttpClient http, String baseUrl, String admin) {
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(admin.getBytes(StandardCharsets.UTF_8));
+        long heapMegabytes = (long) (metric(http, baseUrl + "/actuator/metrics/jvm.memory.used?tag=area:heap",
+                authorization) / (1024 * 1024));
+        long threads = (long) metric(http, baseUrl + "/actuator/metrics/jvm.threads.live", authorization);
+        return "heap " + heapMegabytes + " MB  threads " + threads;
+    }
+
+    private static double metric(HttpClient http, String url, String authorization) {
+        try {
+            String body = http.send(HttpRequest.newBuilder(URI.create(url)).header("Authorization", authorization)
+                    .build(), HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = METRIC_VALUE.matcher(body);
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
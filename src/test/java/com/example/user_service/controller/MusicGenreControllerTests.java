@@ -0,0 +1,123 @@
+package com.example.user_service.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.user_service.config.SecurityConfig;
+import com.example.user_service.service.CustomUserDetailsService;
+import com.example.user_service.service.LoginAttemptLimiter;
+import com.example.user_service.service.MusicGenreCatalog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Catálogo público servido con ETag fuerte, gzip y 304, y typeahead
+ */
+@WebMvcTest(MusicGenreController.class)
+@Import({ SecurityConfig.class, LoginAttemptLimiter.class, MusicGenreControllerTests.MetricsConfig.class })
+class MusicGenreControllerTests {
+
+    private static final byte[] JSON = "[{\"musicGenreId\":1,\"name\":\"Rock\"}]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP = { 0x1f, (byte) 0x8b, 0x08 };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MusicGenreCatalog musicGenreCatalog;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(musicGenreCatalog.getSerialized())
+                .thenReturn(new MusicGenreCatalog.SerializedCatalog(JSON, GZIP, "\"abc\"", "\"abc-gzip\""));
+    }
+
+    @Test
+    void servesPlainJsonWithStrongEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/genres"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(JSON));
+    }
+
+    @Test
+    void servesGzipWhenAccepted() throws Exception {
+        mockMvc.perform(get("/api/v1/genres").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-gzip\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(GZIP));
+    }
+
+    @Test
+    void refusedGzipIsServedAsPlainJson() throws Exception {
+        for (String acceptEncoding : new String[] { "gzip;q=0", "br, gzip; q=0.0", "*;q=0", "x-gzipped", "identity" }) {
+            mockMvc.perform(get("/api/v1/genres").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(content().bytes(JSON));
+        }
+    }
+
+    @Test
+    void acceptEncodingQualityValues() {
+        assertThat(MusicGenreController.acceptsGzip("GZIP;q=0.5")).isTrue();
+        assertThat(MusicGenreController.acceptsGzip("br;q=1, *;q=0.1")).isTrue();
+        assertThat(MusicGenreController.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(MusicGenreController.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(MusicGenreController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/genres")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void suggestIsPublicAndBoundsLimit() throws Exception {
+        when(musicGenreCatalog.suggest("roc", 25))
+                .thenReturn(List.of(new MusicGenreCatalog.Entry(1, "Rock", null)));
+
+        mockMvc.perform(get("/api/v1/genres/suggest").param("q", "roc").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].musicGenreId").value(1))
+                .andExpect(jsonPath("$[0].name").value("Rock"));
+    }
+}
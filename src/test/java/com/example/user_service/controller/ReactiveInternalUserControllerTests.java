@@ -0,0 +1,140 @@
+package com.example.user_service.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.config.ReactiveLookupConfig;
+import com.example.user_service.config.SecurityConfig;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.ProfileLocation;
+import com.example.user_service.model.User;
+import com.example.user_service.repository.ProfileLocationRepository;
+import com.example.user_service.repository.ProfileRepository;
+import com.example.user_service.repository.ReactiveUserLookupRepository;
+import com.example.user_service.repository.UserFieldLookupRepository;
+import com.example.user_service.repository.UserRepository;
+import com.example.user_service.service.CustomUserDetailsService;
+import com.example.user_service.service.LoginAttemptLimiter;
+import com.example.user_service.service.ReactiveUserLookupService;
+import com.example.user_service.service.UserChangeServiceImpl;
+import com.example.user_service.service.UserEmailIndex;
+import com.example.user_service.service.UserExistenceIndex;
+import com.example.user_service.service.UserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Los endpoints internos reactivos (R2DBC) devuelven exactamente lo mismo que
+ * los bloqueantes (JPA) y se resuelven de forma asíncrona
+ */
+@WebMvcTest(controllers = { UserController.class, ReactiveInternalUserController.class },
+        properties = "datasource.reactive.enabled=true")
+@AutoConfigureDataJpa
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ReactiveLookupConfig.class, ReactiveUserLookupRepository.class, ReactiveUserLookupService.class,
+        UserServiceImpl.class, UserExistenceIndex.class, UserEmailIndex.class, UserChangeServiceImpl.class, UserMapper.class,
+        UserFieldLookupRepository.class, SecurityConfig.class, LoginAttemptLimiter.class,
+        CustomUserDetailsService.class, ReactiveInternalUserControllerTests.MetricsConfig.class })
+class ReactiveInternalUserControllerTests extends PostgresContainerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private ProfileLocationRepository profileLocationRepository;
+
+    private String email;
+    private Integer userId;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        email = "reactive-" + System.nanoTime() + "@rockstadium.com";
+        User user = userRepository.save(User.builder()
+                .email(email)
+                .password("hash")
+                .userType("USER")
+                .roles(Set.of("ROLE_USER", "ROLE_ADMIN"))
+                .build());
+        Profile profile = profileRepository.save(Profile.builder().name("Reactive").user(user).build());
+        profileLocationRepository.save(ProfileLocation.builder()
+                .municipality("Toluca").state("Estado de México").country("México").profile(profile).build());
+        userId = user.getUserId();
+    }
+
+    @Test
+    void lookupByIdMatchesBlockingEndpoint() throws Exception {
+        String blocking = mockMvc.perform(get("/api/v1/users/internal/{userId}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String reactive = reactive("/api/v1/users/internal/reactive/{id}", userId, status().isOk());
+
+        assertThat(objectMapper.readTree(reactive)).isEqualTo(objectMapper.readTree(blocking));
+    }
+
+    @Test
+    void lookupByEmailMatchesBlockingEndpoint() throws Exception {
+        String blocking = mockMvc.perform(get("/api/v1/users/internal/email/{email}", email))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String reactive = reactive("/api/v1/users/internal/reactive/email/{email}", email, status().isOk());
+
+        assertThat(objectMapper.readTree(reactive)).isEqualTo(objectMapper.readTree(blocking));
+        assertThat(objectMapper.readTree(reactive).get("roles")).hasSize(2);
+    }
+
+    @Test
+    void unknownUserIsNotFound() throws Exception {
+        reactive("/api/v1/users/internal/reactive/{id}", Integer.MAX_VALUE, status().isNotFound());
+        reactive("/api/v1/users/internal/reactive/email/{email}", "missing@rockstadium.com", status().isNotFound());
+    }
+
+    private String reactive(String path, Object variable, ResultMatcher expectedStatus) throws Exception {
+        MvcResult started = mockMvc.perform(get(path, variable))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(expectedStatus)
+                .andReturn().getResponse().getContentAsString();
+    }
+}
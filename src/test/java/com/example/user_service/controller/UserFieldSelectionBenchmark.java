@@ -0,0 +1,75 @@
+package com.example.user_service.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.user_service.dto.UserField;
+import com.example.user_service.dto.UserLookupRow;
+import com.example.user_service.mapper.UserMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Coste de construir y serializar la respuesta interna de un usuario con y
+ * sin fields= (mismo ObjectMapper que Spring MVC). Al preparar el estado
+ * imprime los bytes del cuerpo JSON de cada selección
+ *
+ * Ejecutar: mvn test-compile y luego main() con el classpath de test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserFieldSelectionBenchmark {
+
+    @Param({ "", "email,password,roles", "email" })
+    private String fields;
+
+    private final UserMapper mapper = new UserMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<UserLookupRow> rows;
+    private Set<UserField> selection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        selection = UserField.parse(fields);
+        LocalDateTime now = LocalDateTime.now();
+        rows = List.of("ROLE_USER", "ROLE_ADMIN").stream()
+                .map(role -> new UserLookupRow(42, "fan42@rockstadium.com",
+                        "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6w1OxR3c1S1UVZqBH0e5Kzy", "USER", true, true, true,
+                        true, now, now, role, 42, "Fan 42", 42, "Toluca", "Estado de México", "México"))
+                .toList();
+        System.out.printf("%nfields=%-22s %4d bytes%n", fields.isEmpty() ? "(full)" : fields,
+                objectMapper.writeValueAsBytes(mapper.toResponse(rows, selection)).length);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapper.toResponse(rows, selection));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserFieldSelectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.user_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.model.MusicGenre;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.User;
+import com.example.user_service.service.FavoriteCountersReconciler;
+
+/**
+ * Stress test de la inserción condicional de favoritos
+ * Muchas altas concurrentes del mismo perfil nunca superan el límite ni
+ * generan duplicados, y los contadores de profiles siguen las filas reales
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FavoriteInsertConcurrencyTests extends PostgresContainerTests {
+
+    private static final int MAX_FAVORITE_ARTISTS = 40;
+    private static final int MAX_FAVORITE_GENRES = 30;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private FavoriteArtistRepository favoriteArtistRepository;
+
+    @Autowired
+    private FavoriteGenreRepository favoriteGenreRepository;
+
+    @Autowired
+    private MusicGenreRepository musicGenreRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate tx;
+    private Integer userId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        userId = tx.execute(status -> {
+            User user = userRepository.save(User.builder()
+                    .email("stress-" + System.nanoTime() + "@rockstadium.com")
+                    .password("hash")
+                    .userType("USER")
+                    .build());
+            profileRepository.save(Profile.builder().name("Stress").user(user).build());
+            return user.getUserId();
+        });
+    }
+
+    @Test
+    void concurrentArtistAddsNeverExceedLimit() throws Exception {
+        List<FavoriteInsertOutcome> outcomes = runConcurrently(60, i -> addArtist("artist-" + i));
+
+        assertThat(outcomes).filteredOn(o -> o == FavoriteInsertOutcome.ADDED).hasSize(MAX_FAVORITE_ARTISTS);
+        assertThat(outcomes).filteredOn(o -> o == FavoriteInsertOutcome.LIMIT_REACHED).hasSize(20);
+        assertThat(favoriteArtistRepository.countByProfileProfileId(profileId())).isEqualTo(MAX_FAVORITE_ARTISTS);
+        assertThat(profile().getFavoriteArtistsCount()).isEqualTo(MAX_FAVORITE_ARTISTS);
+    }
+
+    @Test
+    void concurrentAddsAndRemovesKeepCounterInSync() throws Exception {
+        runConcurrently(20, i -> addArtist("artist-" + i));
+        runConcurrently(20, i -> {
+            if (i % 2 == 0) {
+                tx.execute(status -> favoriteArtistRepository.deleteAndDecrement(profileId(), "artist-" + i));
+                return null;
+            }
+            return addArtist("artist-" + (100 + i));
+        });
+
+        assertThat(profile().getFavoriteArtistsCount())
+                .isEqualTo((int) favoriteArtistRepository.countByProfileProfileId(profileId()))
+                .isEqualTo(20);
+    }
+
+    @Test
+    void reconcilerRepairsDriftedCounters() {
+        for (int i = 0; i < 5; i++) {
+            addArtist("artist-" + i);
+        }
+        jdbcTemplate.update("UPDATE profiles SET favorite_artists_count = 17, favorite_genres_count = 3 WHERE profile_id = ?",
+                profileId());
+
+        new FavoriteCountersReconciler(profileRepository, transactionManager).reconcile();
+
+        assertThat(profile().getFavoriteArtistsCount()).isEqualTo(5);
+        assertThat(profile().getFavoriteGenresCount()).isZero();
+    }
+
+    @Test
+    void savingStaleProfileKeepsCounters() {
+        Profile stale = profile();
+        for (int i = 0; i < 3; i++) {
+            addArtist("artist-" + i);
+        }
+
+        // Como updateProfile: guarda un Profile cargado antes de las altas
+        tx.executeWithoutResult(status -> {
+            stale.setName("Renamed");
+            profileRepository.save(stale);
+        });
+
+        assertThat(profile().getName()).isEqualTo("Renamed");
+        assertThat(profile().getFavoriteArtistsCount()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentAddsOfSameArtistInsertOnce() throws Exception {
+        List<FavoriteInsertOutcome> outcomes = runConcurrently(40, i -> addArtist("same-artist"));
+
+        assertThat(outcomes).filteredOn(o -> o == FavoriteInsertOutcome.ADDED).hasSize(1);
+        assertThat(outcomes).filteredOn(o -> o == FavoriteInsertOutcome.DUPLICATE).hasSize(39);
+        assertThat(favoriteArtistRepository.countByProfileProfileId(profileId())).isEqualTo(1);
+        assertThat(profile().getFavoriteArtistsCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentGenreAddsNeverExceedLimit() throws Exception {
+        List<Integer> genreIds = tx.execute(status -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < 45; i++) {
+                ids.add(musicGenreRepository.save(MusicGenre.builder()
+                        .name("genre-" + System.nanoTime() + "-" + i)
+                        .build()).getMusicGenreId());
+            }
+            return ids;
+        });
+
+        List<FavoriteInsertOutcome> outcomes = runConcurrently(genreIds.size(), i -> addGenre(genreIds.get(i)));
+
+        assertThat(outcomes).filteredOn(o -> o == FavoriteInsertOutcome.ADDED).hasSize(MAX_FAVORITE_GENRES);
+        assertThat(favoriteGenreRepository.countByProfileProfileId(profileId())).isEqualTo(MAX_FAVORITE_GENRES);
+        assertThat(profile().getFavoriteGenresCount()).isEqualTo(MAX_FAVORITE_GENRES);
+    }
+
+    private FavoriteInsertOutcome addArtist(String spotifyId) {
+        return tx.execute(status -> {
+            Profile profile = profileRepository.findWithLockByUserUserId(userId).orElseThrow();
+            return favoriteArtistRepository.addIfUnderLimit(profile.getProfileId(), spotifyId, MAX_FAVORITE_ARTISTS);
+        });
+    }
+
+    private FavoriteInsertOutcome addGenre(Integer genreId) {
+        return tx.execute(status -> {
+            Profile profile = profileRepository.findWithLockByUserUserId(userId).orElseThrow();
+            return favoriteGenreRepository.addIfUnderLimit(profile.getProfileId(), genreId, MAX_FAVORITE_GENRES);
+        });
+    }
+
+    private Profile profile() {
+        return profileRepository.findByUserUserId(userId).orElseThrow();
+    }
+
+    private Integer profileId() {
+        return profile().getProfileId();
+    }
+
+
+    private List<FavoriteInsertOutcome> runConcurrently(int attempts, IntFunction<FavoriteInsertOutcome> attempt)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<FavoriteInsertOutcome>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return attempt.apply(index);
+                }));
+            }
+            start.countDown();
+
+            List<FavoriteInsertOutcome> outcomes = new ArrayList<>();
+            for (Future<FavoriteInsertOutcome> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.user_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.model.MusicGenre;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.User;
+
+/**
+ * Sentencias en bloque del reemplazo de favoritos: insertan/eliminan varias
+ * filas a la vez y mantienen los contadores de profiles
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FavoriteReplaceTests extends PostgresContainerTests {
+
+    @Autowired
+    private FavoriteArtistRepository favoriteArtistRepository;
+
+    @Autowired
+    private FavoriteGenreRepository favoriteGenreRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Integer profileId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("replace-" + System.nanoTime() + "@rockstadium.com")
+                .password("hash")
+                .userType("USER")
+                .build());
+        profileId = entityManager.persist(Profile.builder().name("Replace").user(user).build()).getProfileId();
+        entityManager.flush();
+    }
+
+    @Test
+    void artistBatchInsertSkipsExistingAndCountsInserted() {
+        assertThat(favoriteArtistRepository.insertAllAndIncrement(profileId, List.of("a", "b"))).isEqualTo(2);
+        assertThat(favoriteArtistRepository.insertAllAndIncrement(profileId, List.of("b", "c", "d"))).isEqualTo(2);
+
+        assertThat(favoriteArtistRepository.findSpotifyIdsByProfileId(profileId))
+                .containsExactlyInAnyOrder("a", "b", "c", "d");
+        assertThat(favoritesCount("favorite_artists_count")).isEqualTo(4);
+    }
+
+    @Test
+    void artistBatchDeleteIgnoresMissingAndDecrements() {
+        favoriteArtistRepository.insertAllAndIncrement(profileId, List.of("a", "b", "c"));
+
+        assertThat(favoriteArtistRepository.deleteAllAndDecrement(profileId, List.of("a", "c", "zz"))).isEqualTo(2);
+
+        assertThat(favoriteArtistRepository.findSpotifyIdsByProfileId(profileId)).containsExactly("b");
+        assertThat(favoritesCount("favorite_artists_count")).isEqualTo(1);
+    }
+
+    @Test
+    void genreBatchInsertAndDeleteKeepCounter() {
+        Integer rock = entityManager.persist(MusicGenre.builder().name("rock-" + System.nanoTime()).build())
+                .getMusicGenreId();
+        Integer jazz = entityManager.persist(MusicGenre.builder().name("jazz-" + System.nanoTime()).build())
+                .getMusicGenreId();
+        entityManager.flush();
+
+        assertThat(favoriteGenreRepository.insertAllAndIncrement(profileId, List.of(rock, jazz))).isEqualTo(2);
+        assertThat(favoriteGenreRepository.deleteAllAndDecrement(profileId, List.of(rock))).isEqualTo(1);
+
+        assertThat(favoriteGenreRepository.findMusicGenreIdsByProfileId(profileId)).containsExactly(jazz);
+        assertThat(favoritesCount("favorite_genres_count")).isEqualTo(1);
+    }
+
+    private int favoritesCount(String column) {
+        return ((Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT " + column + " FROM profiles WHERE profile_id = :profileId")
+                .setParameter("profileId", profileId)
+                .getSingleResult()).intValue();
+    }
+}
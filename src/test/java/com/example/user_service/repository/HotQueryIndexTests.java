@@ -0,0 +1,56 @@
+package com.example.user_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.user_service.PostgresContainerTests;
+
+/**
+ * Verifica con EXPLAIN que las consultas de preferencias usan los índices
+ * creados por las migraciones (el esquema lo crea Flyway y Hibernate lo valida)
+ * Con tablas tan pequeñas PostgreSQL preferiría un seq scan, así que se
+ * desactiva para comprobar que existe un índice utilizable
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class HotQueryIndexTests extends PostgresContainerTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void disableSeqScan() {
+        entityManager.getEntityManager().createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM favorite_artists WHERE profile_id = 1 AND spotify_id = 'x'",
+            "SELECT * FROM favorite_artists WHERE profile_id = 1",
+            "SELECT * FROM favorite_genres WHERE profile_id = 1 AND music_genre_id = 1",
+            "SELECT * FROM favorite_genres WHERE profile_id = 1",
+            "SELECT * FROM profiles WHERE user_id = 1",
+            "SELECT * FROM user_preferences WHERE profile_id = 1",
+            "SELECT * FROM profile_locations WHERE profile_id = 1",
+            "SELECT * FROM users WHERE email = 'x'",
+            "SELECT user_id, email FROM users WHERE user_id > 1 OR updated_at >= now()"
+    })
+    void hotQueryUsesIndex(String sql) {
+        @SuppressWarnings("unchecked")
+        List<String> plan = entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql).getResultList();
+
+        assertThat(String.join("\n", plan))
+                .as(sql)
+                .containsPattern("Index Scan|Index Only Scan|Bitmap Index Scan")
+                .doesNotContain("Seq Scan");
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.user_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.model.UserChange;
+import com.example.user_service.model.UserChangeType;
+
+/**
+ * Orden del feed de cambios con transacciones que confirman fuera de orden
+ * Una entrada con change_id menor que confirma tarde no puede quedar detrás
+ * de un cursor ya entregado
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserChangeFeedTests extends PostgresContainerTests {
+
+    @Autowired
+    private UserChangeRepository userChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void lateCommitIsNeverSkipped() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        UserChange start = userChangeRepository.findLatestSettled().orElse(null);
+        long afterTxid = start != null ? start.getTxid() : 0;
+        long afterChangeId = start != null ? start.getChangeId() : 0;
+
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Transacción lenta: obtiene el change_id menor pero confirma la última
+            Future<?> slow = executor.submit(() -> tx.executeWithoutResult(status -> {
+                userChangeRepository.append(1, UserChangeType.PROFILE_UPDATED.name());
+                appended.countDown();
+                await(release);
+            }));
+            assertThat(appended.await(10, TimeUnit.SECONDS)).isTrue();
+            tx.executeWithoutResult(status -> userChangeRepository.append(2, UserChangeType.PASSWORD_CHANGED.name()));
+
+            // La entrada rápida ya confirmó, pero no se sirve mientras la lenta siga abierta
+            assertThat(userChangeRepository.findSettledAfter(afterTxid, afterChangeId, 100)).isEmpty();
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        List<UserChange> changes = userChangeRepository.findSettledAfter(afterTxid, afterChangeId, 100);
+        assertThat(changes).extracting(UserChange::getUserId).containsExactly(1, 2);
+        assertThat(changes).extracting(UserChange::getChangeType)
+                .containsExactly(UserChangeType.PROFILE_UPDATED, UserChangeType.PASSWORD_CHANGED);
+        assertThat(changes.get(0).getChangedAt()).isNotNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.user_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.dto.UserResponse;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.ProfileLocation;
+import com.example.user_service.model.User;
+import com.example.user_service.model.UserPreference;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que las búsquedas con entity graph resuelvan todo lo que
+ * UserMapper.toResponse necesita con exactamente una sentencia SQL
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserFetchPlanTests extends PostgresContainerTests {
+
+    private static final String EMAIL = "fetch-plan@rockstadium.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private Statistics statistics;
+    private Integer userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email(EMAIL)
+                .password("hash")
+                .userType("USER")
+                .roles(Set.of("ROLE_USER", "ROLE_ADMIN"))
+                .build());
+        Profile profile = entityManager.persist(Profile.builder().name("Fetch Plan").user(user).build());
+        entityManager.persist(ProfileLocation.builder()
+                .municipality("Toluca").state("Estado de México").country("México")
+                .profile(profile)
+                .build());
+        entityManager.persist(UserPreference.builder()
+                .searchRadius(BigDecimal.TEN)
+                .emailNotifications(true)
+                .profile(profile)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        userId = user.getUserId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findWithProfileByUserIdUsesSingleStatement() {
+        User user = userRepository.findWithProfileByUserId(userId).orElseThrow();
+        UserResponse response = userMapper.toResponse(user);
+
+        assertThat(response.getProfile().getLocation().getMunicipality()).isEqualTo("Toluca");
+        assertThat(response.getRoles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findWithProfileByEmailUsesSingleStatement() {
+        User user = userRepository.findWithProfileByEmail(EMAIL).orElseThrow();
+        UserResponse response = userMapper.toResponse(user);
+
+        assertThat(response.getProfile().getName()).isEqualTo("Fetch Plan");
+        assertThat(response.getProfile().getLocation().getCountry()).isEqualTo("México");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupProjectionMatchesEntityPathWithoutLoadingEntities() {
+        UserResponse projected = userMapper.toResponse(userRepository.findLookupRowsByUserId(userId));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        UserResponse fromEntity = userMapper.toResponse(userRepository.findWithProfileByUserId(userId).orElseThrow());
+        assertThat(projected).usingRecursiveComparison().isEqualTo(fromEntity);
+    }
+
+    @Test
+    void lookupProjectionByEmailIsEmptyForUnknownEmail() {
+        assertThat(userRepository.findLookupRowsByEmail(EMAIL).get(0).email()).isEqualTo(EMAIL);
+        assertThat(userRepository.findLookupRowsByEmail("missing@rockstadium.com")).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.user_service.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Consulta del filtro de emails con 10M usuarios sintéticos, dimensionado
+ * como en producción (el doble de capacidad que usuarios, 1% de falsos positivos).
+ * Al preparar el estado imprime la memoria por usuario y la tasa real de falsos positivos
+ *
+ * Ejecutar: mvn test-compile y luego main() con el classpath de test (-Xmx1g basta)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailBloomFilterBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({ "10000000" })
+    private int users;
+
+    private EmailBloomFilter filter;
+    private String[] registered;
+    private String[] unknown;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = EmailBloomFilter.forCapacity(2L * users, 0.01);
+        for (int i = 0; i < users; i++) {
+            filter.add("user" + i + "@rockstadium.com");
+        }
+
+        registered = new String[PROBES];
+        unknown = new String[PROBES];
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            registered[i] = "user" + (int) ((long) i * users / PROBES) + "@rockstadium.com";
+            unknown[i] = "attacker" + i + "@example.com";
+            if (filter.mightContain(unknown[i])) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("%n%,d users: %,d KB (%.2f bytes/user), measured false positive rate %.3f%%%n",
+                users, filter.sizeInBytes() / 1024, (double) filter.sizeInBytes() / users,
+                100.0 * falsePositives / PROBES);
+    }
+
+    @Benchmark
+    public boolean registeredEmail() {
+        return filter.mightContain(registered[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean unknownEmail() {
+        return filter.mightContain(unknown[next++ & (PROBES - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailBloomFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
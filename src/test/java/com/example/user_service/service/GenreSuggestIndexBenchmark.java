@@ -0,0 +1,72 @@
+package com.example.user_service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Latencia del typeahead sobre un catálogo sintético de 5k géneros
+ *
+ * Ejecutar: mvn test-compile y luego main() con el classpath de test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenreSuggestIndexBenchmark {
+
+    private static final String[] WORDS = { "rock", "metal", "pop", "jazz", "electrónica", "música", "folk",
+            "punk", "soul", "blues", "hip", "hop", "trap", "indie", "alternativo", "clásica", "cumbia",
+            "salsa", "reggae", "tecno", "house", "progresivo", "experimental", "latino", "norteño" };
+
+    @Param({ "r", "roc", "electro", "musica cl", "zzz" })
+    private String query;
+
+    private GenreSuggestIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<MusicGenreCatalog.Entry> entries = new ArrayList<>();
+        Map<Integer, Long> favorites = new HashMap<>();
+        for (int id = 1; id <= 5_000; id++) {
+            int words = 1 + random.nextInt(3);
+            StringBuilder name = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                name.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            entries.add(new MusicGenreCatalog.Entry(id, name.append(' ').append(id).toString(), null));
+            favorites.put(id, (long) random.nextInt(10_000));
+        }
+        index = GenreSuggestIndex.build(List.copyOf(entries), favorites);
+    }
+
+    @Benchmark
+    public List<MusicGenreCatalog.Entry> suggest() {
+        return index.suggest(query, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GenreSuggestIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Umbrales por email e IP, perdón tras login correcto y resistencia a un
+ * spray de emails distintos
+ */
+class LoginAttemptLimiterTests {
+
+    private static final int MAX_PER_EMAIL = 10;
+    private static final int MAX_PER_IP = 50;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginAttemptLimiter(true, 300, MAX_PER_EMAIL, MAX_PER_IP, 200_000, 1_000, meterRegistry);
+    }
+
+    @Test
+    void blocksEmailAtThreshold() {
+        for (int i = 0; i < MAX_PER_EMAIL - 1; i++) {
+            limiter.recordFailure("Ana@RockStadium.com", "10.0.0." + i);
+        }
+        assertThat(limiter.isAllowed("ana@rockstadium.com", "10.0.1.1")).isTrue();
+
+        limiter.recordFailure("ana@rockstadium.com", "10.0.0.99");
+
+        assertThat(limiter.isAllowed(" ANA@rockstadium.com", "10.0.1.1")).isFalse();
+        assertThatThrownBy(() -> limiter.checkAllowed("ana@rockstadium.com", "10.0.1.1"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(limiter.isAllowed("beto@rockstadium.com", "10.0.1.1")).isTrue();
+        assertThat(meterRegistry.get("login.throttle.rejected").tag("key", "email").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void blocksIpAtThreshold() {
+        for (int i = 0; i < MAX_PER_IP; i++) {
+            limiter.recordFailure("user-" + i + "@rockstadium.com", "10.0.0.1");
+        }
+
+        assertThat(limiter.isAllowed("new@rockstadium.com", "10.0.0.1")).isFalse();
+        assertThat(limiter.isAllowed("new@rockstadium.com", "10.0.0.2")).isTrue();
+    }
+
+    @Test
+    void successForgivesEmailFailuresButNotIpFailures() {
+        for (int i = 0; i < MAX_PER_EMAIL - 1; i++) {
+            limiter.recordFailure("ana@rockstadium.com", "10.0.0.1");
+        }
+
+        limiter.recordSuccess("ana@rockstadium.com");
+
+        // Tras el login correcto vuelve a tener todos los intentos
+        for (int i = 0; i < MAX_PER_EMAIL - 1; i++) {
+            limiter.recordFailure("ana@rockstadium.com", "10.0.0.1");
+        }
+        assertThat(limiter.isAllowed("ana@rockstadium.com", "10.0.0.2")).isTrue();
+        limiter.recordFailure("ana@rockstadium.com", "10.0.0.1");
+        assertThat(limiter.isAllowed("ana@rockstadium.com", "10.0.0.2")).isFalse();
+
+        // Los fallos de la IP no se perdonan: 19 anteriores + 31 = 50
+        for (int i = 0; i <= MAX_PER_IP - 2 * MAX_PER_EMAIL; i++) {
+            limiter.recordFailure("other@rockstadium.com", "10.0.0.1");
+        }
+        assertThat(limiter.isAllowed("beto@rockstadium.com", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void sprayOfDistinctEmailsDoesNotLockOutRealUsers() {
+        // Cada IP del spray se queda justo por debajo de su propio límite
+        for (int i = 0; i < 150_000; i++) {
+            limiter.recordFailure("spray-" + i + "@example.com", "10.1." + (i / (MAX_PER_IP - 1)));
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(limiter.isAllowed("user-" + i + "@rockstadium.com", "192.168.0.1")).isTrue();
+        }
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        LoginAttemptLimiter disabled = new LoginAttemptLimiter(false, 300, 1, 1, 1_000, 10, meterRegistry);
+        disabled.recordFailure("ana@rockstadium.com", "10.0.0.1");
+
+        assertThat(disabled.isAllowed("ana@rockstadium.com", "10.0.0.1")).isTrue();
+    }
+}
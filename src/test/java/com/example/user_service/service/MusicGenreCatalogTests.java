@@ -0,0 +1,142 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.user_service.model.MusicGenre;
+import com.example.user_service.repository.FavoriteGenreRepository;
+import com.example.user_service.repository.GenreFavoriteCount;
+import com.example.user_service.repository.MusicGenreRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MusicGenreCatalogTests {
+
+    private MusicGenreRepository repository;
+    private FavoriteGenreRepository favoriteGenreRepository;
+    private MusicGenreCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MusicGenreRepository.class);
+        favoriteGenreRepository = mock(FavoriteGenreRepository.class);
+        when(repository.findAll()).thenReturn(List.of(genre(2, "Metal"), genre(1, "Rock")));
+        catalog = new MusicGenreCatalog(repository, favoriteGenreRepository, new ObjectMapper());
+    }
+
+    @Test
+    void lookupsAreServedFromMemory() {
+        assertThat(catalog.findById(1)).map(MusicGenreCatalog.Entry::name).contains("Rock");
+        assertThat(catalog.findByName("  mEtAl ")).map(MusicGenreCatalog.Entry::musicGenreId).contains(2);
+        assertThat(catalog.getAll()).extracting(MusicGenreCatalog.Entry::musicGenreId).containsExactly(1, 2);
+
+        verify(repository, times(1)).findAll();
+        verify(repository, never()).existsById(1);
+    }
+
+    @Test
+    void missingGenreFoundInDatabaseTriggersReload() {
+        catalog.getAll();
+        when(repository.findAll()).thenReturn(List.of(genre(1, "Rock"), genre(2, "Metal"), genre(3, "Jazz")));
+        when(repository.existsByNameIgnoreCase("Jazz")).thenReturn(true);
+
+        assertThat(catalog.findByName("Jazz")).map(MusicGenreCatalog.Entry::musicGenreId).contains(3);
+        assertThat(catalog.findById(99)).isEmpty();
+    }
+
+    @Test
+    void etagIsStableUntilCatalogChanges() {
+        String etag = catalog.getSerialized().etag();
+        catalog.reload();
+        assertThat(catalog.getSerialized().etag()).isEqualTo(etag);
+
+        when(repository.findAll()).thenReturn(List.of(genre(1, "Rock"), genre(2, "Heavy Metal")));
+        catalog.reload();
+        assertThat(catalog.getSerialized().etag()).isNotEqualTo(etag);
+        assertThat(catalog.getSerialized().gzipEtag()).isNotEqualTo(catalog.getSerialized().etag());
+    }
+
+    @Test
+    void gzipBodyMatchesJsonBody() throws IOException {
+        MusicGenreCatalog.SerializedCatalog serialized = catalog.getSerialized();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(serialized.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(serialized.json());
+        }
+        assertThat(new String(serialized.json())).startsWith("[{\"musicGenreId\":1,\"name\":\"Rock\"");
+    }
+
+    @Test
+    void suggestIgnoresCaseAndAccentsAndMatchesWordPrefixes() {
+        when(repository.findAll()).thenReturn(List.of(
+                genre(1, "Electrónica"), genre(2, "Electro Swing"), genre(3, "Música Electrónica"),
+                genre(4, "Hip-Hop"), genre(5, "Rock")));
+
+        assertThat(catalog.suggest("ELEC", 10)).extracting(MusicGenreCatalog.Entry::musicGenreId)
+                .containsExactly(2, 1, 3);
+        assertThat(catalog.suggest("musica e", 10)).extracting(MusicGenreCatalog.Entry::musicGenreId)
+                .containsExactly(3);
+        assertThat(catalog.suggest("hip h", 10)).extracting(MusicGenreCatalog.Entry::name)
+                .containsExactly("Hip-Hop");
+        assertThat(catalog.suggest("jazz", 10)).isEmpty();
+        assertThat(catalog.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestRanksFullNameMatchesThenPopularity() {
+        when(repository.findAll()).thenReturn(List.of(
+                genre(1, "Rock"), genre(2, "Rockabilly"), genre(3, "Punk Rock"), genre(4, "Rock Alternativo")));
+        when(favoriteGenreRepository.countFavoritesByGenre()).thenReturn(List.of(
+                favorites(2, 50), favorites(3, 90), favorites(4, 10)));
+
+        assertThat(catalog.suggest("rock", 10)).extracting(MusicGenreCatalog.Entry::musicGenreId)
+                .containsExactly(2, 4, 1, 3);
+        assertThat(catalog.suggest("rock", 2)).extracting(MusicGenreCatalog.Entry::musicGenreId)
+                .containsExactly(2, 4);
+    }
+
+    @Test
+    void popularityChangeReranksWithoutChangingEtag() {
+        String etag = catalog.getSerialized().etag();
+        assertThat(catalog.suggest("r", 1)).extracting(MusicGenreCatalog.Entry::musicGenreId).containsExactly(1);
+
+        when(favoriteGenreRepository.countFavoritesByGenre()).thenReturn(List.of(favorites(1, 1), favorites(2, 5)));
+        when(repository.findAll()).thenReturn(List.of(genre(1, "Rock"), genre(2, "Rap")));
+        catalog.reload();
+        String rerankedEtag = catalog.getSerialized().etag();
+        assertThat(catalog.suggest("r", 1)).extracting(MusicGenreCatalog.Entry::musicGenreId).containsExactly(2);
+
+        when(favoriteGenreRepository.countFavoritesByGenre()).thenReturn(List.of(favorites(1, 9), favorites(2, 5)));
+        catalog.reload();
+        assertThat(catalog.suggest("r", 1)).extracting(MusicGenreCatalog.Entry::musicGenreId).containsExactly(1);
+        assertThat(catalog.getSerialized().etag()).isEqualTo(rerankedEtag).isNotEqualTo(etag);
+    }
+
+    private static GenreFavoriteCount favorites(int musicGenreId, long favorites) {
+        return new GenreFavoriteCount() {
+            @Override
+            public Integer getMusicGenreId() {
+                return musicGenreId;
+            }
+
+            @Override
+            public Long getFavorites() {
+                return favorites;
+            }
+        };
+    }
+
+    private static MusicGenre genre(int id, String name) {
+        return MusicGenre.builder().musicGenreId(id).name(name).build();
+    }
+}
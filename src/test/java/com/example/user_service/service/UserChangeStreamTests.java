@@ -0,0 +1,58 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.user_service.repository.UserChangeRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserChangeStreamTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        UserChangeRepository repository = mock(UserChangeRepository.class);
+        when(repository.findLatestSettled()).thenReturn(Optional.empty());
+        when(repository.findSettledAfter(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+        stream = new UserChangeStream(repository, registry, 60_000, 15_000, 500, 2_000, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.close();
+    }
+
+    @Test
+    void subscribersAreCapped() {
+        stream.subscribe(null);
+        stream.subscribe(null);
+
+        assertThatThrownBy(() -> stream.subscribe(null))
+                .isInstanceOf(OperationInProgressException.class)
+                .extracting("retryAfterSeconds").isEqualTo(30L);
+        assertThat(registry.get("users.changes.stream.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidCursorDoesNotTakeASlot() {
+        stream.subscribe(null);
+        assertThatThrownBy(() -> stream.subscribe("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+
+        stream.subscribe(null);
+        assertThat(registry.get("users.changes.stream.subscribers").gauge().value()).isEqualTo(2);
+    }
+}
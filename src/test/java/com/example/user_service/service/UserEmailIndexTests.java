@@ -0,0 +1,136 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.model.User;
+import com.example.user_service.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Índice de emails contra PostgreSQL real: carga inicial, altas tras commit y
+ * sincronización de filas escritas por otra instancia (altas y cambios de email)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserEmailIndexTests extends PostgresContainerTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserEmailIndex index;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserEmailIndex(dataSource, transactionManager, new SimpleMeterRegistry(), 0.01, 60_000, 2);
+        suffix = System.nanoTime() + "@rockstadium.com";
+    }
+
+    @Test
+    void everyEmailMightExistUntilLoaded() {
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.mightExist("nobody-" + suffix)).isTrue();
+    }
+
+    @Test
+    void initialScanLoadsRegisteredEmails() {
+        save("scan-" + suffix);
+
+        index.initialize();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.mightExist("scan-" + suffix)).isTrue();
+        assertThat(index.mightExist("SCAN-" + suffix)).isFalse();
+        assertThat(index.mightExist("nobody-" + suffix)).isFalse();
+    }
+
+    @Test
+    void addsEmailsOnlyAfterCommit() {
+        index.initialize();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            save("commit-" + suffix);
+            index.addAfterCommit("commit-" + suffix);
+            assertThat(index.mightExist("commit-" + suffix)).isFalse();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            save("rollback-" + suffix);
+            index.addAfterCommit("rollback-" + suffix);
+            status.setRollbackOnly();
+        });
+
+        assertThat(index.mightExist("commit-" + suffix)).isTrue();
+        assertThat(index.mightExist("rollback-" + suffix)).isFalse();
+    }
+
+    @Test
+    void syncPicksUpUsersAndEmailChangesFromOtherInstances() {
+        User changed = save("before-" + suffix);
+        index.initialize();
+
+        // Escrituras que no pasan por este índice, como las de otra instancia
+        save("other-" + suffix);
+        changed.setEmail("after-" + suffix);
+        changed.setUpdatedAt(LocalDateTime.now());
+        userRepository.save(changed);
+        assertThat(index.mightExist("other-" + suffix)).isFalse();
+        assertThat(index.mightExist("after-" + suffix)).isFalse();
+
+        index.sync();
+
+        assertThat(index.mightExist("other-" + suffix)).isTrue();
+        assertThat(index.mightExist("after-" + suffix)).isTrue();
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndStaysNearTargetRate() {
+        EmailBloomFilter filter = EmailBloomFilter.forCapacity(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@rockstadium.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@rockstadium.com")).isTrue();
+            if (filter.mightContain("absent" + i + "@rockstadium.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+        assertThat(filter.sizeInBytes()).isLessThan(10_000 * 2L);
+    }
+
+    private User save(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("hash")
+                .userType("USER")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.model.User;
+import com.example.user_service.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Índice de existencia contra PostgreSQL real: carga inicial por scan,
+ * altas solo tras commit y reconciliación de bajas
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExistenceIndexTests extends PostgresContainerTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserExistenceIndex index;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Fetch size pequeño para que el scan recorra el cursor en varias vueltas
+        index = new UserExistenceIndex(dataSource, transactionManager, new SimpleMeterRegistry(), 2);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void initialScanLoadsExistingUsers() {
+        Integer first = save("scan-a").getUserId();
+        Integer second = save("scan-b").getUserId();
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.contains(first)).isFalse();
+
+        index.initialize();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.contains(first)).isTrue();
+        assertThat(index.contains(second)).isTrue();
+        assertThat(index.contains(second + 1_000_000)).isFalse();
+        assertThat(index.contains(-1)).isFalse();
+    }
+
+    @Test
+    void addsUsersOnlyAfterCommit() {
+        index.initialize();
+
+        Integer committed = transactionTemplate.execute(status -> {
+            Integer userId = save("commit").getUserId();
+            index.addAfterCommit(userId);
+            assertThat(index.contains(userId)).isFalse();
+            return userId;
+        });
+        Integer rolledBack = transactionTemplate.execute(status -> {
+            Integer userId = save("rollback").getUserId();
+            index.addAfterCommit(userId);
+            status.setRollbackOnly();
+            return userId;
+        });
+
+        assertThat(index.contains(committed)).isTrue();
+        assertThat(index.contains(rolledBack)).isFalse();
+    }
+
+    @Test
+    void growsForIdsBeyondCurrentCapacityAndReconcileDropsDeletedUsers() {
+        index.initialize();
+        int farId = 5_000_000;
+        index.add(farId);
+        assertThat(index.contains(farId)).isTrue();
+
+        User deleted = save("deleted");
+        index.add(deleted.getUserId());
+        userRepository.delete(deleted);
+
+        index.reconcile();
+
+        assertThat(index.contains(farId)).isFalse();
+        assertThat(index.contains(deleted.getUserId())).isFalse();
+    }
+
+    private User save(String prefix) {
+        return userRepository.save(User.builder()
+                .email(prefix + "-" + System.nanoTime() + "@rockstadium.com")
+                .password("hash")
+                .userType("USER")
+                .build());
+    }
+}
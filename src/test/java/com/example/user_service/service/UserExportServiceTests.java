@@ -0,0 +1,185 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.dto.UserResponse;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.ProfileLocation;
+import com.example.user_service.model.User;
+import com.example.user_service.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exportación en streaming contra PostgreSQL real: una línea por usuario con
+ * roles y perfil, filtro updatedSince, formato array y una exportación a la vez
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExportServiceTests extends PostgresContainerTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserExportService exportService;
+    private String suffix;
+    private LocalDateTime since;
+
+    @BeforeEach
+    void setUp() {
+        // Fetch size de 2 filas para leer el cursor (y vaciar la salida) en varios viajes
+        exportService = new UserExportServiceImpl(dataSource, transactionManager, new UserMapper(), MAPPER, 2);
+        suffix = System.nanoTime() + "@rockstadium.com";
+        since = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    void exportsOneLinePerUserWithRolesAndProfile() throws IOException {
+        User ana = saveUser("ana-" + suffix, since.plusSeconds(1), "Ana", Set.of("ROLE_USER", "ROLE_ADMIN"));
+        User beto = saveUser("beto-" + suffix, since.plusSeconds(2), null, Set.of("ROLE_USER"));
+
+        String ndjson = export(since, UserExportService.Format.NDJSON);
+        // Mismo contrato que el resto de endpoints: los null se envían
+        assertThat(ndjson).contains("\"email\":\"beto-" + suffix + "\"").contains("\"profile\":null");
+        List<UserResponse> exported = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            UserResponse user = MAPPER.readValue(line, UserResponse.class);
+            if (user.getEmail().endsWith(suffix)) {
+                exported.add(user);
+            }
+        }
+
+        assertThat(exported).extracting(UserResponse::getUserId).containsExactly(ana.getUserId(), beto.getUserId());
+        UserResponse first = exported.get(0);
+        assertThat(first.getRoles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(first.getPassword()).isEqualTo("hash");
+        assertThat(first.getProfile().getName()).isEqualTo("Ana");
+        assertThat(first.getProfile().getLocation().getState()).isEqualTo("Estado de México");
+        assertThat(first.getAccountStatus().getEnabled()).isTrue();
+        assertThat(exported.get(1).getProfile()).isNull();
+    }
+
+    @Test
+    void updatedSinceSkipsUsersNotModifiedSinceThen() throws IOException {
+        saveUser("old-" + suffix, since.minusDays(1), null, Set.of("ROLE_USER"));
+        User recent = saveUser("recent-" + suffix, since.plusSeconds(1), null, Set.of("ROLE_USER"));
+
+        String ndjson = export(since, UserExportService.Format.NDJSON);
+
+        assertThat(ndjson).contains("recent-" + suffix).doesNotContain("old-" + suffix);
+        assertThat(export(null, UserExportService.Format.NDJSON)).contains("old-" + suffix, "recent-" + suffix);
+        assertThat(ndjson).contains("\"userId\":" + recent.getUserId());
+    }
+
+    @Test
+    void exportsSingleJsonArray() throws IOException {
+        saveUser("json1-" + suffix, since.plusSeconds(1), "Uno", Set.of("ROLE_USER"));
+        saveUser("json2-" + suffix, since.plusSeconds(1), null, Set.of("ROLE_USER"));
+
+        JsonNode array = MAPPER.readTree(export(since, UserExportService.Format.JSON));
+
+        assertThat(array.isArray()).isTrue();
+        List<String> emails = new ArrayList<>();
+        array.forEach(user -> emails.add(user.get("email").asText()));
+        assertThat(emails).contains("json1-" + suffix, "json2-" + suffix);
+    }
+
+    @Test
+    void rejectsSecondExportWhileOneIsRunning() throws Exception {
+        saveUser("slow1-" + suffix, since.plusSeconds(1), null, Set.of("ROLE_USER"));
+        saveUser("slow2-" + suffix, since.plusSeconds(1), null, Set.of("ROLE_USER"));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Cliente lento: la primera escritura se queda bloqueada hasta que el test la libera
+        OutputStream slowClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> first = executor
+                    .submit(() -> exportService.exportUsers(since, UserExportService.Format.NDJSON, slowClient));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> export(since, UserExportService.Format.NDJSON))
+                    .isInstanceOf(OperationInProgressException.class);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isPositive();
+            // Al terminar la primera se admiten nuevas exportaciones
+            assertThat(export(since, UserExportService.Format.NDJSON)).contains("slow1-" + suffix);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private String export(LocalDateTime updatedSince, UserExportService.Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = exportService.exportUsers(updatedSince, format, output);
+        assertThat(exported).isPositive();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private User saveUser(String email, LocalDateTime updatedAt, String profileName, Set<String> roles) {
+        User user = User.builder().email(email).password("hash").userType("USER").updatedAt(updatedAt)
+                .roles(new HashSet<>(roles)).build();
+        if (profileName != null) {
+            Profile profile = Profile.builder().name(profileName).user(user).build();
+            profile.setProfileLocation(ProfileLocation.builder().municipality("Toluca").state("Estado de México")
+                    .country("México").profile(profile).build());
+            user.setProfiles(List.of(profile));
+        }
+        return userRepository.save(user);
+    }
+}
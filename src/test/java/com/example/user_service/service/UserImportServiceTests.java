@@ -0,0 +1,189 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.dto.UserImportError;
+import com.example.user_service.dto.UserImportResponse;
+import com.example.user_service.mapper.UserMapper;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.User;
+import com.example.user_service.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+/**
+ * Importación masiva contra PostgreSQL real: lotes, IDs reservados de las
+ * secuencias identity y errores por fila
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTests extends PostgresContainerTests {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UserImportService importService;
+    private UserExistenceIndex existenceIndex;
+    private UserEmailIndex emailIndex;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        existenceIndex = new UserExistenceIndex(dataSource, transactionManager, new SimpleMeterRegistry(), 100);
+        existenceIndex.initialize();
+        emailIndex = new UserEmailIndex(dataSource, transactionManager, new SimpleMeterRegistry(), 0.01, 60_000, 100);
+        emailIndex.initialize();
+        // Lotes de 2 filas para ejercitar varios flush en cada import
+        importService = new UserImportServiceImpl(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), new UserMapper(),
+                existenceIndex, emailIndex, 2, 2, 100);
+        suffix = System.nanoTime() + "@rockstadium.com";
+    }
+
+    @Test
+    void importsCsvRowsAndReportsPerRowErrors() throws IOException {
+        userRepository.save(User.builder().email("taken-" + suffix).password("hash").userType("USER").build());
+
+        String csv = String.join("\n",
+                "email,password,name,location",
+                "ana-" + suffix + ",Password1,Ana,\"Toluca, Estado de México, México\"",
+                "beto-" + suffix + ",Password1,Beto,\"Guadalajara, Jalisco, México\"",
+                "bad-" + suffix + ",short,Bad,\"Puebla, Puebla, México\"",
+                "ana-" + suffix + ",Password1,Ana Again,\"Toluca, Estado de México, México\"",
+                "",
+                "taken-" + suffix + ",Password1,Taken,\"León, Guanajuato, México\"",
+                "carla-" + suffix + ",Password1,\"Carla \"\"CJ\"\" Jiménez\",Monterrey");
+
+        UserImportResponse response = importService.importUsers(stream(csv), UserImportService.Format.CSV);
+
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getErrors()).extracting(UserImportError::getLine).containsExactly(4L, 5L, 7L);
+        assertThat(response.getErrors()).extracting(UserImportError::getMessage)
+                .contains("Duplicate email in file", "Email is already registered");
+        assertThat(response.getRowsPerSecond()).isPositive();
+
+        User ana = userRepository.findWithProfileByEmail("ana-" + suffix).orElseThrow();
+        assertThat(ana.getRoles()).containsExactly("ROLE_USER");
+        assertThat(new BCryptPasswordEncoder().matches("Password1", ana.getPassword())).isTrue();
+        Profile profile = ana.getProfiles().get(0);
+        assertThat(profile.getName()).isEqualTo("Ana");
+        assertThat(profile.getProfileLocation().getState()).isEqualTo("Estado de México");
+
+        User carla = userRepository.findWithProfileByEmail("carla-" + suffix).orElseThrow();
+        assertThat(carla.getProfiles().get(0).getName()).isEqualTo("Carla \"CJ\" Jiménez");
+        assertThat(carla.getProfiles().get(0).getProfileLocation().getCountry()).isEqualTo("Unknown");
+
+        // Los usuarios importados se publican en el índice de existencia al confirmar cada lote
+        assertThat(existenceIndex.contains(ana.getUserId())).isTrue();
+        assertThat(existenceIndex.contains(carla.getUserId())).isTrue();
+        assertThat(emailIndex.mightExist("ana-" + suffix)).isTrue();
+        // Y cada alta queda en el feed de cambios
+        assertThat(jdbcTemplate.queryForList("SELECT change_type FROM user_changes WHERE user_id = :userId",
+                Map.of("userId", ana.getUserId()), String.class)).containsExactly("USER_REGISTERED");
+    }
+
+    @Test
+    void importsNdjsonAndKeepsIdentitySequencesUsable() throws IOException {
+        String ndjson = String.join("\n",
+                "{\"email\":\"nd1-" + suffix + "\",\"password\":\"Password1\",\"name\":\"Uno\",\"location\":\"Toluca, México, México\"}",
+                "{not json",
+                "{\"email\":\"nd2-" + suffix + "\",\"password\":\"Password1\",\"name\":\"Dos\",\"location\":\"Toluca, México, México\"}");
+
+        UserImportResponse response = importService.importUsers(stream(ndjson), UserImportService.Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getLine()).isEqualTo(2));
+
+        // Los IDs reservados no chocan con los que genera la columna identity después
+        User after = userRepository.save(User.builder().email("after-" + suffix).password("hash").userType("USER").build());
+        assertThat(after.getUserId())
+                .isGreaterThan(userRepository.findWithProfileByEmail("nd2-" + suffix).orElseThrow().getUserId());
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredHeader() {
+        assertThatThrownBy(() -> importService.importUsers(stream("email,name\na@b.com,A"), UserImportService.Format.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("email,password,name,location");
+    }
+
+    @Test
+    void rejectsSecondImportWhileOneIsRunning() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Stream que se queda bloqueado en la primera lectura hasta que el test lo libera
+        InputStream blocked = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<UserImportResponse> first = executor
+                    .submit(() -> importService.importUsers(blocked, UserImportService.Format.NDJSON));
+            assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> importService.importUsers(stream(""), UserImportService.Format.NDJSON))
+                    .isInstanceOf(OperationInProgressException.class);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getImported()).isZero();
+            // Al terminar la primera se admiten nuevas importaciones
+            assertThat(importService.importUsers(stream(""), UserImportService.Format.NDJSON).getImported()).isZero();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.user_service.PostgresContainerTests;
+import com.example.user_service.dto.AddFavoriteGenreRequest;
+import com.example.user_service.dto.ArtistResponse;
+import com.example.user_service.dto.DeleteFavoriteGenreRequest;
+import com.example.user_service.dto.FavoritesSliceResponse;
+import com.example.user_service.dto.MusicGenreResponse;
+import com.example.user_service.dto.UserPreferenceRequest;
+import com.example.user_service.dto.UserPreferenceResponse;
+import com.example.user_service.mapper.UserPreferenceMapper;
+import com.example.user_service.model.FavoriteArtist;
+import com.example.user_service.model.FavoriteGenre;
+import com.example.user_service.model.MusicGenre;
+import com.example.user_service.model.Profile;
+import com.example.user_service.model.User;
+import com.example.user_service.model.UserPreference;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Sentencias SQL por endpoint de preferencias
+ * El contexto del usuario (propiedad, perfil, preferencias y contadores) se
+ * resuelve con una sola consulta; cada endpoint solo añade las sentencias de
+ * su propia operación (más la entrada del registro de cambios si modifica algo)
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UserPreferenceServiceImpl.class, UserChangeServiceImpl.class, MusicGenreCatalog.class,
+        UserPreferenceMapper.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class UserPreferenceStatementCountTests extends PostgresContainerTests {
+
+    @Autowired
+    private UserPreferenceService preferenceService;
+
+    @Autowired
+    private MusicGenreCatalog musicGenreCatalog;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private SpotifyService spotifyService;
+
+    private Statistics statistics;
+    private Integer userId;
+    private Integer profileId;
+    private Integer rockId;
+    private Integer jazzId;
+
+    @BeforeEach
+    void setUp() {
+        String email = "statements-" + System.nanoTime() + "@rockstadium.com";
+        User user = entityManager.persist(User.builder()
+                .email(email)
+                .password("hash")
+                .userType("USER")
+                .roles(Set.of("ROLE_USER"))
+                .build());
+        Profile profile = entityManager.persist(Profile.builder()
+                .name("Statements").user(user).build());
+        entityManager.persist(UserPreference.builder()
+                .searchRadius(BigDecimal.TEN).emailNotifications(true).profile(profile).build());
+        MusicGenre rock = entityManager.persist(MusicGenre.builder().name("rock-" + System.nanoTime()).build());
+        MusicGenre jazz = entityManager.persist(MusicGenre.builder().name("jazz-" + System.nanoTime()).build());
+        entityManager.persist(FavoriteArtist.builder().spotifyId("artist-1").profile(profile).build());
+        entityManager.persist(FavoriteGenre.builder().musicGenre(rock).profile(profile).build());
+        entityManager.flush();
+        // Los contadores solo los escriben las consultas nativas
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE profiles SET favorite_artists_count = 1, favorite_genres_count = 1 WHERE profile_id = ?1")
+                .setParameter(1, profile.getProfileId())
+                .executeUpdate();
+        entityManager.clear();
+
+        userId = user.getUserId();
+        profileId = profile.getProfileId();
+        rockId = rock.getMusicGenreId();
+        jazzId = jazz.getMusicGenreId();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(email, null, "ROLE_USER"));
+        when(spotifyService.getArtistById(anyString()))
+                .thenAnswer(call -> ArtistResponse.builder().spotifyId(call.getArgument(0)).name("Artist").build());
+        when(spotifyService.getArtistsByIds(anyList()))
+                .thenAnswer(call -> call.<List<String>>getArgument(0).stream()
+                        .map(id -> ArtistResponse.builder().spotifyId(id).name("Artist").build())
+                        .toList());
+
+        musicGenreCatalog.reload();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void preferencesSummaryUsesSingleStatement() {
+        UserPreferenceResponse[] response = new UserPreferenceResponse[1];
+
+        assertThat(statements(() -> response[0] = preferenceService.getPreferences(userId, false))).isEqualTo(1);
+        assertThat(response[0].getSearchRadius()).isEqualByComparingTo(BigDecimal.TEN);
+        assertThat(response[0].getFavoriteArtistsCount()).isEqualTo(1);
+        assertThat(response[0].getFavoriteGenresCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullPreferencesAddOneStatementPerFavoriteList() {
+        UserPreferenceResponse[] response = new UserPreferenceResponse[1];
+
+        assertThat(statements(() -> response[0] = preferenceService.getPreferences(userId, true))).isEqualTo(3);
+        assertThat(response[0].getFavoriteArtists()).extracting(ArtistResponse::getSpotifyId)
+                .containsExactly("artist-1");
+        assertThat(response[0].getFavoriteGenres()).extracting(MusicGenreResponse::getMusicGenreId)
+                .containsExactly(rockId);
+    }
+
+    @Test
+    void updatePreferencesIssuesContextAndUpdateOnly() {
+        assertThat(statements(() -> preferenceService.createOrUpdatePreferences(userId,
+                UserPreferenceRequest.builder().searchRadiusKm(BigDecimal.ONE).build()))).isEqualTo(3);
+
+        entityManager.clear();
+        UserPreferenceResponse summary = preferenceService.getPreferences(userId, false);
+        assertThat(summary.getSearchRadius()).isEqualByComparingTo(BigDecimal.ONE);
+        assertThat(summary.getEmailNotifications()).isTrue();
+    }
+
+    @Test
+    void favoritePagesTakeTotalsFromProfileCounters() {
+        assertThat(statements(() -> preferenceService.getFavoriteArtists(userId, PageRequest.of(0, 10))))
+                .isEqualTo(2);
+        assertThat(statements(() -> preferenceService.getFavoriteGenres(userId, PageRequest.of(0, 10))))
+                .isEqualTo(2);
+        assertThat(preferenceService.getFavoriteGenres(userId, PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void pageTotalsSurviveProfileSavedWithStaleCounters() {
+        // Perfil cargado antes del alta y modificado después (como updateProfile concurrente)
+        Profile stale = entityManager.find(Profile.class, profileId);
+        preferenceService.addFavoriteArtist(userId, "artist-2");
+        stale.setName("Renamed");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Página de 1: el total sale solo del contador, PageImpl no lo puede corregir
+        assertThat(preferenceService.getFavoriteArtists(userId, PageRequest.of(0, 1)).getTotalElements())
+                .isEqualTo(2);
+        assertThat(preferenceService.getPreferences(userId, false).getFavoriteArtistsCount()).isEqualTo(2);
+    }
+
+    @Test
+    void addingFavoritesLocksProfileAndInserts() {
+        assertThat(statements(() -> preferenceService.addFavoriteArtist(userId, "artist-2"))).isEqualTo(4);
+        assertThat(statements(() -> preferenceService.addFavoriteGenre(userId,
+                AddFavoriteGenreRequest.builder().genreId(jazzId).build()))).isEqualTo(4);
+    }
+
+    @Test
+    void removingFavoritesDeletesWithoutExistenceCheck() {
+        assertThat(statements(() -> preferenceService.removeFavoriteArtist(userId, "artist-1"))).isEqualTo(3);
+        assertThat(statements(() -> preferenceService.removeFavoriteGenre(userId,
+                DeleteFavoriteGenreRequest.builder().genreId(rockId).build()))).isEqualTo(3);
+    }
+
+    @Test
+    void removingMissingFavoriteArtistIsNotFound() {
+        assertThatThrownBy(() -> preferenceService.removeFavoriteArtist(userId, "missing"))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void replacingFavoritesResolvesContextOnce() {
+        assertThat(statements(() -> preferenceService.replaceFavoriteArtists(userId,
+                List.of("artist-2", "artist-3")))).isEqualTo(7);
+        assertThat(statements(() -> preferenceService.replaceFavoriteGenres(userId, List.of(jazzId))))
+                .isEqualTo(6);
+    }
+
+    @Test
+    void scrollingFavoritesSkipsCountQueryAndSurvivesRemovals() {
+        preferenceService.addFavoriteArtist(userId, "artist-2");
+        preferenceService.addFavoriteArtist(userId, "artist-3");
+        @SuppressWarnings("unchecked")
+        FavoritesSliceResponse<ArtistResponse>[] slice = new FavoritesSliceResponse[1];
+
+        assertThat(statements(() -> slice[0] = preferenceService.getFavoriteArtistsAfter(userId, null, 2)))
+                .isEqualTo(2);
+        assertThat(slice[0].getContent()).extracting(ArtistResponse::getSpotifyId)
+                .containsExactly("artist-1", "artist-2");
+        assertThat(slice[0].isHasNext()).isTrue();
+
+        // Eliminar un favorito ya leído no desplaza el siguiente bloque
+        preferenceService.removeFavoriteArtist(userId, "artist-1");
+        FavoritesSliceResponse<ArtistResponse> next = preferenceService
+                .getFavoriteArtistsAfter(userId, slice[0].getNextCursor(), 2);
+        assertThat(next.getContent()).extracting(ArtistResponse::getSpotifyId).containsExactly("artist-3");
+        assertThat(next.isHasNext()).isFalse();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOfOneListIsRejectedByTheOther() {
+        preferenceService.addFavoriteGenre(userId, AddFavoriteGenreRequest.builder().genreId(jazzId).build());
+        FavoritesSliceResponse<MusicGenreResponse> genres = preferenceService.getFavoriteGenresAfter(userId, null, 1);
+
+        assertThat(genres.getContent()).extracting(MusicGenreResponse::getMusicGenreId).containsExactly(rockId);
+        assertThatThrownBy(() -> preferenceService.getFavoriteArtistsAfter(userId, genres.getNextCursor(), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> preferenceService.getFavoriteGenresAfter(userId, "not-a-cursor", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private long statements(Runnable call) {
+        statistics.clear();
+        call.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
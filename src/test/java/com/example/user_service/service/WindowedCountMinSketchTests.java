@@ -0,0 +1,85 @@
+package com.example.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ventana deslizante del sketch: rotación de sub-ventanas, marcas y
+ * dimensionado por número de claves esperado
+ */
+class WindowedCountMinSketchTests {
+
+    private static final long WINDOW_MILLIS = 10_000;
+
+    @Test
+    void countsWithinWindowAndForgetsExpiredSlots() {
+        WindowedCountMinSketch sketch = new WindowedCountMinSketch(4, 64, 10, WINDOW_MILLIS);
+
+        sketch.increment("a", 0);
+        sketch.increment("a", 1_000);
+        sketch.increment("a", 5_000);
+
+        assertThat(sketch.estimate("a", 5_000)).isEqualTo(3);
+        assertThat(sketch.estimate("b", 5_000)).isZero();
+        // Cada sub-ventana de 1 s sale de la ventana 10 s después de empezar
+        assertThat(sketch.estimate("a", 10_000)).isEqualTo(2);
+        assertThat(sketch.estimate("a", 11_000)).isEqualTo(1);
+        assertThat(sketch.estimate("a", 15_000)).isZero();
+    }
+
+    @Test
+    void reusedSlotStartsFromZero() {
+        WindowedCountMinSketch sketch = new WindowedCountMinSketch(4, 64, 10, WINDOW_MILLIS);
+        sketch.increment("a", 0);
+        sketch.increment("a", 0);
+
+        // Misma sub-ventana física, una vuelta después
+        assertThat(sketch.increment("a", WINDOW_MILLIS)).isEqualTo(1);
+    }
+
+    @Test
+    void markDiscountsEarlierIncrementsOnly() {
+        WindowedCountMinSketch sketch = new WindowedCountMinSketch(4, 64, 10, WINDOW_MILLIS);
+        sketch.increment("a", 0);
+        sketch.increment("a", 2_000);
+        sketch.increment("a", 2_500);
+
+        WindowedCountMinSketch.Mark mark = sketch.mark("a", 2_600);
+        assertThat(sketch.estimate("a", 2_600, mark)).isZero();
+
+        sketch.increment("a", 2_700);
+        sketch.increment("a", 4_000);
+        assertThat(sketch.estimate("a", 4_000, mark)).isEqualTo(2);
+        assertThat(sketch.estimate("a", 4_000)).isEqualTo(5);
+
+        assertThat(sketch.isExpired(mark, 11_999)).isFalse();
+        assertThat(sketch.isExpired(mark, 12_000)).isTrue();
+    }
+
+    @Test
+    void sizedSketchKeepsFreshKeysBelowThresholdUnderExpectedLoad() {
+        int threshold = 10;
+        int expected = 200_000;
+        WindowedCountMinSketch sketch = WindowedCountMinSketch.forExpectedKeys(16, expected, threshold, 10,
+                WINDOW_MILLIS);
+        for (int i = 0; i < expected; i++) {
+            sketch.increment("spray-" + i + "@example.com", 0);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (sketch.estimate("user-" + i + "@example.com", 0) >= threshold) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isZero();
+    }
+
+    @Test
+    void rejectsWidthsThatAreNotPowersOfTwo() {
+        assertThatThrownBy(() -> new WindowedCountMinSketch(4, 100, 10, WINDOW_MILLIS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
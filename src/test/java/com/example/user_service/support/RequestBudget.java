@@ -0,0 +1,20 @@
+package com.example.user_service.support;
+
+/**
+ * Máximo de sentencias SQL y llamadas externas permitidas para una petición
+ * Ejemplo: {@code RequestBudget.sql(3).spotify(2)}
+ */
+public record RequestBudget(int statements, int spotifyRequests, int azureCalls) {
+
+    public static RequestBudget sql(int statements) {
+        return new RequestBudget(statements, 0, 0);
+    }
+
+    public RequestBudget spotify(int requests) {
+        return new RequestBudget(statements, requests, azureCalls);
+    }
+
+    public RequestBudget azure(int calls) {
+        return new RequestBudget(statements, spotifyRequests, calls);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.user_service.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import com.example.user_service.config.TransactionMonitor;
+import com.example.user_service.service.CommentAnalysisService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import se.michaelthelin.spotify.SpotifyApi;
+
+/**
+ * Infraestructura de los tests de presupuesto por endpoint: contador de SQL
+ * sobre el DataSource, Spotify simulado a nivel HTTP y el medidor que
+ * combina ambos con las llamadas a Azure
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class RequestBudgetTestConfig {
+
+    @Bean
+    static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    StubSpotifyHttpManager stubSpotifyHttpManager() {
+        return new StubSpotifyHttpManager();
+    }
+
+    @Bean
+    @Primary
+    SpotifyApi stubSpotifyApi(StubSpotifyHttpManager httpManager) {
+        return new SpotifyApi.Builder()
+                .setClientId("test-client")
+                .setClientSecret("test-secret")
+                .setHttpManager(httpManager)
+                .build();
+    }
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    TransactionMonitor transactionMonitor(MeterRegistry meterRegistry) {
+        return new TransactionMonitor(meterRegistry, 1000);
+    }
+
+    @Bean
+    RequestCostMeter requestCostMeter(SqlStatementCounter sqlStatementCounter, StubSpotifyHttpManager spotify,
+            ObjectProvider<CommentAnalysisService> commentAnalysis) {
+        return new RequestCostMeter(sqlStatementCounter, spotify, commentAnalysis);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.user_service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.user_service.service.CommentAnalysisService;
+
+/**
+ * Ejecuta una petición MockMvc y comprueba que no supere su presupuesto
+ * Las llamadas a Azure se cuentan como invocaciones del CommentAnalysisService
+ * simulado (una petición a Text Analytics por invocación)
+ */
+public class RequestCostMeter {
+
+    private final SqlStatementCounter sqlStatements;
+    private final StubSpotifyHttpManager spotify;
+    private final ObjectProvider<CommentAnalysisService> commentAnalysis;
+
+    public RequestCostMeter(SqlStatementCounter sqlStatements, StubSpotifyHttpManager spotify,
+            ObjectProvider<CommentAnalysisService> commentAnalysis) {
+        this.sqlStatements = sqlStatements;
+        this.spotify = spotify;
+        this.commentAnalysis = commentAnalysis;
+    }
+
+    public ResultActions perform(MockMvc mockMvc, RequestBuilder request, RequestBudget budget) throws Exception {
+        CommentAnalysisService azure = commentAnalysis.getIfAvailable();
+        boolean azureStubbed = azure != null && Mockito.mockingDetails(azure).isMock();
+        if (azureStubbed) {
+            Mockito.clearInvocations(azure);
+        }
+        sqlStatements.reset();
+        spotify.reset();
+
+        ResultActions result = mockMvc.perform(request);
+
+        String endpoint = result.andReturn().getRequest().getMethod() + " "
+                + result.andReturn().getRequest().getRequestURI();
+        assertThat(sqlStatements.count())
+                .as("SQL statements for %s:%n%s", endpoint, String.join("\n", sqlStatements.statements()))
+                .isLessThanOrEqualTo(budget.statements());
+        assertThat(spotify.count())
+                .as("Spotify requests for %s:%n%s", endpoint, String.join("\n", spotify.requests()))
+                .isLessThanOrEqualTo(budget.spotifyRequests());
+        int azureCalls = azureStubbed ? Mockito.mockingDetails(azure).getInvocations().size() : 0;
+        assertThat(azureCalls)
+                .as("Azure Text Analytics calls for %s", endpoint)
+                .isLessThanOrEqualTo(budget.azureCalls());
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.user_service.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Cuenta las sentencias SQL enviadas por JDBC, sin depender de Hibernate:
+ * incluye JdbcTemplate y consultas nativas. Envuelve el DataSource y registra
+ * el SQL de cada prepareStatement/prepareCall y de cada Statement.execute*,
+ * para que un fallo de presupuesto muestre qué consultas se repitieron
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> STATEMENT_EXECUTIONS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final List<String> statements = new ArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    public synchronized void reset() {
+        statements.clear();
+    }
+
+    public synchronized int count() {
+        return statements.size();
+    }
+
+    public synchronized List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    private synchronized void record(String sql) {
+        statements.add(sql);
+    }
+
+    private final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                String name = method.getName();
+                if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args != null
+                        && args[0] instanceof String sql) {
+                    record(sql);
+                }
+                Object result = method.invoke(connection, args);
+                if (name.equals("createStatement") && result instanceof Statement statement) {
+                    return counting(statement);
+                }
+                return result;
+            });
+        }
+
+        private Statement counting(Statement statement) {
+            return proxy(Statement.class, statement, (method, args) -> {
+                if (STATEMENT_EXECUTIONS.contains(method.getName()) && args != null
+                        && args.length > 0 && args[0] instanceof String sql) {
+                    record(sql);
+                }
+                return method.invoke(statement, args);
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Delegation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Delegation delegation) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return delegation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
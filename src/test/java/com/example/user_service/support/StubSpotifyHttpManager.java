@@ -0,0 +1,91 @@
+package com.example.user_service.support;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+
+import se.michaelthelin.spotify.IHttpManager;
+
+/**
+ * Spotify Web API simulada a nivel HTTP
+ * SpotifyService se ejecuta sin cambios (token, artista, varios artistas) y
+ * cada petición que haría a Spotify se registra, incluida la del token
+ */
+public class StubSpotifyHttpManager implements IHttpManager {
+
+    private final List<String> requests = new ArrayList<>();
+
+    public synchronized void reset() {
+        requests.clear();
+    }
+
+    public synchronized int count() {
+        return requests.size();
+    }
+
+    public synchronized List<String> requests() {
+        return List.copyOf(requests);
+    }
+
+    @Override
+    public String get(URI uri, Header[] headers) {
+        record("GET", uri);
+        String path = uri.getPath();
+        if (path.equals("/v1/artists")) {
+            String ids = query(uri, "ids");
+            return Arrays.stream(ids.split(","))
+                    .map(StubSpotifyHttpManager::artist)
+                    .collect(Collectors.joining(",", "{\"artists\":[", "]}"));
+        }
+        if (path.startsWith("/v1/artists/")) {
+            return artist(path.substring("/v1/artists/".length()));
+        }
+        throw new IllegalStateException("Unexpected Spotify request: GET " + uri);
+    }
+
+    @Override
+    public String post(URI uri, Header[] headers, HttpEntity body) {
+        record("POST", uri);
+        if (uri.getPath().equals("/api/token")) {
+            return "{\"access_token\":\"test-token\",\"token_type\":\"Bearer\",\"expires_in\":3600}";
+        }
+        throw new IllegalStateException("Unexpected Spotify request: POST " + uri);
+    }
+
+    @Override
+    public String put(URI uri, Header[] headers, HttpEntity body) {
+        record("PUT", uri);
+        throw new IllegalStateException("Unexpected Spotify request: PUT " + uri);
+    }
+
+    @Override
+    public String delete(URI uri, Header[] headers, HttpEntity body) {
+        record("DELETE", uri);
+        throw new IllegalStateException("Unexpected Spotify request: DELETE " + uri);
+    }
+
+    private synchronized void record(String method, URI uri) {
+        requests.add(method + " " + uri);
+    }
+
+    private static String query(URI uri, String name) {
+        for (String parameter : uri.getQuery().split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                return parameter.substring(name.length() + 1);
+            }
+        }
+        return "";
+    }
+
+    private static String artist(String id) {
+        return """
+                {"id":"%1$s","name":"Artist %1$s","type":"artist","uri":"spotify:artist:%1$s",\
+                "genres":["rock"],"popularity":50,"followers":{"total":100},"images":[],\
+                "external_urls":{"spotify":"https://open.spotify.com/artist/%1$s"}}""".formatted(id);
+    }
+}